@@ -0,0 +1,87 @@
+package nl.tudelft.jpacman;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates large maps for the benchmarks.
+ *
+ * @author Jeroen Roosen
+ */
+public final class Mazes {
+
+    private Mazes() {
+    }
+
+    /**
+     * Generates a maze with corridors full of pellets, a player in the top
+     * left corner and a few ghosts. The maze is carved by a randomised depth
+     * first search, after which a few extra walls are knocked down to create
+     * loops.
+     *
+     * @param size
+     *            The width and height of the maze, which should be odd.
+     * @param seed
+     *            The seed of the maze.
+     * @return The rows of the map.
+     */
+    public static List<String> generate(int size, long seed) {
+        Random random = new Random(seed);
+        char[][] cells = new char[size][size];
+        for (char[] row : cells) {
+            Arrays.fill(row, '#');
+        }
+        carve(cells, random);
+        for (int i = 0; i < size * size / 20; i++) {
+            cells[1 + random.nextInt(size - 2)][1 + random.nextInt(size - 2)] = '.';
+        }
+        cells[1][1] = 'P';
+        cells[size - 2][size - 2] = 'G';
+        cells[1][size - 2] = 'G';
+        cells[size - 2][1] = 'G';
+        List<String> rows = new ArrayList<>();
+        for (char[] row : cells) {
+            rows.add(new String(row));
+        }
+        return rows;
+    }
+
+    /**
+     * Carves the corridors of a maze between the cells at odd positions.
+     *
+     * @param cells
+     *            The cells of the maze, all walls initially.
+     * @param random
+     *            The source of randomness.
+     */
+    private static void carve(char[][] cells, Random random) {
+        int[][] steps = {{0, 2}, {0, -2}, {2, 0}, {-2, 0}};
+        Deque<int[]> stack = new ArrayDeque<>();
+        cells[1][1] = '.';
+        stack.push(new int[] {1, 1});
+        while (!stack.isEmpty()) {
+            int[] cell = stack.peek();
+            List<int[]> options = new ArrayList<>();
+            for (int[] step : steps) {
+                int y = cell[0] + step[0];
+                int x = cell[1] + step[1];
+                if (y > 0 && y < cells.length - 1 && x > 0 && x < cells.length - 1
+                    && cells[y][x] == '#') {
+                    options.add(new int[] {y, x});
+                }
+            }
+            if (options.isEmpty()) {
+                stack.pop();
+            } else {
+                int[] next = options.get(random.nextInt(options.size()));
+                cells[(cell[0] + next[0]) / 2][(cell[1] + next[1]) / 2] = '.';
+                cells[next[0]][next[1]] = '.';
+                stack.push(next);
+            }
+        }
+    }
+}
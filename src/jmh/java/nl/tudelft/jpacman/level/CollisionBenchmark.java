@@ -0,0 +1,99 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures dispatching collisions through a {@link CollisionInteractionMap}.
+ *
+ * @author Jeroen Roosen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CollisionBenchmark {
+
+    /**
+     * The map dispatching the collisions.
+     */
+    private CollisionInteractionMap map;
+
+    /**
+     * A player.
+     */
+    private Player player;
+
+    /**
+     * A ghost, whose handler is listed for its super class.
+     */
+    private Ghost ghost;
+
+    /**
+     * A pellet.
+     */
+    private Pellet pellet;
+
+    /**
+     * The number of collisions handled.
+     */
+    private long handled;
+
+    /**
+     * Lists handlers that only count the collisions.
+     */
+    @Setup
+    public void setUp() {
+        PacManSprites sprites = new HeadlessSprites();
+        map = new CollisionInteractionMap();
+        map.onCollision(Player.class, Ghost.class, (p, g) -> handled++);
+        map.onCollision(Player.class, Pellet.class, (p, g) -> handled++);
+        player = new PlayerFactory(sprites).createPacMan();
+        ghost = new GhostFactory(sprites).createBlinky();
+        pellet = new LevelFactory(sprites, new GhostFactory(sprites)).createPellet();
+    }
+
+    /**
+     * @return The number of collisions handled.
+     */
+    @Benchmark
+    public long playerVersusGhost() {
+        map.collide(player, ghost);
+        return handled;
+    }
+
+    /**
+     * @return The number of collisions handled.
+     */
+    @Benchmark
+    public long ghostVersusPlayer() {
+        map.collide(ghost, player);
+        return handled;
+    }
+
+    /**
+     * @return The number of collisions handled.
+     */
+    @Benchmark
+    public long pelletVersusGhost() {
+        map.collide(pellet, ghost);
+        return handled;
+    }
+}
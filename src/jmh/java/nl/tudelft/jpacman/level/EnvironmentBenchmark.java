@@ -0,0 +1,86 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.Mazes;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the number of environment steps per second of a
+ * {@link VectorEnvironment}, stepping all environments in one batch.
+ *
+ * @author Jeroen Roosen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnvironmentBenchmark {
+
+    /**
+     * The number of environments stepped at once.
+     */
+    private static final int ENVIRONMENTS = 256;
+
+    /**
+     * The size of the generated maze played.
+     */
+    @Param({"21", "61"})
+    private int size;
+
+    /**
+     * The environments.
+     */
+    private VectorEnvironment environments;
+
+    /**
+     * The actions of the environments.
+     */
+    private int[] actions;
+
+    /**
+     * The number of batches stepped.
+     */
+    private int steps;
+
+    /**
+     * Creates and resets the environments.
+     */
+    @Setup
+    public void setUp() {
+        List<String> maze = Mazes.generate(size, 1L);
+        environments = new VectorEnvironment(maze, ENVIRONMENTS, ForkJoinPool.commonPool());
+        environments.reset(1L);
+        actions = new int[ENVIRONMENTS];
+    }
+
+    /**
+     * @return The rewards of the environments.
+     */
+    @Benchmark
+    @OperationsPerInvocation(ENVIRONMENTS)
+    public int[] step() {
+        steps++;
+        for (int i = 0; i < actions.length; i++) {
+            actions[i] = (steps / 4 + i) & 3;
+        }
+        environments.step(actions);
+        return environments.getRewards();
+    }
+}
@@ -0,0 +1,99 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures moving a player around the default board and counting the
+ * pellets that are left.
+ *
+ * @author Jeroen Roosen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelBenchmark {
+
+    /**
+     * The level being played.
+     */
+    private Level level;
+
+    /**
+     * The player moving around.
+     */
+    private Player player;
+
+    /**
+     * The number of moves made so far.
+     */
+    private int moves;
+
+    /**
+     * Starts a level on the default board. Its ghosts are driven by a virtual
+     * clock that is never advanced, so they stay put.
+     *
+     * @throws IOException
+     *             when the default board cannot be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        PacManSprites sprites = new HeadlessSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        level = parser.parseMap("/board.txt");
+        level.setScheduler(new VirtualClock());
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+        level.start();
+    }
+
+    /**
+     * Stops the level.
+     */
+    @TearDown
+    public void tearDown() {
+        level.stop();
+    }
+
+    /**
+     * Moves the player back and forth, eating the pellets next to the start.
+     */
+    @Benchmark
+    public void move() {
+        if ((moves++ & 1) == 0) {
+            level.move(player, Direction.WEST);
+        } else {
+            level.move(player, Direction.EAST);
+        }
+    }
+
+    /**
+     * @return The number of pellets left.
+     */
+    @Benchmark
+    public int remainingPellets() {
+        return level.remainingPellets();
+    }
+}
@@ -0,0 +1,98 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.Mazes;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures how fast a lookahead search can fork a {@link LevelState} and
+ * try out moves on it.
+ *
+ * @author Jeroen Roosen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LevelStateBenchmark {
+
+    /**
+     * The directions, by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The size of the generated maze played.
+     */
+    @Param({"21", "61"})
+    private int size;
+
+    /**
+     * The state captured from a level of the maze.
+     */
+    private LevelState state;
+
+    /**
+     * The number of moves tried.
+     */
+    private int moves;
+
+    /**
+     * Captures the state of a level of the maze.
+     */
+    @Setup
+    public void setUp() {
+        PacManSprites sprites = new HeadlessSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        Level level = parser.parseMap(Mazes.generate(size, 1L));
+        level.registerPlayer(new PlayerFactory(sprites).createPacMan());
+        state = LevelState.of(level);
+    }
+
+    /**
+     * @return A fork of the state.
+     */
+    @Benchmark
+    public LevelState fork() {
+        return state.fork();
+    }
+
+    /**
+     * Moves the player and all ghosts once, then undoes the moves.
+     *
+     * @return The number of pellets left after the moves.
+     */
+    @Benchmark
+    public int moveAndUndo() {
+        moves++;
+        state.movePlayer(0, DIRECTIONS[moves & 3]);
+        for (int ghost = 0; ghost < state.getGhostCount(); ghost++) {
+            state.moveGhost(ghost, DIRECTIONS[(moves + ghost) & 3]);
+        }
+        int remaining = state.remainingPellets();
+        for (int ghost = 0; ghost <= state.getGhostCount(); ghost++) {
+            state.undo();
+        }
+        return remaining;
+    }
+}
@@ -0,0 +1,96 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.Mazes;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing the default board and a large generated maze into a
+ * level.
+ *
+ * @author Jeroen Roosen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapParserBenchmark {
+
+    /**
+     * The parser, using the sprites of the game.
+     */
+    private MapParser parser;
+
+    /**
+     * The rows of a large maze.
+     */
+    private List<String> maze;
+
+    /**
+     * The text of the large maze.
+     */
+    private byte[] mazeText;
+
+    /**
+     * Creates the parser and generates the maze.
+     */
+    @Setup
+    public void setUp() {
+        PacManSprites sprites = new PacManSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        maze = Mazes.generate(301, 1L);
+        mazeText = String.join("\n", maze).getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return The level of the default board, read from the class path.
+     * @throws IOException
+     *             when the board cannot be read.
+     */
+    @Benchmark
+    public Level parseBoard() throws IOException {
+        try (InputStream source = MapParser.class.getResourceAsStream("/board.txt")) {
+            return parser.parseMap(source);
+        }
+    }
+
+    /**
+     * @return The level of the large maze.
+     */
+    @Benchmark
+    public Level parseMaze() {
+        return parser.parseMap(maze);
+    }
+
+    /**
+     * @return The level of the large maze, streamed from its text.
+     * @throws IOException
+     *             when the maze cannot be read.
+     */
+    @Benchmark
+    public Level parseLargeMaze() throws IOException {
+        return parser.parseLargeMap(new ByteArrayInputStream(mazeText));
+    }
+}
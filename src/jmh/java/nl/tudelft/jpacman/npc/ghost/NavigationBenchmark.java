@@ -0,0 +1,139 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.Mazes;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Pellet;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the path queries of {@link Navigation} on the default board and
+ * on large generated mazes.
+ *
+ * @author Jeroen Roosen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NavigationBenchmark {
+
+    /**
+     * The number of pairs of squares queried in turn.
+     */
+    private static final int PAIRS = 1024;
+
+    /**
+     * The map to search: the default board, or a generated maze of the
+     * given size.
+     */
+    @Param({"board", "101", "301"})
+    private String map;
+
+    /**
+     * The starting squares of the queries.
+     */
+    private Square[] from;
+
+    /**
+     * The destinations of the queries.
+     */
+    private Square[] to;
+
+    /**
+     * The ghost travelling the board.
+     */
+    private Unit traveller;
+
+    /**
+     * The index of the next query.
+     */
+    private int next;
+
+    /**
+     * Loads the map and picks random pairs of accessible squares.
+     *
+     * @throws IOException
+     *             when the default board cannot be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        PacManSprites sprites = new HeadlessSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        Board board;
+        if ("board".equals(map)) {
+            board = parser.parseMap("/board.txt").getBoard();
+        } else {
+            board = parser.parseMap(Mazes.generate(Integer.parseInt(map), 1L)).getBoard();
+        }
+        traveller = Navigation.findUnitInBoard(Ghost.class, board);
+        List<Square> squares = new ArrayList<>();
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            if (board.squareAtIndex(i).isAccessibleTo(traveller)) {
+                squares.add(board.squareAtIndex(i));
+            }
+        }
+        Random random = new Random(1L);
+        from = new Square[PAIRS];
+        to = new Square[PAIRS];
+        for (int i = 0; i < PAIRS; i++) {
+            from[i] = squares.get(random.nextInt(squares.size()));
+            to[i] = squares.get(random.nextInt(squares.size()));
+        }
+    }
+
+    /**
+     * @return The shortest path between the next pair of squares.
+     */
+    @Benchmark
+    public List<Direction> shortestPath() {
+        int i = next++ & (PAIRS - 1);
+        return Navigation.shortestPath(from[i], to[i], traveller);
+    }
+
+    /**
+     * @return The ghost nearest to the next square.
+     */
+    @Benchmark
+    public Unit findNearestGhost() {
+        int i = next++ & (PAIRS - 1);
+        return Navigation.findNearest(Ghost.class, from[i]);
+    }
+
+    /**
+     * @return The pellet nearest to the next square.
+     */
+    @Benchmark
+    public Unit findNearestPellet() {
+        int i = next++ & (PAIRS - 1);
+        return Navigation.findNearest(Pellet.class, from[i]);
+    }
+}
@@ -0,0 +1,102 @@
+package nl.tudelft.jpacman.ui;
+
+import java.awt.Dimension;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.game.GameFactory;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimationClock;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering a frame of the default board into an off-screen image.
+ *
+ * @author Jeroen Roosen
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RenderBenchmark {
+
+    /**
+     * The size of a square on screen in pixels.
+     */
+    @Param({"16", "32"})
+    private int cellSize;
+
+    /**
+     * The panel rendering the board.
+     */
+    private BoardPanel panel;
+
+    /**
+     * The graphics context of the off-screen image.
+     */
+    private Graphics2D graphics;
+
+    /**
+     * Creates a panel for a game on the default board, and an image of its
+     * size to render into.
+     *
+     * @throws IOException
+     *             when the default board cannot be read.
+     */
+    @Setup
+    public void setUp() throws IOException {
+        PacManSprites sprites = new PacManSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        Level level = parser.parseMap("/board.txt");
+        Game game = new GameFactory(new PlayerFactory(sprites)).createSinglePlayerGame(null, level);
+        panel = new BoardPanel(game);
+        Dimension size = new Dimension(level.getBoard().getWidth() * cellSize,
+            level.getBoard().getHeight() * cellSize);
+        panel.setSize(size);
+        BufferedImage image = new BufferedImage(size.width, size.height,
+            BufferedImage.TYPE_INT_ARGB);
+        graphics = image.createGraphics();
+    }
+
+    /**
+     * Releases the graphics context.
+     */
+    @TearDown
+    public void tearDown() {
+        graphics.dispose();
+    }
+
+    /**
+     * Renders a single frame, sampling the animation clock first like the
+     * UI does.
+     */
+    @Benchmark
+    public void renderFrame() {
+        AnimationClock.global().tick();
+        panel.paint(graphics);
+    }
+}
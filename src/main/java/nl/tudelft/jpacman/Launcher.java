@@ -8,11 +8,15 @@ import nl.tudelft.jpacman.board.BoardFactory;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.game.Game;
 import nl.tudelft.jpacman.game.GameFactory;
+import nl.tudelft.jpacman.level.FixedStepLoop;
 import nl.tudelft.jpacman.level.Level;
 import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.LevelTemplate;
 import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.MoveLoop;
 import nl.tudelft.jpacman.level.Player;
 import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.level.VirtualThreadScheduler;
 import nl.tudelft.jpacman.npc.ghost.GhostFactory;
 import nl.tudelft.jpacman.sprite.PacManSprites;
 import nl.tudelft.jpacman.ui.Action;
@@ -31,6 +35,13 @@ public class Launcher {
 
     public static final String DEFAULT_MAP = "/board.txt";
     private String levelMap = DEFAULT_MAP;
+    private boolean precomputePaths;
+    private Long seed;
+    private PacManSprites spriteStore = SPRITE_STORE;
+    private LevelTemplate levelTemplate;
+    private MoveLoop moveLoop;
+    private FixedStepLoop fixedStepLoop;
+    private boolean virtualThreads;
 
     private PacManUI pacManUI;
     private Game game;
@@ -61,6 +72,87 @@ public class Launcher {
      */
     public Launcher withMapFile(String fileName) {
         levelMap = fileName;
+        levelTemplate = null;
+        return this;
+    }
+
+    /**
+     * Precompute the shortest paths between all squares of the level when it
+     * is created, see {@link LevelFactory#setPrecomputePaths(boolean)}.
+     *
+     * @return This launcher.
+     */
+    public Launcher withPrecomputedPaths() {
+        precomputePaths = true;
+        levelTemplate = null;
+        return this;
+    }
+
+    /**
+     * Seed the levels, so that the ghosts behave the same way in every game,
+     * see {@link LevelFactory#setSeed(long)}.
+     *
+     * @param levelSeed
+     *            The seed of the levels.
+     * @return This launcher.
+     */
+    public Launcher withSeed(long levelSeed) {
+        seed = levelSeed;
+        levelTemplate = null;
+        return this;
+    }
+
+    /**
+     * Pack all sprites into a single texture atlas, see
+     * {@link PacManSprites#PacManSprites(boolean)}.
+     *
+     * @return This launcher.
+     */
+    public Launcher withSpriteAtlas() {
+        spriteStore = new PacManSprites(true);
+        levelTemplate = null;
+        return this;
+    }
+
+    /**
+     * Apply all moves on a single thread, taking them from a queue instead
+     * of locking the level, see {@link MoveLoop}. The launcher has a loop of
+     * its own, which runs from {@link #launch()} until {@link #dispose()}.
+     *
+     * @return This launcher.
+     */
+    public Launcher withMoveLoop() {
+        if (moveLoop == null) {
+            moveLoop = new MoveLoop(MoveLoop.DEFAULT_TICK_MILLIS);
+        }
+        levelTemplate = null;
+        return this;
+    }
+
+    /**
+     * Advance the levels in fixed ticks on a single thread, with the renderer
+     * drawing the snapshot of the last tick, see {@link FixedStepLoop}.
+     * The loop runs from {@link #launch()} until {@link #dispose()}.
+     *
+     * @return This launcher.
+     */
+    public Launcher withFixedStep() {
+        if (fixedStepLoop == null) {
+            fixedStepLoop = new FixedStepLoop(FixedStepLoop.DEFAULT_TICK_MILLIS);
+        }
+        levelTemplate = null;
+        return this;
+    }
+
+    /**
+     * Move every ghost on a virtual thread of its own, see
+     * {@link VirtualThreadScheduler}.
+     *
+     * @return This launcher.
+     */
+    public Launcher withVirtualThreads() {
+        virtualThreads = true;
+        levelTemplate = null;
         return this;
     }
 
@@ -79,16 +171,29 @@ public class Launcher {
     /**
      * Creates a new level. By default this method will use the map parser to
      * parse the default board stored in the <code>board.txt</code> resource.
+     * The map is only parsed the first time, after which new levels are
+     * created from the template of the map.
      *
      * @return A new level.
      */
     public Level makeLevel() {
-        try {
-            return getMapParser().parseMap(getLevelMap());
-        } catch (IOException e) {
-            throw new PacmanConfigurationException(
-                    "Unable to create level, name = " + getLevelMap(), e);
+        return getLevelTemplate().createLevel();
+    }
+
+    /**
+     * @return The template of the levels of the map, parsing the map the
+     *         first time it is needed.
+     */
+    protected synchronized LevelTemplate getLevelTemplate() {
+        if (levelTemplate == null) {
+            try {
+                levelTemplate = getMapParser().parseTemplate(getLevelMap());
+            } catch (IOException e) {
+                throw new PacmanConfigurationException(
+                        "Unable to create level, name = " + getLevelMap(), e);
+            }
         }
+        return levelTemplate;
     }
 
     /**
@@ -108,10 +213,11 @@ public class Launcher {
     }
 
     /**
-     * @return The default {@link PacManSprites}.
+     * @return The default {@link PacManSprites}, or the ones packed into an
+     *         atlas if {@link #withSpriteAtlas()} was called.
      */
     protected PacManSprites getSpriteStore() {
-        return SPRITE_STORE;
+        return spriteStore;
     }
 
     /**
@@ -119,7 +225,17 @@ public class Launcher {
      *         and the ghosts from {@link #getGhostFactory()}.
      */
     protected LevelFactory getLevelFactory() {
-        return new LevelFactory(getSpriteStore(), getGhostFactory());
+        LevelFactory factory = new LevelFactory(getSpriteStore(), getGhostFactory());
+        factory.setPrecomputePaths(precomputePaths);
+        if (seed != null) {
+            factory.setSeed(seed);
+        }
+        factory.setMoveLoop(moveLoop);
+        factory.setFixedStepLoop(fixedStepLoop);
+        if (virtualThreads) {
+            factory.setNpcScheduler(VirtualThreadScheduler.getShared());
+        }
+        return factory;
     }
 
     /**
@@ -172,10 +288,20 @@ public class Launcher {
     }
 
     /**
-     * Creates and starts a JPac-Man game.
+     * Creates and starts a JPac-Man game. The sprites are loaded in the
+     * background while the game is being created, and from then on the
+     * level for the next reset is kept ready in the background.
      */
     public void launch() {
+        if (moveLoop != null) {
+            moveLoop.start();
+        }
+        if (fixedStepLoop != null) {
+            fixedStepLoop.start();
+        }
+        getSpriteStore().preload();
         makeGame();
+        getLevelTemplate().setPrebuild(true);
         PacManUiBuilder builder = new PacManUiBuilder().withDefaultButtons();
         addSinglePlayerKeys(builder);
         pacManUI = builder.build(getGame());
@@ -183,14 +309,20 @@ public class Launcher {
     }
 
     /**
-     * Disposes of the UI. For more information see
-     * {@link javax.swing.JFrame#dispose()}.
+     * Disposes of the UI and stops the loops started by {@link #launch()}.
+     * For more information see {@link javax.swing.JFrame#dispose()}.
      *
      * Precondition: The game was launched first.
      */
     public void dispose() {
         assert pacManUI != null;
         pacManUI.dispose();
+        if (moveLoop != null) {
+            moveLoop.stop();
+        }
+        if (fixedStepLoop != null) {
+            fixedStepLoop.stop();
+        }
     }
 
     /**
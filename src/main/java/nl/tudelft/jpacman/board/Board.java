@@ -1,5 +1,7 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /**
  * A top-down view of a matrix of {@link Square}s.
@@ -13,6 +15,11 @@ public class Board {
      */
     private final Square[][] board;
 
+    /**
+     * The objects observing the occupants of this board.
+     */
+    private final List<BoardObserver> observers;
+
     /**
      * Creates a new board.
      *
@@ -24,7 +31,13 @@ public class Board {
     Board(Square[][] grid) {
         assert grid != null;
         this.board = grid;
+        this.observers = new CopyOnWriteArrayList<>();
         assert invariant() : "Initial grid cannot contain null squares";
+        for (int x = 0; x < grid.length; x++) {
+            for (int y = 0; y < grid[x].length; y++) {
+                grid[x][y].attach(this, indexOf(x, y));
+            }
+        }
     }
 
     /**
@@ -79,6 +92,72 @@ public class Board {
         return result;
     }
 
+    /**
+     * Returns the number of squares on this board.
+     *
+     * @return The number of squares, one more than the highest square index.
+     */
+    public int getSquareCount() {
+        return getWidth() * getHeight();
+    }
+
+    /**
+     * Returns the square with the given index, as returned by
+     * {@link Square#getIndex()}.
+     *
+     * Precondition: The index is at least <code>0</code> and less than the
+     * number of squares on this board.
+     *
+     * @param index
+     *            The index of the requested square.
+     * @return The square with the given index (never null).
+     */
+    public Square squareAtIndex(int index) {
+        assert index >= 0 && index < getSquareCount();
+        int height = getHeight();
+        return squareAt(index / height, index % height);
+    }
+
+    /**
+     * Returns the column of the square with the given index.
+     *
+     * @param index
+     *            The index of the square, as returned by
+     *            {@link Square#getIndex()}.
+     * @return The <code>x</code> position of the square.
+     */
+    public int columnOf(int index) {
+        assert index >= 0 && index < getSquareCount();
+        return index / getHeight();
+    }
+
+    /**
+     * Returns the row of the square with the given index.
+     *
+     * @param index
+     *            The index of the square, as returned by
+     *            {@link Square#getIndex()}.
+     * @return The <code>y</code> position of the square.
+     */
+    public int rowOf(int index) {
+        assert index >= 0 && index < getSquareCount();
+        return index % getHeight();
+    }
+
+    /**
+     * Computes the dense index of the square at the given position. Squares
+     * are numbered column by column.
+     *
+     * @param x
+     *            The <code>x</code> position (column) of the square.
+     * @param y
+     *            The <code>y</code> position (row) of the square.
+     * @return The index of the square at the given position.
+     */
+    private int indexOf(int x, int y) {
+        return x * getHeight() + y;
+    }
+
     /**
      * Determines whether the given <code>x,y</code> position is on this board.
      *
@@ -91,4 +170,83 @@ public class Board {
     public boolean withinBorders(int x, int y) {
         return x >= 0 && x < getWidth() && y >= 0 && y < getHeight();
     }
+
+    /**
+     * Adds an observer that will be notified whenever a unit enters or leaves
+     * a square on this board.
+     *
+     * @param observer
+     *            The observer that will be notified.
+     */
+    public void addObserver(BoardObserver observer) {
+        assert observer != null;
+        observers.add(observer);
+    }
+
+    /**
+     * Removes an observer if it was listed.
+     *
+     * @param observer
+     *            The observer to be removed.
+     */
+    public void removeObserver(BoardObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Notifies the observers that a unit entered a square of this board.
+     *
+     * @param square
+     *            The square that was entered.
+     * @param unit
+     *            The unit that entered the square.
+     */
+    void unitEntered(Square square, Unit unit) {
+        for (BoardObserver observer : observers) {
+            observer.unitEntered(square, unit);
+        }
+    }
+
+    /**
+     * Notifies the observers that a unit left a square of this board.
+     *
+     * @param square
+     *            The square that was left.
+     * @param unit
+     *            The unit that left the square.
+     */
+    void unitLeft(Square square, Unit unit) {
+        for (BoardObserver observer : observers) {
+            observer.unitLeft(square, unit);
+        }
+    }
+
+    /**
+     * An observer that will be notified when the occupants of the squares on
+     * a board change.
+     *
+     * @author Jeroen Roosen
+     */
+    public interface BoardObserver {
+
+        /**
+         * A unit has started occupying a square.
+         *
+         * @param square
+         *            The square that was entered.
+         * @param unit
+         *            The unit that entered the square.
+         */
+        void unitEntered(Square square, Unit unit);
+
+        /**
+         * A unit has stopped occupying a square.
+         *
+         * @param square
+         *            The square that was left.
+         * @param unit
+         *            The unit that left the square.
+         */
+        void unitLeft(Square square, Unit unit);
+    }
 }
@@ -57,6 +57,40 @@ public class BoardFactory {
         return board;
     }
 
+    /**
+     * Creates a new board from a grid of cells and connects it to the
+     * neighbours that were worked out before, instead of working them out
+     * again.
+     *
+     * @param grid
+     *            The square grid of cells, in which grid[x][y] corresponds to
+     *            the square at position x,y.
+     * @param neighbours
+     *            The index of the neighbour of every square in every
+     *            direction, see {@link Square#getIndex()}, stored at
+     *            <code>index * 4 + direction.ordinal()</code>.
+     * @return A new board, wrapping a grid of connected cells.
+     */
+    public Board createBoard(Square[][] grid, int[] neighbours) {
+        assert grid != null;
+
+        Board board = new Board(grid);
+
+        Direction[] directions = Direction.values();
+        Square[] squares = new Square[board.getSquareCount()];
+        assert neighbours.length == squares.length * directions.length;
+        for (int i = 0; i < squares.length; i++) {
+            squares[i] = board.squareAtIndex(i);
+        }
+        for (int i = 0; i < squares.length; i++) {
+            for (Direction dir : directions) {
+                squares[i].link(squares[neighbours[i * directions.length + dir.ordinal()]], dir);
+            }
+        }
+
+        return board;
+    }
+
     /**
      * Creates a new square that can be occupied by any unit.
      *
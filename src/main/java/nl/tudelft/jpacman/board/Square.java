@@ -21,20 +21,78 @@ public abstract class Square {
      */
     private final List<Unit> occupants;
 
+    /**
+     * An immutable copy of the occupants, rebuilt whenever they change so
+     * that reading them does not allocate.
+     */
+    private volatile List<Unit> snapshot;
+
     /**
      * The collection of squares adjacent to this square.
      */
     private final Map<Direction, Square> neighbours;
 
+    /**
+     * The board this square is part of, or <code>null</code> if it has not
+     * been placed on a board yet.
+     */
+    private Board board;
+
+    /**
+     * The index of this square on its board, or <code>-1</code> if it has not
+     * been placed on a board yet.
+     */
+    private int index = -1;
+
     /**
      * Creates a new, empty square.
      */
     protected Square() {
         this.occupants = new ArrayList<>();
+        this.snapshot = ImmutableList.of();
         this.neighbours = new EnumMap<>(Direction.class);
         assert invariant();
     }
 
+    /**
+     * Places this square on a board, which will be notified of changes to
+     * the occupants of this square from now on.
+     *
+     * @param owner
+     *            The board this square is part of.
+     * @param position
+     *            The dense index of this square on the board.
+     */
+    void attach(Board owner, int position) {
+        assert owner != null;
+        assert position >= 0;
+        this.board = owner;
+        this.index = position;
+    }
+
+    /**
+     * Returns the board this square is part of.
+     *
+     * @return The board of this square, or <code>null</code> if it has not
+     *         been placed on a board.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * Returns the index of this square on its board. Indices are dense, i.e.
+     * they range from <code>0</code> to the number of squares on the board,
+     * which makes them suitable to index primitive arrays with.
+     *
+     * @return The index of this square on its board, or <code>-1</code> if it
+     *         has not been placed on a board.
+     * @see Board#squareAtIndex(int)
+     */
+    public int getIndex() {
+        return index;
+    }
+
     /**
      * Returns the square adjacent to this square.
      *
@@ -62,13 +120,15 @@ public abstract class Square {
 
     /**
      * Returns an immutable list of units occupying this square, in the order in
-     * which they occupied this square (i.e. oldest first.)
+     * which they occupied this square (i.e. oldest first.) The list is a
+     * snapshot that is only rebuilt when the occupants change, so reading the
+     * occupants of a square that did not change does not allocate.
      *
      * @return An immutable list of units occupying this square, in the order in
      *         which they occupied this square (i.e. oldest first.)
      */
     public List<Unit> getOccupants() {
-        return ImmutableList.copyOf(occupants);
+        return snapshot;
     }
 
     /**
@@ -82,6 +142,10 @@ public abstract class Square {
         assert !occupants.contains(occupant);
 
         occupants.add(occupant);
+        snapshot = ImmutableList.copyOf(occupants);
+        if (board != null) {
+            board.unitEntered(this, occupant);
+        }
     }
 
     /**
@@ -92,7 +156,13 @@ public abstract class Square {
      */
     void remove(Unit occupant) {
         assert occupant != null;
-        occupants.remove(occupant);
+        if (!occupants.remove(occupant)) {
+            return;
+        }
+        snapshot = ImmutableList.copyOf(occupants);
+        if (board != null) {
+            board.unitLeft(this, occupant);
+        }
     }
 
     /**
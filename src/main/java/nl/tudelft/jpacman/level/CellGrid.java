@@ -0,0 +1,192 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+
+/**
+ * The characters of a text map, read in a single pass into one flat array
+ * with one byte per square.
+ * <p>
+ * Unlike reading the map into lines of text, no intermediate strings or
+ * transposed arrays are kept, so a map takes little more memory than one
+ * byte per square while it is being read. The stream is read in large
+ * blocks, so it does not need to be buffered. The squares of a binary map,
+ * which are stored column by column, can be wrapped without copying them.
+ *
+ * @author Jeroen Roosen
+ */
+final class CellGrid {
+
+    /**
+     * The characters that may appear on a map.
+     */
+    private static final String VALID = " #.AGP";
+
+    /**
+     * The size of the blocks in which the stream is read.
+     */
+    private static final int BLOCK_SIZE = 65_536;
+
+    /**
+     * The characters of the squares, row by row unless {@link #byColumn}.
+     */
+    private byte[] cells = new byte[BLOCK_SIZE];
+
+    /**
+     * <code>true</code> iff the squares are stored column by column.
+     */
+    private boolean byColumn;
+
+    /**
+     * The height of the map if the squares are stored column by column.
+     */
+    private int columnHeight;
+
+    /**
+     * The number of characters read.
+     */
+    private int size;
+
+    /**
+     * The width of the map, or -1 while the first row is being read.
+     */
+    private int width = -1;
+
+    /**
+     * The number of characters read on the current row.
+     */
+    private int column;
+
+    /**
+     * Creates an empty grid to read into.
+     */
+    private CellGrid() {
+    }
+
+    /**
+     * Wraps the squares of a map that are stored column by column.
+     *
+     * @param cells
+     *            The characters of the squares, column by column. The array
+     *            is used as is and must not be changed.
+     * @param width
+     *            The width of the map.
+     * @param height
+     *            The height of the map.
+     * @return The characters of the map.
+     */
+    static CellGrid ofColumns(byte[] cells, int width, int height) {
+        assert width > 0 && height > 0 && cells.length == width * height;
+        CellGrid grid = new CellGrid();
+        grid.cells = cells;
+        grid.size = cells.length;
+        grid.width = width;
+        grid.byColumn = true;
+        grid.columnHeight = height;
+        return grid;
+    }
+
+    /**
+     * Reads a text map. Rows end in a line feed, optionally preceded by a
+     * carriage return, and must all be of the same width.
+     *
+     * @param source
+     *            The stream to read. It is not closed.
+     * @return The characters of the map.
+     * @throws IOException
+     *             when the stream could not be read.
+     * @throws PacmanConfigurationException
+     *             when the text is not a valid map.
+     */
+    static CellGrid read(InputStream source) throws IOException {
+        CellGrid grid = new CellGrid();
+        byte[] block = new byte[BLOCK_SIZE];
+        int read = source.read(block);
+        while (read >= 0) {
+            for (int i = 0; i < read; i++) {
+                grid.accept(block[i]);
+            }
+            read = source.read(block);
+        }
+        if (grid.column > 0) {
+            grid.endRow();
+        }
+        if (grid.size == 0) {
+            throw new PacmanConfigurationException(
+                "Input text must consist of at least 1 row.");
+        }
+        return grid;
+    }
+
+    /**
+     * Adds the next character of the text.
+     *
+     * @param b
+     *            The character.
+     */
+    private void accept(byte b) {
+        if (b == '\n') {
+            endRow();
+        } else if (b != '\r') {
+            if (VALID.indexOf(b) < 0) {
+                throw new PacmanConfigurationException("Invalid character at "
+                    + column + "," + getHeight() + ": " + (char) b);
+            }
+            if (size == cells.length) {
+                cells = Arrays.copyOf(cells, cells.length * 2);
+            }
+            cells[size++] = b;
+            column++;
+        }
+    }
+
+    /**
+     * Ends the current row, checking it is as wide as the others.
+     */
+    private void endRow() {
+        if (column == 0) {
+            throw new PacmanConfigurationException("Input text lines cannot be empty.");
+        }
+        if (width < 0) {
+            width = column;
+        } else if (column != width) {
+            throw new PacmanConfigurationException(
+                "Input text lines are not of equal width.");
+        }
+        column = 0;
+    }
+
+    /**
+     * @return The width of the map.
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The number of complete rows.
+     */
+    int getHeight() {
+        if (width <= 0) {
+            return 0;
+        }
+        return size / width;
+    }
+
+    /**
+     * @param x
+     *            The column of the square.
+     * @param y
+     *            The row of the square, the top row being 0.
+     * @return The map character of the square.
+     */
+    char charAt(int x, int y) {
+        if (byColumn) {
+            return (char) cells[x * columnHeight + y];
+        }
+        return (char) cells[y * width + x];
+    }
+}
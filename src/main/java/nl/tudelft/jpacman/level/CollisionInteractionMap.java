@@ -4,28 +4,44 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 import nl.tudelft.jpacman.board.Unit;
 
 /**
- * A map of possible collisions and their handlers.
+ * A map of possible collisions and their handlers. The handler for a pair of
+ * unit classes is only looked up in the class hierarchy the first time those
+ * classes collide, after which it is cached until a handler is added.
  *
  * @author Michael de Jong
  * @author Jeroen Roosen 
  */
 public class CollisionInteractionMap implements CollisionMap {
 
+    /**
+     * The handler cached for pairs of units that do not collide.
+     */
+    private static final CollisionHandler<?, ?> NO_HANDLER = (collider, collidee) -> { };
+
     /**
      * The collection of collision handlers.
      */
     private final Map<Class<? extends Unit>,
         Map<Class<? extends Unit>, CollisionHandler<?, ?>>> handlers;
 
+    /**
+     * The handlers resolved for pairs of concrete unit classes so far, with
+     * {@link #NO_HANDLER} for pairs without a handler. Cleared whenever a
+     * handler is added.
+     */
+    private final Map<Class<?>, Map<Class<?>, CollisionHandler<?, ?>>> resolved;
+
     /**
      * Creates a new, empty collision map.
      */
     public CollisionInteractionMap() {
         this.handlers = new HashMap<>();
+        this.resolved = new ConcurrentHashMap<>();
     }
 
     /**
@@ -89,12 +105,15 @@ public class CollisionInteractionMap implements CollisionMap {
      */
     private void addHandler(Class<? extends Unit> collider,
                             Class<? extends Unit> collidee, CollisionHandler<?, ?> handler) {
-        if (!handlers.containsKey(collider)) {
-            handlers.put(collider, new HashMap<>());
-        }
+        synchronized (handlers) {
+            if (!handlers.containsKey(collider)) {
+                handlers.put(collider, new HashMap<>());
+            }
 
-        Map<Class<? extends Unit>, CollisionHandler<?, ?>> map = handlers.get(collider);
-        map.put(collidee, handler);
+            Map<Class<? extends Unit>, CollisionHandler<?, ?>> map = handlers.get(collider);
+            map.put(collidee, handler);
+            resolved.clear();
+        }
     }
 
     /**
@@ -115,23 +134,48 @@ public class CollisionInteractionMap implements CollisionMap {
     @Override
     public <C1 extends Unit, C2 extends Unit> void collide(C1 collider,
                                                            C2 collidee) {
-        Class<? extends Unit> colliderKey = getMostSpecificClass(handlers, collider.getClass());
-        if (colliderKey == null) {
-            return;
+        CollisionHandler<?, ?> handler = null;
+        Map<Class<?>, CollisionHandler<?, ?>> map = resolved.get(collider.getClass());
+        if (map != null) {
+            handler = map.get(collidee.getClass());
         }
-
-        Map<Class<? extends Unit>, CollisionHandler<?, ?>> map = handlers.get(colliderKey);
-        Class<? extends Unit> collideeKey = getMostSpecificClass(map, collidee.getClass());
-        if (collideeKey == null) {
-            return;
+        if (handler == null) {
+            handler = resolve(collider.getClass(), collidee.getClass());
         }
-
-        CollisionHandler<C1, C2> collisionHandler = (CollisionHandler<C1, C2>) map.get(collideeKey);
-        if (collisionHandler == null) {
+        if (handler == NO_HANDLER) {
             return;
         }
 
-        collisionHandler.handleCollision(collider, collidee);
+        ((CollisionHandler<C1, C2>) handler).handleCollision(collider, collidee);
+    }
+
+    /**
+     * Looks up the handler for a pair of concrete unit classes in the listed
+     * handlers, and caches the result.
+     *
+     * @param colliderClass
+     *            The class of the collider.
+     * @param collideeClass
+     *            The class of the collidee.
+     * @return The handler for the pair, or {@link #NO_HANDLER}.
+     */
+    private CollisionHandler<?, ?> resolve(Class<? extends Unit> colliderClass,
+                                           Class<? extends Unit> collideeClass) {
+        synchronized (handlers) {
+            CollisionHandler<?, ?> handler = NO_HANDLER;
+            Class<? extends Unit> colliderKey = getMostSpecificClass(handlers, colliderClass);
+            if (colliderKey != null) {
+                Map<Class<? extends Unit>, CollisionHandler<?, ?>> map =
+                    handlers.get(colliderKey);
+                Class<? extends Unit> collideeKey = getMostSpecificClass(map, collideeClass);
+                if (collideeKey != null && map.get(collideeKey) != null) {
+                    handler = map.get(collideeKey);
+                }
+            }
+            resolved.computeIfAbsent(colliderClass, key -> new ConcurrentHashMap<>())
+                .put(collideeClass, handler);
+            return handler;
+        }
     }
 
     /**
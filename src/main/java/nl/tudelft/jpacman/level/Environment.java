@@ -0,0 +1,311 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Board.BoardObserver;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level.LevelObserver;
+import nl.tudelft.jpacman.npc.Ghost;
+
+/**
+ * A headless game of a single level for agents to play, one step at a time.
+ * <p>
+ * The level runs on a {@link VirtualClock}: every step the player makes the
+ * move chosen by the agent and the clock advances by {@link #STEP_MILLIS},
+ * letting the ghosts move exactly as they would in a real-time game. The
+ * agent observes the board as one byte per square, which is kept up to date
+ * as units enter and leave squares rather than being rebuilt every step.
+ *
+ * @author Jeroen Roosen
+ */
+public final class Environment implements LevelObserver {
+
+    /**
+     * The virtual time that passes in a step, in milliseconds.
+     */
+    public static final long STEP_MILLIS = 200L;
+
+    /**
+     * The observation of a square that is empty.
+     */
+    public static final byte EMPTY = 0;
+
+    /**
+     * The observation of a square that cannot be entered.
+     */
+    public static final byte WALL = 1;
+
+    /**
+     * The observation of a square with a pellet on it.
+     */
+    public static final byte PELLET = 2;
+
+    /**
+     * The observation of a square with a ghost on it.
+     */
+    public static final byte GHOST = 3;
+
+    /**
+     * The observation of the square of the player.
+     */
+    public static final byte PLAYER = 4;
+
+    /**
+     * The actions, by number. Any other number lets the player stand still.
+     */
+    private static final Direction[] ACTIONS = Direction.values();
+
+    /**
+     * The template of the levels played.
+     */
+    private final LevelTemplate template;
+
+    /**
+     * The factory creating the player of every level.
+     */
+    private final PlayerFactory players;
+
+    /**
+     * The observations, of which this environment writes one byte per square
+     * starting at {@link #offset}.
+     */
+    private final byte[] observations;
+
+    /**
+     * The index of the observation of the first square.
+     */
+    private final int offset;
+
+    /**
+     * The level being played, or <code>null</code> before the first reset.
+     */
+    private Level level;
+
+    /**
+     * The player on the level.
+     */
+    private Player player;
+
+    /**
+     * The clock driving the level.
+     */
+    private VirtualClock clock;
+
+    /**
+     * The score of the player after the previous step.
+     */
+    private int score;
+
+    /**
+     * <code>true</code> iff the level has been won or lost.
+     */
+    private boolean done;
+
+    /**
+     * Creates a new environment, which has to be reset before it can be
+     * stepped.
+     *
+     * @param template
+     *            The template of the levels to play.
+     * @param players
+     *            The factory creating the players.
+     */
+    public Environment(LevelTemplate template, PlayerFactory players) {
+        this(template, players, new byte[template.getWidth() * template.getHeight()], 0);
+    }
+
+    /**
+     * Creates a new environment writing its observations into a slice of a
+     * larger array, see {@link VectorEnvironment}.
+     *
+     * @param template
+     *            The template of the levels to play.
+     * @param players
+     *            The factory creating the players.
+     * @param observations
+     *            The array to write the observations into.
+     * @param offset
+     *            The index of the observation of the first square.
+     */
+    Environment(LevelTemplate template, PlayerFactory players, byte[] observations, int offset) {
+        assert template != null;
+        assert players != null;
+        assert offset + template.getWidth() * template.getHeight() <= observations.length;
+        this.template = template;
+        this.players = players;
+        this.observations = observations;
+        this.offset = offset;
+    }
+
+    /**
+     * Starts a new game on a fresh level.
+     *
+     * @param seed
+     *            The seed of the ghosts, so that the same seed and the same
+     *            actions play out the same way.
+     */
+    public void reset(long seed) {
+        if (level != null) {
+            level.stop();
+        }
+        level = template.createLevel();
+        level.setSeed(seed);
+        clock = new VirtualClock();
+        level.setScheduler(clock);
+        player = players.createPacMan();
+        level.registerPlayer(player);
+        level.addObserver(this);
+        Board board = level.getBoard();
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            observe(board.squareAtIndex(i));
+        }
+        board.addObserver(new Observer());
+        score = 0;
+        done = false;
+        level.start();
+    }
+
+    /**
+     * Makes a move and lets the time of a step pass. Once the level is done
+     * the environment has to be reset.
+     *
+     * @param action
+     *            The direction to move the player in, as the ordinal of a
+     *            {@link Direction}, or any other number to stand still.
+     * @return The points scored in this step.
+     * @throws IllegalStateException
+     *             when the environment has not been reset yet.
+     */
+    public int step(int action) {
+        if (level == null) {
+            throw new IllegalStateException("The environment must be reset before stepping.");
+        }
+        if (done) {
+            return 0;
+        }
+        if (action >= 0 && action < ACTIONS.length) {
+            level.move(player, ACTIONS[action]);
+        }
+        clock.advanceTo(clock.now() + STEP_MILLIS);
+        int reward = player.getScore() - score;
+        score = player.getScore();
+        return reward;
+    }
+
+    /**
+     * @return <code>true</code> iff the level has been won or lost, after
+     *         which the environment has to be reset.
+     */
+    public boolean isDone() {
+        return done;
+    }
+
+    /**
+     * @return <code>true</code> iff the player is still alive.
+     */
+    public boolean isPlayerAlive() {
+        return player.isAlive();
+    }
+
+    /**
+     * @return The level being played.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Returns the observations of the squares, one byte per square by square
+     * index, from {@link #getObservationOffset()} on. The array is kept up
+     * to date by the environment and must not be changed.
+     *
+     * @return The array holding the observations.
+     */
+    public byte[] getObservations() {
+        return observations;
+    }
+
+    /**
+     * @return The index in {@link #getObservations()} of the observation of
+     *         the first square.
+     */
+    public int getObservationOffset() {
+        return offset;
+    }
+
+    /**
+     * @return The number of squares observed.
+     */
+    public int getObservationSize() {
+        return template.getWidth() * template.getHeight();
+    }
+
+    @Override
+    public void levelWon() {
+        done = true;
+        level.stop();
+    }
+
+    @Override
+    public void levelLost() {
+        done = true;
+        level.stop();
+    }
+
+    /**
+     * Updates the observation of a square.
+     *
+     * @param square
+     *            The square to observe.
+     */
+    private void observe(Square square) {
+        observations[offset + square.getIndex()] = encode(square);
+    }
+
+    /**
+     * @param square
+     *            The square to observe.
+     * @return The observation of the square.
+     */
+    private byte encode(Square square) {
+        if (!square.isAccessibleTo(player)) {
+            return WALL;
+        }
+        byte observation = EMPTY;
+        List<Unit> occupants = square.getOccupants();
+        for (int i = 0; i < occupants.size(); i++) {
+            Unit unit = occupants.get(i);
+            if (unit instanceof Player) {
+                return PLAYER;
+            }
+            if (unit instanceof Ghost) {
+                observation = GHOST;
+            } else if (unit instanceof Pellet && observation == EMPTY) {
+                observation = PELLET;
+            }
+        }
+        return observation;
+    }
+
+    /**
+     * Keeps the observations up to date with the units entering and leaving
+     * squares.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class Observer implements BoardObserver {
+
+        @Override
+        public void unitEntered(Square square, Unit unit) {
+            observe(square);
+        }
+
+        @Override
+        public void unitLeft(Square square, Unit unit) {
+            observe(square);
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Advances the levels using it in whole ticks of a fixed duration, all on a
+ * single thread.
+ * <p>
+ * Every tick the loop first runs the NPCs that are due, then applies all
+ * moves that were queued during the tick, both by the NPCs and by the
+ * players, and finally publishes a {@link TickSnapshot} of every level for
+ * the renderer. The delays of the NPCs are rounded to whole ticks, so their
+ * speeds no longer depend on the timing of separate timers, and no other
+ * thread ever changes the boards. As the renderer only reads the snapshots,
+ * it can draw at any frame rate without slowing down the simulation.
+ *
+ * @author Jeroen Roosen
+ */
+public final class FixedStepLoop implements Scheduler {
+
+    /**
+     * The logger reporting tasks that failed.
+     */
+    private static final Logger LOGGER = Logger.getLogger(FixedStepLoop.class.getName());
+
+    /**
+     * The default duration of a tick in milliseconds.
+     */
+    public static final long DEFAULT_TICK_MILLIS = 25L;
+
+    /**
+     * The duration of a tick in milliseconds.
+     */
+    private final long tickMillis;
+
+    /**
+     * The queue of the moves on the levels, which is applied once per tick.
+     */
+    private final MoveLoop moves;
+
+    /**
+     * The levels in progress that are advanced by this loop.
+     */
+    private final CopyOnWriteArrayList<Level> levels;
+
+    /**
+     * The levels that were stopped, to be let go once the snapshot of their
+     * last tick has been taken.
+     */
+    private final Queue<Level> leaving;
+
+    /**
+     * Tasks that have been scheduled, but not yet added to the due tasks.
+     */
+    private final Queue<Step> pending;
+
+    /**
+     * The scheduled tasks, in the order they were scheduled, only used by
+     * the thread running the ticks.
+     */
+    private final List<Step> steps;
+
+    /**
+     * The number of ticks that have been run.
+     */
+    private volatile long tick;
+
+    /**
+     * The thread running the ticks, or <code>null</code> if it is not
+     * running.
+     */
+    private Thread worker;
+
+    /**
+     * Creates a new loop, which does not run until it is started.
+     *
+     * @param tickMillis
+     *            The duration of a tick in milliseconds.
+     */
+    public FixedStepLoop(long tickMillis) {
+        assert tickMillis > 0;
+        this.tickMillis = tickMillis;
+        this.moves = new MoveLoop(tickMillis);
+        this.levels = new CopyOnWriteArrayList<>();
+        this.leaving = new ConcurrentLinkedQueue<>();
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.steps = new ArrayList<>();
+    }
+
+    /**
+     * @return The queue of the moves on the levels, which is applied once
+     *         per tick.
+     */
+    MoveLoop getMoves() {
+        return moves;
+    }
+
+    /**
+     * Starts taking a snapshot of a level after every tick. Called by a level
+     * using this loop when it is started, see
+     * {@link Level#useFixedStep(FixedStepLoop)}.
+     *
+     * @param level
+     *            The level to take snapshots of.
+     */
+    void attach(Level level) {
+        levels.addIfAbsent(level);
+    }
+
+    /**
+     * Stops taking snapshots of a level once the snapshot of the current tick
+     * has been taken. Called by a level using this loop when it is stopped,
+     * so that levels that are over or replaced are let go.
+     *
+     * @param level
+     *            The level to stop taking snapshots of.
+     */
+    void detach(Level level) {
+        leaving.add(level);
+    }
+
+    /**
+     * @return The number of levels this loop takes snapshots of.
+     */
+    public int getLevelCount() {
+        return levels.size();
+    }
+
+    @Override
+    public Task schedule(Level level, RecurringTask task, long delay) {
+        assert task != null;
+        Step step = new Step(task);
+        step.due = tick + toTicks(delay);
+        pending.add(step);
+        return step;
+    }
+
+    /**
+     * @return The number of ticks that have been run.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The duration of a tick in milliseconds.
+     */
+    public long getTickMillis() {
+        return tickMillis;
+    }
+
+    /**
+     * Converts a delay into whole ticks, rounding to the nearest tick but
+     * never less than one.
+     *
+     * @param millis
+     *            The delay in milliseconds.
+     * @return The number of ticks.
+     */
+    long toTicks(long millis) {
+        return Math.max(1L, (millis + tickMillis / 2) / tickMillis);
+    }
+
+    /**
+     * Starts the thread running the ticks, if it is not running yet.
+     */
+    public synchronized void start() {
+        if (worker == null) {
+            worker = new Thread(this::work, "jpacman-fixed-step");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Stops the thread running the ticks, waiting until it has finished the
+     * tick it is running, so that a loop started again right away never has
+     * two threads running ticks.
+     */
+    public synchronized void stop() {
+        Thread stopped = worker;
+        worker = null;
+        if (stopped == null) {
+            return;
+        }
+        stopped.interrupt();
+        if (stopped == Thread.currentThread()) {
+            return;
+        }
+        boolean interrupted = false;
+        while (stopped.isAlive()) {
+            try {
+                stopped.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Runs a single tick. Must only be called by the thread of the loop, or
+     * when the loop is not running, for instance to advance levels by hand.
+     */
+    public void step() {
+        long now = tick + 1;
+        Step added = pending.poll();
+        while (added != null) {
+            steps.add(added);
+            added = pending.poll();
+        }
+        int kept = 0;
+        for (int i = 0; i < steps.size(); i++) {
+            Step step = steps.get(i);
+            if (!step.isCancelled() && step.due <= now) {
+                step.run(now);
+            }
+            if (!step.isCancelled()) {
+                steps.set(kept++, step);
+            }
+        }
+        steps.subList(kept, steps.size()).clear();
+        moves.applyBatch();
+        for (Level level : levels) {
+            level.takeSnapshot(now);
+        }
+        releaseStopped();
+        tick = now;
+    }
+
+    /**
+     * Lets go of the levels that were stopped, unless they were started
+     * again in the meantime.
+     */
+    private void releaseStopped() {
+        Level left = leaving.poll();
+        while (left != null) {
+            if (!left.isInProgress()) {
+                levels.remove(left);
+            }
+            left = leaving.poll();
+        }
+    }
+
+    /**
+     * The main loop of the worker thread, running one tick per tick
+     * duration. A loop that fell behind runs the missed ticks right away.
+     */
+    private void work() {
+        long tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        long next = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            next += tickNanos;
+            long remaining = next - System.nanoTime();
+            try {
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            step();
+        }
+    }
+
+    /**
+     * A task scheduled on the loop.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class Step implements Task {
+
+        /**
+         * The task to execute.
+         */
+        private final RecurringTask task;
+
+        /**
+         * <code>true</code> once the task is no longer scheduled.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * The tick at which the task is due, only used by the thread running
+         * the ticks.
+         */
+        private long due;
+
+        /**
+         * Creates a new step.
+         *
+         * @param task
+         *            The task to execute.
+         */
+        Step(RecurringTask task) {
+            this.task = task;
+        }
+
+        /**
+         * Executes the task and determines when it is due next, treating a
+         * failing task as one that finished after logging the failure.
+         *
+         * @param now
+         *            The tick being run.
+         */
+        private void run(long now) {
+            long next;
+            try {
+                next = task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(java.util.logging.Level.WARNING, "Task " + task
+                    + " failed and will not run again", e);
+                next = -1L;
+            }
+            if (next < 0) {
+                cancelled = true;
+            } else {
+                due = now + toTicks(next);
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
@@ -1,21 +1,24 @@
 package nl.tudelft.jpacman.level;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Set;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Board.BoardObserver;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Scheduler.RecurringTask;
+import nl.tudelft.jpacman.level.Scheduler.Task;
 import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.DistanceField;
 
 /**
  * A level of Pac-Man. A level consists of the board with the players and the
@@ -36,6 +39,30 @@ public class Level {
      */
     private final Object moveLock = new Object();
 
+    /**
+     * The loop applying the moves on this level, or <code>null</code> if
+     * moves are applied right away under the move lock.
+     */
+    private volatile MoveLoop moveLoop;
+
+    /**
+     * The loop advancing this level in ticks, or <code>null</code> if it is
+     * driven by its scheduler.
+     */
+    private FixedStepLoop fixedStep;
+
+    /**
+     * Takes the snapshots of this level in fixed-step mode, or
+     * <code>null</code> if the level is not advanced in ticks.
+     */
+    private TickSnapshot.Recorder recorder;
+
+    /**
+     * The snapshot of the last tick, or <code>null</code> if the level is
+     * not advanced in ticks.
+     */
+    private volatile TickSnapshot snapshot;
+
     /**
      * The lock that ensures starting and stopping can't interfere with each
      * other.
@@ -45,13 +72,18 @@ public class Level {
     /**
      * The NPCs of this level and, if they are running, their schedules.
      */
-    private final Map<Ghost, ScheduledExecutorService> npcs;
+    private final Map<Ghost, Task> npcs;
+
+    /**
+     * The scheduler that drives the NPCs of this level.
+     */
+    private Scheduler scheduler;
 
     /**
      * <code>true</code> iff this level is currently in progress, i.e. players
      * and NPCs can move.
      */
-    private boolean inProgress;
+    private volatile boolean inProgress;
 
     /**
      * The squares from which players can start this game.
@@ -78,6 +110,19 @@ public class Level {
      */
     private final Set<LevelObserver> observers;
 
+    /**
+     * The number of pellets on the board, kept up to date as pellets enter
+     * and leave squares.
+     */
+    private final AtomicInteger pelletCount;
+
+    /**
+     * The distances to the players, one field for every kind of unit that
+     * travels the board. All ghosts can enter the same squares, so they share
+     * a single field.
+     */
+    private final Map<Class<? extends Unit>, DistanceField> playerDistances;
+
 
     /**
      * Save the initial state.
@@ -113,15 +158,22 @@ public class Level {
 
         this.board = board;
         this.inProgress = false;
-        this.npcs = new HashMap<>();
+        this.npcs = new LinkedHashMap<>();
         for (Ghost ghost : ghosts) {
             npcs.put(ghost, null);
         }
+        this.scheduler = TickScheduler.getShared();
         this.startSquares = startPositions;
         this.startSquareIndex = 0;
         this.players = new ArrayList<>();
         this.collisions = collisionMap;
         this.observers = new HashSet<>();
+        this.pelletCount = new AtomicInteger(countPellets());
+        board.addObserver(new PelletCounter());
+        this.playerDistances = new ConcurrentHashMap<>();
+        for (Ghost ghost : ghosts) {
+            ghost.setPlayerDistances(getPlayerDistances(ghost));
+        }
     }
 
     /**
@@ -175,9 +227,33 @@ public class Level {
         return board;
     }
 
+    /**
+     * Returns the distances from every square to the nearest player, as
+     * travelled by units of the same kind as the given one. The field is
+     * shared by all those units, all ghosts being of the same kind, and is
+     * only recomputed when a player moves.
+     *
+     * @param traveller
+     *            The unit whose access to squares determines the paths.
+     * @return The distance field for units of this kind.
+     */
+    public DistanceField getPlayerDistances(Unit traveller) {
+        assert traveller != null;
+        Class<? extends Unit> kind = traveller.getClass();
+        if (traveller instanceof Ghost) {
+            kind = Ghost.class;
+        }
+        return playerDistances.computeIfAbsent(kind, type -> {
+            DistanceField field = new DistanceField(board, traveller);
+            board.addObserver(field);
+            return field;
+        });
+    }
+
     /**
      * Moves the unit into the given direction if possible and handles all
-     * collisions.
+     * collisions. If the level uses a {@link MoveLoop}, the move is queued
+     * and applied by the loop instead.
      *
      * @param unit
      *            The unit to move.
@@ -193,20 +269,57 @@ public class Level {
             return;
         }
 
+        MoveLoop loop = moveLoop;
+        if (loop != null) {
+            loop.submit(this, unit, direction);
+            return;
+        }
         synchronized (moveLock) {
-            unit.setDirection(direction);
-            Square location = unit.getSquare();
-            Square destination = location.getSquareAt(direction);
-
-            if (destination.isAccessibleTo(unit)) {
-                List<Unit> occupants = destination.getOccupants();
-                unit.occupy(destination);
-                for (Unit occupant : occupants) {
-                    collisions.collide(unit, occupant);
-                }
+            doMove(unit, direction);
+        }
+    }
+
+    /**
+     * Applies a move queued by {@link #move(Unit, Direction)}, on the thread
+     * of the {@link MoveLoop}. The move is dropped if the level was stopped
+     * or the unit left the board in the meantime.
+     *
+     * @param unit
+     *            The unit to move.
+     * @param direction
+     *            The direction to move the unit in.
+     */
+    void applyMove(Unit unit, Direction direction) {
+        if (isInProgress() && unit.hasSquare()) {
+            doMove(unit, direction);
+        }
+    }
+
+    /**
+     * Moves the unit into the given direction if possible, handles all
+     * collisions and updates the observers.
+     *
+     * @param unit
+     *            The unit to move.
+     * @param direction
+     *            The direction to move the unit in.
+     */
+    private void doMove(Unit unit, Direction direction) {
+        unit.setDirection(direction);
+        Square location = unit.getSquare();
+        Square destination = location.getSquareAt(direction);
+
+        if (destination.isAccessibleTo(unit)) {
+            List<Unit> occupants = destination.getOccupants();
+            unit.occupy(destination);
+            for (Unit occupant : occupants) {
+                collisions.collide(unit, occupant);
             }
-            updateObservers();
         }
+        if (recorder != null) {
+            recorder.mark(unit.getSquare());
+        }
+        updateObservers();
     }
 
     /**
@@ -220,6 +333,9 @@ public class Level {
             }
             startNPCs();
             inProgress = true;
+            if (fixedStep != null) {
+                fixedStep.attach(this);
+            }
             updateObservers();
         }
     }
@@ -235,22 +351,115 @@ public class Level {
             }
             stopNPCs();
             inProgress = false;
+            if (fixedStep != null) {
+                fixedStep.detach(this);
+            }
         }
     }
 
 
 
+    /**
+     * Seeds the random timing and moves of the NPCs of this level. Every NPC
+     * gets its own source, split off a source with the given seed in the
+     * order in which the NPCs were given to this level, so that a level
+     * seeded with the same value plays out the same way given the same
+     * input.
+     *
+     * @param seed
+     *            The seed of the level.
+     */
+    public void setSeed(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (Ghost npc : npcs.keySet()) {
+            npc.setRandom(random.split());
+        }
+    }
+
+    /**
+     * Replaces the scheduler that drives the NPCs of this level, which is the
+     * shared {@link TickScheduler} by default. The scheduler can only be
+     * replaced while the level is not in progress.
+     *
+     * @param npcScheduler
+     *            The scheduler that will drive the NPCs.
+     */
+    void setScheduler(Scheduler npcScheduler) {
+        assert npcScheduler != null;
+        synchronized (startStopLock) {
+            assert !isInProgress();
+            this.scheduler = npcScheduler;
+        }
+    }
+
+    /**
+     * Sets the loop that applies the moves on this level, see
+     * {@link MoveLoop}. The loop can only be set while the level is not in
+     * progress.
+     *
+     * @param loop
+     *            The loop applying the moves, or <code>null</code> to apply
+     *            them right away.
+     */
+    void setMoveLoop(MoveLoop loop) {
+        synchronized (startStopLock) {
+            assert !isInProgress();
+            this.moveLoop = loop;
+        }
+    }
+
+    /**
+     * Lets a {@link FixedStepLoop} advance this level in whole ticks: the NPCs
+     * are scheduled by the loop, the moves are queued for it and a
+     * {@link TickSnapshot} is taken after every tick. The loop only holds on
+     * to this level while it is in progress. The level must not be in
+     * progress.
+     *
+     * @param loop
+     *            The loop advancing this level.
+     */
+    void useFixedStep(FixedStepLoop loop) {
+        synchronized (startStopLock) {
+            assert !isInProgress();
+            this.fixedStep = loop;
+            this.scheduler = loop;
+            this.moveLoop = loop.getMoves();
+            if (recorder == null) {
+                recorder = new TickSnapshot.Recorder(board);
+            }
+        }
+    }
+
+    /**
+     * Takes the snapshot of a tick that has just been run.
+     *
+     * @param tick
+     *            The tick that has been run.
+     */
+    void takeSnapshot(long tick) {
+        snapshot = recorder.take(tick);
+    }
+
+    /**
+     * Returns the snapshot of the last tick when this level is advanced by a
+     * {@link FixedStepLoop}. Unlike the board, the snapshot never changes
+     * while it is being drawn.
+     *
+     * @return The snapshot of the last tick, or <code>null</code> if the
+     *         level is not advanced in ticks or no tick has been run yet.
+     */
+    public TickSnapshot getSnapshot() {
+        return snapshot;
+    }
+
     /**
      * Starts all NPC movement scheduling.
      */
     private void startNPCs() {
         for (final Ghost npc : npcs.keySet()) {
-            ScheduledExecutorService service = Executors.newSingleThreadScheduledExecutor();
-
-            service.schedule(new NpcMoveTask(service, npc),
-                npc.getInterval() / 2, TimeUnit.MILLISECONDS);
-
-            npcs.put(npc, service);
+            Task task = scheduler.schedule(this, new NpcMoveTask(npc),
+                npc.getInterval() / 2);
+            npcs.put(npc, task);
         }
     }
 
@@ -259,10 +468,9 @@ public class Level {
      * executed.
      */
     private void stopNPCs() {
-        for (Entry<Ghost, ScheduledExecutorService> entry : npcs.entrySet()) {
-            ScheduledExecutorService schedule = entry.getValue();
-            assert schedule != null;
-            schedule.shutdownNow();
+        for (Task task : npcs.values()) {
+            assert task != null;
+            task.cancel();
         }
     }
 
@@ -309,11 +517,26 @@ public class Level {
     }
 
     /**
-     * Counts the pellets remaining on the board.
+     * Returns the number of pellets remaining on the board. The count is
+     * maintained as pellets enter and leave squares, so this takes constant
+     * time. When assertions are enabled the count is verified against a full
+     * scan of the board.
      *
      * @return The amount of pellets remaining on the board.
      */
     public int remainingPellets() {
+        int pellets = pelletCount.get();
+        assert pellets >= 0;
+        assert pellets == countPellets() : "Pellet count differs from the board.";
+        return pellets;
+    }
+
+    /**
+     * Counts the pellets remaining on the board by visiting every square.
+     *
+     * @return The amount of pellets on the board.
+     */
+    private int countPellets() {
         Board board = getBoard();
         int pellets = 0;
         for (int x = 0; x < board.getWidth(); x++) {
@@ -325,21 +548,39 @@ public class Level {
                 }
             }
         }
-        assert pellets >= 0;
         return pellets;
     }
 
     /**
-     * A task that moves an NPC and reschedules itself after it finished.
+     * Keeps the pellet count up to date with the pellets entering and leaving
+     * the squares of the board.
      *
      * @author Jeroen Roosen
      */
-    private final class NpcMoveTask implements Runnable {
+    private final class PelletCounter implements BoardObserver {
 
-        /**
-         * The service executing the task.
-         */
-        private final ScheduledExecutorService service;
+        @Override
+        public void unitEntered(Square square, Unit unit) {
+            if (unit instanceof Pellet) {
+                pelletCount.incrementAndGet();
+            }
+        }
+
+        @Override
+        public void unitLeft(Square square, Unit unit) {
+            if (unit instanceof Pellet) {
+                pelletCount.decrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * A task that moves an NPC and asks to be rescheduled after the NPC's
+     * interval.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class NpcMoveTask implements RecurringTask {
 
         /**
          * The NPC to move.
@@ -349,24 +590,20 @@ public class Level {
         /**
          * Creates a new task.
          *
-         * @param service
-         *            The service that executes the task.
          * @param npc
          *            The NPC to move.
          */
-        NpcMoveTask(ScheduledExecutorService service, Ghost npc) {
-            this.service = service;
+        NpcMoveTask(Ghost npc) {
             this.npc = npc;
         }
 
         @Override
-        public void run() {
+        public long run() {
             Direction nextMove = npc.nextMove();
             if (nextMove != null) {
                 move(npc, nextMove);
             }
-            long interval = npc.getInterval();
-            service.schedule(this, interval, TimeUnit.MILLISECONDS);
+            return npc.getInterval();
         }
     }
 
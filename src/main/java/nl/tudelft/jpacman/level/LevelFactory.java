@@ -10,6 +10,7 @@ import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.npc.Ghost;
 import nl.tudelft.jpacman.npc.ghost.GhostColor;
 import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.npc.ghost.PathTable;
 import nl.tudelft.jpacman.sprite.PacManSprites;
 import nl.tudelft.jpacman.sprite.Sprite;
 
@@ -46,6 +47,36 @@ public class LevelFactory {
      */
     private final GhostFactory ghostFact;
 
+    /**
+     * <code>true</code> iff the shortest paths of the ghosts are precomputed
+     * when a level is created.
+     */
+    private boolean precomputePaths;
+
+    /**
+     * The seed of the levels created, or <code>null</code> if they are not
+     * seeded.
+     */
+    private Long seed;
+
+    /**
+     * The loop applying the moves of the levels created, or <code>null</code>
+     * if moves are applied right away.
+     */
+    private MoveLoop moveLoop;
+
+    /**
+     * The loop advancing the levels created in ticks, or <code>null</code>
+     * if they are driven by timers.
+     */
+    private FixedStepLoop fixedStepLoop;
+
+    /**
+     * The scheduler driving the NPCs of the levels created, or
+     * <code>null</code> for the shared {@link TickScheduler}.
+     */
+    private Scheduler npcScheduler;
+
     /**
      * Creates a new level factory.
      *
@@ -60,6 +91,73 @@ public class LevelFactory {
         this.ghostFact = ghostFactory;
     }
 
+    /**
+     * Sets whether the shortest paths between all squares are precomputed
+     * for the ghosts of every level this factory creates. This makes
+     * creating a level slower, but finding paths during the game instant.
+     * Boards that are too large to precompute are searched as usual.
+     *
+     * @param precompute
+     *            <code>true</code> to precompute the paths.
+     * @see PathTable
+     */
+    public void setPrecomputePaths(boolean precompute) {
+        this.precomputePaths = precompute;
+    }
+
+    /**
+     * Sets the seed of every level this factory creates, which makes the
+     * ghosts of those levels behave the same way every time.
+     *
+     * @param levelSeed
+     *            The seed of the levels.
+     * @see Level#setSeed(long)
+     */
+    public void setSeed(long levelSeed) {
+        this.seed = levelSeed;
+    }
+
+    /**
+     * Sets the loop that applies the moves of every level this factory
+     * creates, instead of applying them right away under a lock.
+     *
+     * @param loop
+     *            The loop applying the moves, which must be started for the
+     *            moves to happen.
+     * @see MoveLoop
+     */
+    public void setMoveLoop(MoveLoop loop) {
+        this.moveLoop = loop;
+    }
+
+    /**
+     * Sets the loop that advances every level this factory creates in whole
+     * ticks, instead of moving the NPCs on timers. This takes precedence over
+     * {@link #setMoveLoop(MoveLoop)}.
+     *
+     * @param loop
+     *            The loop advancing the levels, which must be started for
+     *            the levels to move.
+     * @see FixedStepLoop
+     */
+    public void setFixedStepLoop(FixedStepLoop loop) {
+        this.fixedStepLoop = loop;
+    }
+
+    /**
+     * Sets the scheduler driving the NPCs of every level this factory
+     * creates, for instance a {@link VirtualThreadScheduler} to give every
+     * NPC a virtual thread of its own. A {@link FixedStepLoop} takes
+     * precedence.
+     *
+     * @param scheduler
+     *            The scheduler driving the NPCs, or <code>null</code> for the
+     *            shared {@link TickScheduler}.
+     */
+    public void setNpcScheduler(Scheduler scheduler) {
+        this.npcScheduler = scheduler;
+    }
+
     /**
      * Creates a new level from the provided data.
      *
@@ -77,7 +175,56 @@ public class LevelFactory {
         // We'll adopt the simple collision map for now.
         CollisionMap collisionMap = new PlayerCollisions();
 
-        return new Level(board, ghosts, startPositions, collisionMap);
+        if (precomputePaths) {
+            precompute(board, ghosts);
+        }
+        Level level = new Level(board, ghosts, startPositions, collisionMap);
+        if (seed != null) {
+            level.setSeed(seed);
+        }
+        if (npcScheduler != null) {
+            level.setScheduler(npcScheduler);
+        }
+        if (fixedStepLoop != null) {
+            level.useFixedStep(fixedStepLoop);
+        } else if (moveLoop != null) {
+            level.setMoveLoop(moveLoop);
+        }
+        return level;
+    }
+
+    /**
+     * Precomputes the shortest paths of the ghosts on a board. All ghosts can
+     * enter the same squares, so a single table is registered for every kind
+     * of ghost. The table is shared by all boards of the same layout, so it
+     * is only computed for the first level created from a map.
+     *
+     * @param board
+     *            The board the ghosts travel.
+     * @param ghosts
+     *            The ghosts on the board.
+     */
+    private static void precompute(Board board, List<Ghost> ghosts) {
+        if (ghosts.isEmpty()) {
+            return;
+        }
+        PathTable table = PathTable.precompute(board, ghosts.get(0));
+        if (table == null) {
+            return;
+        }
+        for (Ghost ghost : ghosts) {
+            if (PathTable.lookup(board, ghost) != table) {
+                PathTable.register(board, ghost.getClass(), table);
+            }
+        }
+    }
+
+    /**
+     * Starts the cycle of ghost types over, so that the next ghost created
+     * is Blinky again.
+     */
+    void resetGhostCycle() {
+        ghostIndex = -1;
     }
 
     /**
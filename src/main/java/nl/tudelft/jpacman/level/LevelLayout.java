@@ -0,0 +1,224 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.npc.Ghost;
+
+/**
+ * The squares of a map and the units on them, worked out once so that any
+ * number of identical levels can be stamped from it without reading the
+ * map again.
+ * <p>
+ * Squares are identified by their index on the board, see
+ * {@link Board#squareAtIndex(int)}. The layout holds which squares are
+ * walls, the index of the neighbour of every square in every direction and
+ * the indices of the squares holding pellets, apples, ghosts and start
+ * positions. It never changes once it has been created, so it can be
+ * shared by any number of parsers.
+ *
+ * @author Jeroen Roosen
+ */
+final class LevelLayout {
+
+    /**
+     * The characters a map may contain, see {@link MapParser#parseMap(char[][])}.
+     */
+    private static final String SQUARES = " #.AGP";
+
+    /**
+     * All directions, in the order in which the neighbours are stored.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The width of the board.
+     */
+    private final int width;
+
+    /**
+     * The height of the board.
+     */
+    private final int height;
+
+    /**
+     * Whether every square is a wall.
+     */
+    private final boolean[] walls;
+
+    /**
+     * The index of the neighbour of every square in every direction, stored
+     * at <code>index * 4 + direction.ordinal()</code>.
+     */
+    private final int[] neighbours;
+
+    /**
+     * The squares holding a pellet.
+     */
+    private final int[] pellets;
+
+    /**
+     * The squares holding an apple.
+     */
+    private final int[] apples;
+
+    /**
+     * The squares holding a ghost, in the order the ghosts are created.
+     */
+    private final int[] ghosts;
+
+    /**
+     * The squares from which players may start.
+     */
+    private final int[] starts;
+
+    /**
+     * Creates a new layout.
+     *
+     * @param width
+     *            The width of the board.
+     * @param height
+     *            The height of the board.
+     * @param cells
+     *            The valid character of every square, by index.
+     */
+    private LevelLayout(int width, int height, char[] cells) {
+        this.width = width;
+        this.height = height;
+        this.walls = new boolean[cells.length];
+        for (int i = 0; i < cells.length; i++) {
+            walls[i] = cells[i] == '#';
+        }
+        this.neighbours = linkSquares(width, height);
+        this.pellets = indicesOf(cells, '.');
+        this.apples = indicesOf(cells, 'A');
+        this.ghosts = indicesOf(cells, 'G');
+        this.starts = indicesOf(cells, 'P');
+    }
+
+    /**
+     * Works out the layout of a map.
+     *
+     * @param map
+     *            The map, with map[x][y] representing the square at
+     *            position x,y.
+     * @return The layout of the map.
+     * @throws PacmanConfigurationException
+     *             when the map contains a character that is not supported.
+     */
+    static LevelLayout of(char[][] map) {
+        int width = map.length;
+        int height = map[0].length;
+        char[] cells = new char[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                char c = map[x][y];
+                if (SQUARES.indexOf(c) < 0) {
+                    throw new PacmanConfigurationException("Invalid character at "
+                        + x + "," + y + ": " + c);
+                }
+                cells[x * height + y] = c;
+            }
+        }
+        return new LevelLayout(width, height, cells);
+    }
+
+    /**
+     * @return The width of the board.
+     */
+    int getWidth() {
+        return width;
+    }
+
+    /**
+     * @return The height of the board.
+     */
+    int getHeight() {
+        return height;
+    }
+
+    /**
+     * Creates a new level with this layout. Only the squares and units are
+     * created, nothing of the map has to be worked out again.
+     *
+     * @param boards
+     *            The factory creating the squares and board.
+     * @param levels
+     *            The factory creating the units and level.
+     * @return The new level.
+     */
+    Level stamp(BoardFactory boards, LevelFactory levels) {
+        Square[] squares = new Square[walls.length];
+        Square[][] grid = new Square[width][height];
+        for (int i = 0; i < squares.length; i++) {
+            if (walls[i]) {
+                squares[i] = boards.createWall();
+            } else {
+                squares[i] = boards.createGround();
+            }
+            grid[i / height][i % height] = squares[i];
+        }
+        Board board = boards.createBoard(grid, neighbours);
+        for (int index : pellets) {
+            levels.createPellet().occupy(squares[index]);
+        }
+        for (int index : apples) {
+            levels.createPellet(MapParser.APPLE_VALUE).occupy(squares[index]);
+        }
+        List<Ghost> ghostList = new ArrayList<>(ghosts.length);
+        for (int index : ghosts) {
+            Ghost ghost = levels.createGhost();
+            ghost.occupy(squares[index]);
+            ghostList.add(ghost);
+        }
+        List<Square> startPositions = new ArrayList<>(starts.length);
+        for (int index : starts) {
+            startPositions.add(squares[index]);
+        }
+        return levels.createLevel(board, ghostList, startPositions);
+    }
+
+    /**
+     * Works out the neighbours of all squares of a board, which wraps around
+     * at its edges like the boards of {@link BoardFactory#createBoard(Square[][])}.
+     *
+     * @param width
+     *            The width of the board.
+     * @param height
+     *            The height of the board.
+     * @return The index of the neighbour of every square in every direction.
+     */
+    private static int[] linkSquares(int width, int height) {
+        int[] result = new int[width * height * DIRECTIONS.length];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int index = x * height + y;
+                for (Direction direction : DIRECTIONS) {
+                    int dirX = (width + x + direction.getDeltaX()) % width;
+                    int dirY = (height + y + direction.getDeltaY()) % height;
+                    result[index * DIRECTIONS.length + direction.ordinal()] =
+                        dirX * height + dirY;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @param cells
+     *            The character of every square.
+     * @param c
+     *            The character to look for.
+     * @return The indices of the squares with the character, in ascending
+     *         order.
+     */
+    private static int[] indicesOf(char[] cells, char c) {
+        return IntStream.range(0, cells.length).filter(i -> cells[i] == c).toArray();
+    }
+}
@@ -0,0 +1,516 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.Ghost;
+
+/**
+ * A compact copy of the state of a {@link Level}, for players that search
+ * ahead by trying out moves.
+ * <p>
+ * The positions of the units are square indices and the pellets are a bit
+ * set, so forking a state copies a few small arrays instead of the board.
+ * The layout of the board, which never changes, is shared by all forks.
+ * Moves follow the rules of {@link PlayerCollisions}: a player entering a
+ * square with a ghost, or a ghost entering the square of a player, kills
+ * the player, and a player entering a square with a pellet eats it and
+ * scores its value. Every move can be undone, in reverse order. Unlike a
+ * level, a state does not stop when it is won or lost; searches should check
+ * {@link #isWon()} and {@link #isLost()} themselves.
+ * <p>
+ * Players and ghosts are numbered in the order of the indices of the squares
+ * they were on when the state was captured.
+ *
+ * @author Jeroen Roosen
+ */
+public final class LevelState {
+
+    /**
+     * The number of directions a unit can move in.
+     */
+    private static final int DIRECTIONS = Direction.values().length;
+
+    /**
+     * The initial size of the journal, enough for a few moves.
+     */
+    private static final int JOURNAL_SIZE = 64;
+
+    /**
+     * The board, shared by all forks.
+     */
+    private final Layout layout;
+
+    /**
+     * The square index of every player.
+     */
+    private final int[] players;
+
+    /**
+     * Whether every player is alive.
+     */
+    private final boolean[] alive;
+
+    /**
+     * The score of every player.
+     */
+    private final int[] scores;
+
+    /**
+     * The square index of every ghost.
+     */
+    private final int[] ghosts;
+
+    /**
+     * The squares that still have a pellet on them, as a bit set.
+     */
+    private final long[] pellets;
+
+    /**
+     * The number of pellets left.
+     */
+    private int pelletCount;
+
+    /**
+     * The changes made by the moves, so that they can be undone. Every move
+     * is recorded as the unit (a player, or <code>-ghost - 1</code>), the
+     * square it came from, the square of the pellet eaten or -1, the players
+     * killed and the number of players killed.
+     */
+    private int[] journal;
+
+    /**
+     * The number of entries in the {@link #journal}.
+     */
+    private int journalSize;
+
+    /**
+     * Creates a new state.
+     *
+     * @param layout
+     *            The board.
+     * @param players
+     *            The square index of every player.
+     * @param alive
+     *            Whether every player is alive.
+     * @param scores
+     *            The score of every player.
+     * @param ghosts
+     *            The square index of every ghost.
+     * @param pellets
+     *            The squares with a pellet on them, as a bit set.
+     */
+    private LevelState(Layout layout, int[] players, boolean[] alive, int[] scores,
+                       int[] ghosts, long[] pellets) {
+        this.layout = layout;
+        this.players = players;
+        this.alive = alive;
+        this.scores = scores;
+        this.ghosts = ghosts;
+        this.pellets = pellets;
+        this.pelletCount = 0;
+        for (long word : pellets) {
+            pelletCount += Long.bitCount(word);
+        }
+        this.journal = new int[JOURNAL_SIZE];
+    }
+
+    /**
+     * Captures the current state of a level. The level should not change
+     * while it is being captured.
+     *
+     * @param level
+     *            The level to capture.
+     * @return The state of the level.
+     */
+    public static LevelState of(Level level) {
+        Board board = level.getBoard();
+        int size = board.getSquareCount();
+        List<Player> players = new ArrayList<>();
+        List<Integer> ghosts = new ArrayList<>();
+        long[] pellets = new long[(size + Long.SIZE - 1) / Long.SIZE];
+        int[] values = new int[size];
+        Unit ghost = null;
+        for (int i = 0; i < size; i++) {
+            for (Unit unit : board.squareAtIndex(i).getOccupants()) {
+                if (unit instanceof Player) {
+                    players.add((Player) unit);
+                } else if (unit instanceof Ghost) {
+                    ghosts.add(i);
+                    ghost = unit;
+                } else if (unit instanceof Pellet) {
+                    assert values[i] == 0 : "More than one pellet on a square.";
+                    pellets[i / Long.SIZE] |= 1L << i;
+                    values[i] = ((Pellet) unit).getValue();
+                }
+            }
+        }
+        Unit player = null;
+        if (!players.isEmpty()) {
+            player = players.get(0);
+        }
+        Layout layout = new Layout(board, values, moves(board, player), moves(board, ghost));
+        return new LevelState(layout, positions(players), alive(players), scores(players),
+            ghosts.stream().mapToInt(Integer::intValue).toArray(), pellets);
+    }
+
+    /**
+     * Creates an independent copy of this state, sharing the layout of the
+     * board. The moves of this state cannot be undone on the copy.
+     *
+     * @return The copy.
+     */
+    public LevelState fork() {
+        return new LevelState(layout, players.clone(), alive.clone(), scores.clone(),
+            ghosts.clone(), pellets.clone());
+    }
+
+    /**
+     * Moves a player, if the square in the given direction can be entered,
+     * and handles the collisions.
+     *
+     * @param player
+     *            The number of the player.
+     * @param direction
+     *            The direction to move in.
+     */
+    public void movePlayer(int player, Direction direction) {
+        int from = players[player];
+        int to = layout.playerMoves[from * DIRECTIONS + direction.ordinal()];
+        record(player);
+        record(from);
+        if (to < 0) {
+            record(-1);
+            record(0);
+            return;
+        }
+        players[player] = to;
+        if (hasPellet(to)) {
+            pellets[to / Long.SIZE] &= ~(1L << to);
+            pelletCount--;
+            scores[player] += layout.values[to];
+            record(to);
+        } else {
+            record(-1);
+        }
+        int killed = 0;
+        if (alive[player] && hasGhost(to)) {
+            alive[player] = false;
+            record(player);
+            killed++;
+        }
+        record(killed);
+    }
+
+    /**
+     * Moves a ghost, if the square in the given direction can be entered,
+     * and handles the collisions.
+     *
+     * @param ghost
+     *            The number of the ghost.
+     * @param direction
+     *            The direction to move in.
+     */
+    public void moveGhost(int ghost, Direction direction) {
+        int from = ghosts[ghost];
+        int to = layout.ghostMoves[from * DIRECTIONS + direction.ordinal()];
+        record(-ghost - 1);
+        record(from);
+        record(-1);
+        int killed = 0;
+        if (to >= 0) {
+            ghosts[ghost] = to;
+            for (int p = 0; p < players.length; p++) {
+                if (players[p] == to && alive[p]) {
+                    alive[p] = false;
+                    record(p);
+                    killed++;
+                }
+            }
+        }
+        record(killed);
+    }
+
+    /**
+     * Undoes the last move that has not been undone yet.
+     */
+    public void undo() {
+        assert journalSize > 0 : "No moves to undo.";
+        int killed = journal[--journalSize];
+        for (int i = 0; i < killed; i++) {
+            alive[journal[--journalSize]] = true;
+        }
+        int eaten = journal[--journalSize];
+        int from = journal[--journalSize];
+        int unit = journal[--journalSize];
+        if (unit < 0) {
+            ghosts[-unit - 1] = from;
+            return;
+        }
+        if (eaten >= 0) {
+            pellets[eaten / Long.SIZE] |= 1L << eaten;
+            pelletCount++;
+            scores[unit] -= layout.values[eaten];
+        }
+        players[unit] = from;
+    }
+
+    /**
+     * @return <code>true</code> iff there are moves that can be undone.
+     */
+    public boolean canUndo() {
+        return journalSize > 0;
+    }
+
+    /**
+     * @param player
+     *            The number of a player.
+     * @param direction
+     *            A direction.
+     * @return <code>true</code> iff the player can move in the direction.
+     */
+    public boolean canPlayerMove(int player, Direction direction) {
+        return layout.playerMoves[players[player] * DIRECTIONS + direction.ordinal()] >= 0;
+    }
+
+    /**
+     * @param ghost
+     *            The number of a ghost.
+     * @param direction
+     *            A direction.
+     * @return <code>true</code> iff the ghost can move in the direction.
+     */
+    public boolean canGhostMove(int ghost, Direction direction) {
+        return layout.ghostMoves[ghosts[ghost] * DIRECTIONS + direction.ordinal()] >= 0;
+    }
+
+    /**
+     * @return The board the state was captured from, to look up squares by
+     *         their index.
+     */
+    public Board getBoard() {
+        return layout.board;
+    }
+
+    /**
+     * @return The number of players.
+     */
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    /**
+     * @return The number of ghosts.
+     */
+    public int getGhostCount() {
+        return ghosts.length;
+    }
+
+    /**
+     * @param player
+     *            The number of a player.
+     * @return The index of the square of the player.
+     */
+    public int getPlayerSquare(int player) {
+        return players[player];
+    }
+
+    /**
+     * @param ghost
+     *            The number of a ghost.
+     * @return The index of the square of the ghost.
+     */
+    public int getGhostSquare(int ghost) {
+        return ghosts[ghost];
+    }
+
+    /**
+     * @param player
+     *            The number of a player.
+     * @return <code>true</code> iff the player is alive.
+     */
+    public boolean isAlive(int player) {
+        return alive[player];
+    }
+
+    /**
+     * @param player
+     *            The number of a player.
+     * @return The score of the player.
+     */
+    public int getScore(int player) {
+        return scores[player];
+    }
+
+    /**
+     * @param square
+     *            The index of a square.
+     * @return <code>true</code> iff there is a pellet on the square.
+     */
+    public boolean hasPellet(int square) {
+        return (pellets[square / Long.SIZE] & 1L << square) != 0;
+    }
+
+    /**
+     * @return The number of pellets left.
+     */
+    public int remainingPellets() {
+        return pelletCount;
+    }
+
+    /**
+     * @return <code>true</code> iff all pellets have been eaten.
+     */
+    public boolean isWon() {
+        return pelletCount == 0;
+    }
+
+    /**
+     * @return <code>true</code> iff no player is alive.
+     */
+    public boolean isLost() {
+        for (boolean living : alive) {
+            if (living) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @param square
+     *            The index of a square.
+     * @return <code>true</code> iff there is a ghost on the square.
+     */
+    private boolean hasGhost(int square) {
+        for (int ghost : ghosts) {
+            if (ghost == square) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records a change in the journal.
+     *
+     * @param value
+     *            The value to record.
+     */
+    private void record(int value) {
+        if (journalSize == journal.length) {
+            journal = Arrays.copyOf(journal, journal.length * 2);
+        }
+        journal[journalSize++] = value;
+    }
+
+    /**
+     * @param board
+     *            The board.
+     * @param unit
+     *            The unit to move, or <code>null</code> if there is none.
+     * @return For every square and direction, the index of the square the
+     *         unit can move to, or -1 if it cannot be entered.
+     */
+    private static int[] moves(Board board, Unit unit) {
+        int size = board.getSquareCount();
+        int[] moves = new int[size * DIRECTIONS];
+        Arrays.fill(moves, -1);
+        if (unit == null) {
+            return moves;
+        }
+        for (int i = 0; i < size; i++) {
+            Square square = board.squareAtIndex(i);
+            for (Direction direction : Direction.values()) {
+                Square destination = square.getSquareAt(direction);
+                if (destination.isAccessibleTo(unit)) {
+                    moves[i * DIRECTIONS + direction.ordinal()] = destination.getIndex();
+                }
+            }
+        }
+        return moves;
+    }
+
+    /**
+     * @param players
+     *            The players.
+     * @return The square indices of the players.
+     */
+    private static int[] positions(List<Player> players) {
+        return players.stream().mapToInt(p -> p.getSquare().getIndex()).toArray();
+    }
+
+    /**
+     * @param players
+     *            The players.
+     * @return Whether the players are alive.
+     */
+    private static boolean[] alive(List<Player> players) {
+        boolean[] alive = new boolean[players.size()];
+        for (int i = 0; i < alive.length; i++) {
+            alive[i] = players.get(i).isAlive();
+        }
+        return alive;
+    }
+
+    /**
+     * @param players
+     *            The players.
+     * @return The scores of the players.
+     */
+    private static int[] scores(List<Player> players) {
+        return players.stream().mapToInt(Player::getScore).toArray();
+    }
+
+    /**
+     * The parts of a level that do not change, shared by all forks.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Layout {
+
+        /**
+         * The board the state was captured from.
+         */
+        private final Board board;
+
+        /**
+         * The value of the pellet on every square, if it has one.
+         */
+        private final int[] values;
+
+        /**
+         * The squares players can move to, by square and direction.
+         */
+        private final int[] playerMoves;
+
+        /**
+         * The squares ghosts can move to, by square and direction.
+         */
+        private final int[] ghostMoves;
+
+        /**
+         * Creates a new layout.
+         *
+         * @param board
+         *            The board the state was captured from.
+         * @param values
+         *            The value of the pellet on every square.
+         * @param playerMoves
+         *            The squares players can move to.
+         * @param ghostMoves
+         *            The squares ghosts can move to.
+         */
+        Layout(Board board, int[] values, int[] playerMoves, int[] ghostMoves) {
+            this.board = board;
+            this.values = values;
+            this.playerMoves = playerMoves;
+            this.ghostMoves = ghostMoves;
+        }
+    }
+}
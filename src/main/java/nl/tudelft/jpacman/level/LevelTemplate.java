@@ -0,0 +1,132 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * A parsed map from which any number of identical levels can be created.
+ * <p>
+ * The text of a map only has to be read and checked once, after which the
+ * template holds its {@link LevelLayout}: the kind and neighbours of every
+ * square and where the pellets, ghosts and start positions are. Every level
+ * created from the template gets its own board, ghosts and pellets, stamped
+ * from the layout, which never changes. The template can
+ * also keep the next level built in the background, so that it is ready the
+ * moment it is needed, for instance when a game is reset.
+ *
+ * @author Jeroen Roosen
+ */
+public final class LevelTemplate {
+
+    /**
+     * The parser creating the levels.
+     */
+    private final MapParser parser;
+
+    /**
+     * The layout of the map.
+     */
+    private final LevelLayout layout;
+
+    /**
+     * The next level, being built in the background, or <code>null</code>
+     * if none is being built.
+     */
+    private CompletableFuture<Level> next;
+
+    /**
+     * <code>true</code> iff the next level is built in the background as
+     * soon as the previous one has been handed out.
+     */
+    private boolean prebuild;
+
+    /**
+     * Creates a new template.
+     *
+     * @param parser
+     *            The parser creating the levels.
+     * @param layout
+     *            The layout of the map.
+     */
+    LevelTemplate(MapParser parser, LevelLayout layout) {
+        assert parser != null;
+        assert layout != null;
+        this.parser = parser;
+        this.layout = layout;
+    }
+
+    /**
+     * Creates a template of the same layout that creates its levels with
+     * another parser, so that levels of the same map can be created in
+     * parallel without working out the map again.
+     *
+     * @param other
+     *            The parser creating the levels of the new template.
+     * @return The new template.
+     */
+    LevelTemplate withParser(MapParser other) {
+        return new LevelTemplate(other, layout);
+    }
+
+    /**
+     * Sets whether the next level is built in the background, so that
+     * {@link #createLevel()} returns immediately. Turning this on starts
+     * building the next level right away.
+     *
+     * @param enabled
+     *            <code>true</code> to build the next level in the
+     *            background.
+     */
+    public synchronized void setPrebuild(boolean enabled) {
+        prebuild = enabled;
+        if (enabled && next == null) {
+            next = CompletableFuture.supplyAsync(this::build, ForkJoinPool.commonPool());
+        }
+    }
+
+    /**
+     * Creates a new level. If the next level was built in the background it
+     * is returned, waiting for it to be finished if necessary.
+     *
+     * @return A new level as represented by the map.
+     */
+    public synchronized Level createLevel() {
+        Level level;
+        if (next == null) {
+            level = build();
+        } else {
+            level = next.join();
+            next = null;
+        }
+        if (prebuild) {
+            next = CompletableFuture.supplyAsync(this::build, ForkJoinPool.commonPool());
+        }
+        return level;
+    }
+
+    /**
+     * @return The width of the board of the levels.
+     */
+    public int getWidth() {
+        return layout.getWidth();
+    }
+
+    /**
+     * @return The height of the board of the levels.
+     */
+    public int getHeight() {
+        return layout.getHeight();
+    }
+
+    /**
+     * Builds a new level from the layout. Levels are built one at a time, as the
+     * parser and its factories are not meant to be used concurrently.
+     *
+     * @return The new level.
+     */
+    private Level build() {
+        synchronized (parser) {
+            return parser.stamp(layout);
+        }
+    }
+}
@@ -4,14 +4,19 @@ import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import nl.tudelft.jpacman.PacmanConfigurationException;
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.BoardFactory;
 import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.PathTable;
 import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
 
 /**
@@ -21,6 +26,11 @@ import edu.umd.cs.findbugs.annotations.SuppressFBWarnings;
  */
 public class MapParser {
 
+    /**
+     * The value of an apple.
+     */
+    static final int APPLE_VALUE = 1000;
+
     /**
      * The factory that creates the levels.
      */
@@ -76,6 +86,118 @@ public class MapParser {
         return levelCreator.createLevel(board, ghosts, startPositions);
     }
 
+    /**
+     * Loads a level from a map file in the binary <code>.pacmap</code>
+     * format, see {@link PacMap}. The file is mapped into memory and the
+     * squares are created straight from its bytes, in parallel like
+     * {@link #parseLargeMap(InputStream)} does, after which the ghosts and
+     * start positions are placed from their stored indices. If the file
+     * contains the distances between all squares, they are used by the
+     * ghosts instead of searching.
+     *
+     * @param file
+     *            The file to load.
+     * @return The level as represented by the file.
+     * @throws IOException
+     *             when the file could not be read.
+     * @throws PacmanConfigurationException
+     *             when the file is not a valid map.
+     */
+    public Level parseBinaryMap(Path file) throws IOException {
+        PacMap pacMap = PacMap.load(file);
+        CellGrid cells = pacMap.getCells();
+        int width = cells.getWidth();
+        int height = cells.getHeight();
+        Square[][] grid = new Square[width][height];
+        ForkJoinPool.commonPool().invoke(new SquareTask(cells, grid, 0, width));
+
+        List<Ghost> ghosts = new ArrayList<>();
+        for (int index : pacMap.getGhosts()) {
+            Ghost ghost = levelCreator.createGhost();
+            ghosts.add(ghost);
+            ghost.occupy(grid[index / height][index % height]);
+        }
+        List<Square> startPositions = new ArrayList<>();
+        for (int index : pacMap.getStarts()) {
+            startPositions.add(grid[index / height][index % height]);
+        }
+        Board board = boardCreator.createBoard(grid);
+        PathTable distances = pacMap.getDistances();
+        if (distances != null) {
+            for (Ghost ghost : ghosts) {
+                PathTable.register(board, ghost.getClass(), distances);
+            }
+        }
+        return levelCreator.createLevel(board, ghosts, startPositions);
+    }
+
+    /**
+     * Converts the text representation of a map into the binary
+     * <code>.pacmap</code> format, see {@link PacMap}.
+     *
+     * @param text
+     *            The plain text, with every entry in the list being a equally
+     *            sized row of squares on the board and the first element being
+     *            the top row.
+     * @param target
+     *            The file to write the map to.
+     * @param withDistances
+     *            <code>true</code> to include the distances between all
+     *            squares.
+     * @throws IOException
+     *             when the file could not be written.
+     * @throws PacmanConfigurationException
+     *             when the distances are requested for a board that is too
+     *             large for them, see {@link PathTable#MAX_ENTRIES}. No file
+     *             is written in that case.
+     */
+    public void writeBinaryMap(List<String> text, Path target, boolean withDistances)
+            throws IOException {
+        char[][] map = toMap(text);
+        PathTable distances = null;
+        if (withDistances) {
+            Board board = parseMap(map).getBoard();
+            distances = PathTable.precompute(board, findGhost(board));
+            if (distances == null) {
+                throw new PacmanConfigurationException("The board has "
+                    + board.getSquareCount() + " squares, too many to include the distances.");
+            }
+        }
+        PacMap.write(map, distances, target);
+    }
+
+    /**
+     * @param board
+     *            The board to search.
+     * @return A ghost on the board, or another unit if there are none, as
+     *         all ghosts can go to the same squares.
+     */
+    private Unit findGhost(Board board) {
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            for (Unit unit : board.squareAtIndex(i).getOccupants()) {
+                if (unit instanceof Ghost) {
+                    return unit;
+                }
+            }
+        }
+        return levelCreator.createGhost();
+    }
+
+    /**
+     * Creates a level from the layout of a map that was parsed before,
+     * starting the cycle of ghost types over so that every level looks the
+     * same. The squares are created by the board factory directly, so
+     * {@link #addSquare(Square[][], List, List, int, int, char)} is not used.
+     *
+     * @param layout
+     *            The layout of the map.
+     * @return A new level as represented by the layout.
+     */
+    Level stamp(LevelLayout layout) {
+        levelCreator.resetGhostCycle();
+        return layout.stamp(boardCreator, levelCreator);
+    }
+
     private void makeGrid(char[][] map, int width, int height,
                           Square[][] grid, List<Ghost> ghosts, List<Square> startPositions) {
         for (int x = 0; x < width; x++) {
@@ -123,7 +245,7 @@ public class MapParser {
             case 'A':
                 Square appleSquare = boardCreator.createGround();
                 grid[x][y] = appleSquare;
-                levelCreator.createPellet(1000).occupy(appleSquare);
+                levelCreator.createPellet(APPLE_VALUE).occupy(appleSquare);
                 break;
             case 'G':
                 Square ghostSquare = makeGhostSquare(ghosts, levelCreator.createGhost());
@@ -167,6 +289,58 @@ public class MapParser {
      * @throws PacmanConfigurationException If text lines are not properly formatted.
      */
     public Level parseMap(List<String> text) {
+        return parseMap(toMap(text));
+    }
+
+    /**
+     * Parses the list of strings into a template, from which any number of
+     * identical levels can be created without parsing the text again.
+     *
+     * @param text
+     *            The plain text, with every entry in the list being a equally
+     *            sized row of squares on the board and the first element being
+     *            the top row.
+     * @return The template of the levels represented by the text.
+     * @throws PacmanConfigurationException If text lines are not properly
+     *             formatted or contain characters that are not supported.
+     */
+    public LevelTemplate parseTemplate(List<String> text) {
+        return new LevelTemplate(this, LevelLayout.of(toMap(text)));
+    }
+
+    /**
+     * Reads the resource with the given name into a template, see
+     * {@link #parseTemplate(List)}.
+     *
+     * @param mapName
+     *            Name of a resource that will be read.
+     * @return The template of the levels represented by the resource.
+     * @throws IOException
+     *             when the resource could not be read.
+     */
+    @SuppressFBWarnings(value = "OBL_UNSATISFIED_OBLIGATION",
+                        justification = "try with resources always cleans up")
+    public LevelTemplate parseTemplate(String mapName) throws IOException {
+        try (InputStream boardStream = MapParser.class.getResourceAsStream(mapName)) {
+            if (boardStream == null) {
+                throw new PacmanConfigurationException("Could not get resource for: " + mapName);
+            }
+            return parseTemplate(readLines(boardStream));
+        }
+    }
+
+    /**
+     * Converts the list of strings into a 2-dimensional character array.
+     *
+     * @param text
+     *            The plain text, with every entry in the list being a equally
+     *            sized row of squares on the board and the first element being
+     *            the top row.
+     * @return The map, with map[x][y] representing the square at position
+     *         x,y.
+     * @throws PacmanConfigurationException If text lines are not properly formatted.
+     */
+    private char[][] toMap(List<String> text) {
 
         checkMapFormat(text);
 
@@ -179,7 +353,7 @@ public class MapParser {
                 map[x][y] = text.get(y).charAt(x);
             }
         }
-        return parseMap(map);
+        return map;
     }
 
     /**
@@ -224,13 +398,89 @@ public class MapParser {
      *             when the source could not be read.
      */
     public Level parseMap(InputStream source) throws IOException {
+        return parseMap(readLines(source));
+    }
+
+    /**
+     * Parses a map from a stream in a single pass, for maps that are too
+     * large to hold as text. The characters are read straight into one flat
+     * array, after which the squares are created in parallel, in chunks of
+     * columns. Ghosts and start positions are added in the same order as by
+     * {@link #parseMap(char[][])}, so both produce the same level. The
+     * stream does not need to be buffered.
+     *
+     * @param source
+     *            The input stream that will be read. It is not closed.
+     * @return The parsed level as represented by the text on the input stream.
+     * @throws IOException
+     *             when the source could not be read.
+     * @throws PacmanConfigurationException If text lines are not properly formatted.
+     */
+    public Level parseLargeMap(InputStream source) throws IOException {
+        CellGrid cells = CellGrid.read(source);
+        int width = cells.getWidth();
+        int height = cells.getHeight();
+        Square[][] grid = new Square[width][height];
+        ForkJoinPool.commonPool().invoke(new SquareTask(cells, grid, 0, width));
+
+        List<Ghost> ghosts = new ArrayList<>();
+        List<Square> startPositions = new ArrayList<>();
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                char c = cells.charAt(x, y);
+                if (c == 'G') {
+                    Ghost ghost = levelCreator.createGhost();
+                    ghosts.add(ghost);
+                    ghost.occupy(grid[x][y]);
+                } else if (c == 'P') {
+                    startPositions.add(grid[x][y]);
+                }
+            }
+        }
+        Board board = boardCreator.createBoard(grid);
+        return levelCreator.createLevel(board, ghosts, startPositions);
+    }
+
+    /**
+     * Creates the square for a map character, with a pellet on it if the
+     * character calls for one.
+     *
+     * @param c
+     *            A valid map character.
+     * @return The new square.
+     */
+    private Square createSquare(char c) {
+        if (c == '#') {
+            return boardCreator.createWall();
+        }
+        Square square = boardCreator.createGround();
+        if (c == '.') {
+            levelCreator.createPellet().occupy(square);
+        } else if (c == 'A') {
+            levelCreator.createPellet(APPLE_VALUE).occupy(square);
+        }
+        return square;
+    }
+
+    /**
+     * Reads the provided input stream as a character stream.
+     *
+     * @param source
+     *            The input stream that will be read.
+     * @return The lines of text on the input stream.
+     * @throws IOException
+     *             when the source could not be read.
+     */
+    private List<String> readLines(InputStream source) throws IOException {
         try (BufferedReader reader = new BufferedReader(new InputStreamReader(
             source, "UTF-8"))) {
             List<String> lines = new ArrayList<>();
-            while (reader.ready()) {
-                lines.add(reader.readLine());
+            String line = reader.readLine();
+            while (line != null) {
+                lines.add(line);
+                line = reader.readLine();
             }
-            return parseMap(lines);
+            return lines;
         }
     }
 
@@ -261,4 +511,76 @@ public class MapParser {
     protected BoardFactory getBoardCreator() {
         return boardCreator;
     }
+
+    /**
+     * Creates the squares of a range of columns, splitting it up until the
+     * ranges are small enough. Ghosts and start positions get an empty
+     * square, they are added afterwards.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class SquareTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The number of squares below which a range is no longer split.
+         */
+        private static final int THRESHOLD = 16_384;
+
+        /**
+         * The characters of the map.
+         */
+        private final transient CellGrid cells;
+
+        /**
+         * The grid to fill.
+         */
+        private final transient Square[][] grid;
+
+        /**
+         * The first column of the range.
+         */
+        private final int from;
+
+        /**
+         * The column after the last one of the range.
+         */
+        private final int to;
+
+        /**
+         * Creates a new task.
+         *
+         * @param cells
+         *            The characters of the map.
+         * @param grid
+         *            The grid to fill.
+         * @param from
+         *            The first column of the range.
+         * @param to
+         *            The column after the last one of the range.
+         */
+        SquareTask(CellGrid cells, Square[][] grid, int from, int to) {
+            this.cells = cells;
+            this.grid = grid;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            int height = cells.getHeight();
+            if (to - from > 1 && (long) (to - from) * height > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new SquareTask(cells, grid, from, middle),
+                    new SquareTask(cells, grid, middle, to));
+                return;
+            }
+            for (int x = from; x < to; x++) {
+                for (int y = 0; y < height; y++) {
+                    grid[x][y] = createSquare(cells.charAt(x, y));
+                }
+            }
+        }
+    }
 }
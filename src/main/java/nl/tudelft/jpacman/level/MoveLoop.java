@@ -0,0 +1,367 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * A single thread that applies the moves of every {@link Level} using it, so
+ * that moves no longer compete for a lock.
+ * <p>
+ * Moves are submitted as commands to a lock-free queue, which any number of
+ * threads, such as the key listener and the NPC scheduler, can add to
+ * without ever blocking. Every tick the loop takes the commands that were
+ * queued and applies them, in the order in which they were submitted, as
+ * one batch. It is the only thread changing the boards of its levels.
+ * <p>
+ * A move that fails is logged, counted and reported to the observers, after
+ * which the loop goes on with the next one.
+ *
+ * @author Jeroen Roosen
+ */
+public final class MoveLoop {
+
+    /**
+     * The default duration of a single tick in milliseconds.
+     */
+    public static final long DEFAULT_TICK_MILLIS = 5L;
+
+    /**
+     * The logger reporting moves that failed.
+     */
+    private static final Logger LOGGER = Logger.getLogger(MoveLoop.class.getName());
+
+    /**
+     * The loop shared by all levels.
+     */
+    private static final MoveLoop SHARED = new MoveLoop(DEFAULT_TICK_MILLIS);
+
+    /**
+     * The duration of a single tick in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * The commands that have been submitted, but not yet applied.
+     */
+    private final Queue<Command> commands;
+
+    /**
+     * The number of commands in the queue, as the queue itself cannot count
+     * them in constant time.
+     */
+    private final AtomicInteger depth;
+
+    /**
+     * The number of moves that failed.
+     */
+    private final AtomicInteger failures;
+
+    /**
+     * The objects observing the batches.
+     */
+    private final List<BatchObserver> observers;
+
+    /**
+     * The number of commands applied in the last batch.
+     */
+    private volatile int lastBatchSize;
+
+    /**
+     * The time it took to apply the last batch, in nanoseconds.
+     */
+    private volatile long lastBatchNanos;
+
+    /**
+     * The thread running the loop, or <code>null</code> if it is not
+     * running.
+     */
+    private Thread worker;
+
+    /**
+     * Creates a new loop, which does not run until it is started.
+     *
+     * @param tickMillis
+     *            The duration of a single tick in milliseconds.
+     */
+    public MoveLoop(long tickMillis) {
+        assert tickMillis > 0;
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.commands = new ConcurrentLinkedQueue<>();
+        this.depth = new AtomicInteger();
+        this.failures = new AtomicInteger();
+        this.observers = new CopyOnWriteArrayList<>();
+    }
+
+    /**
+     * @return The loop shared by all levels in this process.
+     */
+    public static MoveLoop getShared() {
+        return SHARED;
+    }
+
+    /**
+     * Adds an observer that is notified after every batch, on the thread of
+     * the loop.
+     *
+     * @param observer
+     *            The observer to notify.
+     */
+    public void addObserver(BatchObserver observer) {
+        observers.add(observer);
+    }
+
+    /**
+     * Removes an observer if it was listed.
+     *
+     * @param observer
+     *            The observer to remove.
+     */
+    public void removeObserver(BatchObserver observer) {
+        observers.remove(observer);
+    }
+
+    /**
+     * Queues a move, to be applied in the next batch. This never blocks.
+     *
+     * @param level
+     *            The level to move the unit on.
+     * @param unit
+     *            The unit to move.
+     * @param direction
+     *            The direction to move the unit in.
+     */
+    void submit(Level level, Unit unit, Direction direction) {
+        commands.offer(new Command(level, unit, direction));
+        depth.incrementAndGet();
+    }
+
+    /**
+     * Starts the thread applying the batches, if it is not running yet.
+     */
+    public synchronized void start() {
+        if (worker == null) {
+            worker = new Thread(this::work, "jpacman-move-loop");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * Stops the thread applying the batches, waiting until it has finished
+     * the batch it is applying, so that a loop started again right away
+     * never has two threads applying batches. Commands that are still queued
+     * are applied when the loop is started again.
+     */
+    public synchronized void stop() {
+        Thread stopped = worker;
+        worker = null;
+        if (stopped == null) {
+            return;
+        }
+        stopped.interrupt();
+        if (stopped == Thread.currentThread()) {
+            return;
+        }
+        boolean interrupted = false;
+        while (stopped.isAlive()) {
+            try {
+                stopped.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * @return The number of commands waiting to be applied.
+     */
+    public int getQueueDepth() {
+        return depth.get();
+    }
+
+    /**
+     * @return The number of commands applied in the last batch.
+     */
+    public int getLastBatchSize() {
+        return lastBatchSize;
+    }
+
+    /**
+     * @return The time it took to apply the last batch, in nanoseconds.
+     */
+    public long getLastBatchNanos() {
+        return lastBatchNanos;
+    }
+
+    /**
+     * @return The number of moves that failed since the loop was created.
+     */
+    public int getFailureCount() {
+        return failures.get();
+    }
+
+    /**
+     * Applies the commands that are queued right now. Commands submitted
+     * while the batch is being applied wait for the next one. Must only be
+     * called by the thread of the loop, or when the loop is not running.
+     *
+     * @return The number of commands applied.
+     */
+    int applyBatch() {
+        long start = System.nanoTime();
+        int queued = depth.get();
+        int size = 0;
+        while (size < queued) {
+            Command command = commands.poll();
+            if (command == null) {
+                break;
+            }
+            apply(command);
+            size++;
+        }
+        int remaining = depth.addAndGet(-size);
+        long nanos = System.nanoTime() - start;
+        lastBatchSize = size;
+        lastBatchNanos = nanos;
+        for (BatchObserver observer : observers) {
+            observer.batchApplied(size, remaining, nanos);
+        }
+        return size;
+    }
+
+    /**
+     * Applies a single command. Anything the move throws, including errors,
+     * is logged and reported to the observers instead of stopping the loop.
+     *
+     * @param command
+     *            The command to apply.
+     */
+    private void apply(Command command) {
+        Unit unit = command.unit;
+        Direction direction = command.direction;
+        try {
+            command.apply();
+        } catch (Throwable failure) {
+            failures.incrementAndGet();
+            LOGGER.log(java.util.logging.Level.WARNING, "Failed to move " + unit + " "
+                + direction, failure);
+            for (BatchObserver observer : observers) {
+                observer.moveFailed(unit, direction, failure);
+            }
+        }
+    }
+
+    /**
+     * The main loop of the worker thread, applying one batch every tick.
+     */
+    private void work() {
+        long next = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            next += tickNanos;
+            long remaining = next - System.nanoTime();
+            try {
+                if (remaining > 0) {
+                    TimeUnit.NANOSECONDS.sleep(remaining);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            applyBatch();
+        }
+    }
+
+    /**
+     * A move of a unit on a level, waiting to be applied.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Command {
+
+        /**
+         * The level to move the unit on.
+         */
+        private final Level level;
+
+        /**
+         * The unit to move.
+         */
+        private final Unit unit;
+
+        /**
+         * The direction to move the unit in.
+         */
+        private final Direction direction;
+
+        /**
+         * Creates a new command.
+         *
+         * @param level
+         *            The level to move the unit on.
+         * @param unit
+         *            The unit to move.
+         * @param direction
+         *            The direction to move the unit in.
+         */
+        Command(Level level, Unit unit, Direction direction) {
+            this.level = level;
+            this.unit = unit;
+            this.direction = direction;
+        }
+
+        /**
+         * Applies the move.
+         */
+        private void apply() {
+            level.applyMove(unit, direction);
+        }
+    }
+
+    /**
+     * An observer that is notified every time a batch has been applied, for
+     * instance to monitor the load of the loop.
+     *
+     * @author Jeroen Roosen
+     */
+    public interface BatchObserver {
+
+        /**
+         * A batch has been applied.
+         *
+         * @param size
+         *            The number of commands applied.
+         * @param queueDepth
+         *            The number of commands submitted in the meantime, waiting
+         *            for the next batch.
+         * @param nanos
+         *            The time it took to apply the batch, in nanoseconds.
+         */
+        void batchApplied(int size, int queueDepth, long nanos);
+
+        /**
+         * A move failed with an exception or error, and was skipped. Does
+         * nothing by default.
+         *
+         * @param unit
+         *            The unit that was to be moved.
+         * @param direction
+         *            The direction it was to be moved in.
+         * @param failure
+         *            What the move threw.
+         */
+        default void moveFailed(Unit unit, Direction direction, Throwable failure) {
+            // Failures are logged by the loop already.
+        }
+    }
+}
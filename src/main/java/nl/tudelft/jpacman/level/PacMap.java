@@ -0,0 +1,395 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.npc.ghost.PathTable;
+
+/**
+ * A map in the compact binary <code>.pacmap</code> format, which can be
+ * loaded without reading or checking any text.
+ * <p>
+ * A file consists of, in big-endian order:
+ * <ul>
+ * <li>the magic number {@link #MAGIC} and the {@link #VERSION};
+ * <li>the width and height of the board;
+ * <li>one byte per square, column by column, holding the map character of
+ * the terrain and pellets: <code>' '</code>, <code>'#'</code>,
+ * <code>'.'</code> or <code>'A'</code>;
+ * <li>the number of start positions, followed by their square indices;
+ * <li>the number of ghosts, followed by their square indices;
+ * <li>a byte telling whether the distances between all squares follow, as
+ * travelled by ghosts, in the layout of {@link PathTable#writeTo(ByteBuffer)}.
+ * </ul>
+ *
+ * @author Jeroen Roosen
+ */
+public final class PacMap {
+
+    /**
+     * The first four bytes of every file, "PACM".
+     */
+    public static final int MAGIC = 0x5041434D;
+
+    /**
+     * The version of the format.
+     */
+    public static final int VERSION = 1;
+
+    /**
+     * The map character of a player start position.
+     */
+    private static final char PLAYER = 'P';
+
+    /**
+     * The map character of a ghost.
+     */
+    private static final char GHOST = 'G';
+
+    /**
+     * The map character of an empty square.
+     */
+    private static final char GROUND = ' ';
+
+    /**
+     * The map characters a square may hold in a file.
+     */
+    private static final String TERRAIN = " #.A";
+
+    /**
+     * The number of bytes of the header, up to the squares.
+     */
+    private static final int HEADER_SIZE = 4 * Integer.BYTES;
+
+    /**
+     * The terrain and pellets of the squares, column by column.
+     */
+    private final CellGrid cells;
+
+    /**
+     * The square indices of the start positions.
+     */
+    private final int[] starts;
+
+    /**
+     * The square indices of the ghosts.
+     */
+    private final int[] ghosts;
+
+    /**
+     * The distances between all squares, or <code>null</code> if the file
+     * did not contain them.
+     */
+    private final PathTable distances;
+
+    /**
+     * Creates a new map.
+     *
+     * @param cells
+     *            The terrain and pellets of the squares.
+     * @param starts
+     *            The square indices of the start positions.
+     * @param ghosts
+     *            The square indices of the ghosts.
+     * @param distances
+     *            The distances between all squares, or <code>null</code>.
+     */
+    private PacMap(CellGrid cells, int[] starts, int[] ghosts, PathTable distances) {
+        this.cells = cells;
+        this.starts = starts;
+        this.ghosts = ghosts;
+        this.distances = distances;
+    }
+
+    /**
+     * @return The terrain and pellets of the squares. Start positions and
+     *         ghosts are on empty squares.
+     */
+    CellGrid getCells() {
+        return cells;
+    }
+
+    /**
+     * @return The square indices of the start positions, column by column.
+     */
+    int[] getStarts() {
+        return starts;
+    }
+
+    /**
+     * @return The square indices of the ghosts, column by column.
+     */
+    int[] getGhosts() {
+        return ghosts;
+    }
+
+    /**
+     * @return The distances between all squares as travelled by ghosts, or
+     *         <code>null</code> if the file did not contain them.
+     */
+    PathTable getDistances() {
+        return distances;
+    }
+
+    /**
+     * Loads a map file by mapping it into memory.
+     *
+     * @param file
+     *            The file to load.
+     * @return The map in the file.
+     * @throws IOException
+     *             when the file could not be read.
+     * @throws PacmanConfigurationException
+     *             when the file is not a valid map.
+     */
+    public static PacMap load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                channel.size());
+            return read(buffer);
+        }
+    }
+
+    /**
+     * Reads a map, checking every count and index against the size of the
+     * buffer and the board.
+     *
+     * @param source
+     *            The buffer holding the map.
+     * @return The map in the buffer.
+     * @throws PacmanConfigurationException
+     *             when the buffer does not hold a valid map.
+     */
+    static PacMap read(ByteBuffer source) {
+        if (source.remaining() < HEADER_SIZE || source.getInt() != MAGIC) {
+            throw new PacmanConfigurationException("Not a .pacmap file.");
+        }
+        int version = source.getInt();
+        if (version != VERSION) {
+            throw new PacmanConfigurationException("Unsupported .pacmap version " + version);
+        }
+        int width = source.getInt();
+        int height = source.getInt();
+        if (width <= 0 || height <= 0 || (long) width * height > Integer.MAX_VALUE) {
+            throw new PacmanConfigurationException("Invalid .pacmap size "
+                + width + "x" + height);
+        }
+        byte[] terrain = readTerrain(source, width, height);
+        int[] starts = readPositions(source, terrain);
+        int[] ghosts = readPositions(source, terrain);
+        checkRemaining(source, 1L);
+        PathTable distances = null;
+        if (source.get() != 0) {
+            distances = readDistances(source, terrain.length);
+        }
+        return new PacMap(CellGrid.ofColumns(terrain, width, height), starts, ghosts,
+            distances);
+    }
+
+    /**
+     * Reads the terrain and pellets of the squares.
+     *
+     * @param source
+     *            The buffer holding the squares.
+     * @param width
+     *            The width of the board.
+     * @param height
+     *            The height of the board.
+     * @return The map characters of the squares, column by column.
+     * @throws PacmanConfigurationException
+     *             when the squares are not valid.
+     */
+    private static byte[] readTerrain(ByteBuffer source, int width, int height) {
+        byte[] terrain = new byte[checkRemaining(source, (long) width * height)];
+        source.get(terrain);
+        for (int i = 0; i < terrain.length; i++) {
+            if (TERRAIN.indexOf(terrain[i]) < 0) {
+                throw new PacmanConfigurationException("Invalid square in .pacmap file at "
+                    + i / height + "," + i % height + ": " + (char) terrain[i]);
+            }
+        }
+        return terrain;
+    }
+
+    /**
+     * Reads the distances between all squares.
+     *
+     * @param source
+     *            The buffer holding the distances.
+     * @param size
+     *            The number of squares on the board.
+     * @return The distances.
+     * @throws PacmanConfigurationException
+     *             when the distances are not valid.
+     */
+    private static PathTable readDistances(ByteBuffer source, int size) {
+        if ((long) size * size > PathTable.MAX_ENTRIES) {
+            throw new PacmanConfigurationException(
+                "The .pacmap file has distances for a board that is too large.");
+        }
+        checkRemaining(source, PathTable.byteSize(size));
+        return PathTable.readFrom(source, size);
+    }
+
+    /**
+     * Reads a list of positions, which must be empty squares.
+     *
+     * @param source
+     *            The buffer holding the positions.
+     * @param terrain
+     *            The terrain of the squares.
+     * @return The square indices of the positions.
+     * @throws PacmanConfigurationException
+     *             when the positions are not valid.
+     */
+    private static int[] readPositions(ByteBuffer source, byte[] terrain) {
+        checkRemaining(source, Integer.BYTES);
+        int count = source.getInt();
+        if (count < 0) {
+            throw new PacmanConfigurationException("Invalid .pacmap position count " + count);
+        }
+        int[] positions = new int[checkRemaining(source, (long) count * Integer.BYTES)
+            / Integer.BYTES];
+        for (int i = 0; i < count; i++) {
+            int index = source.getInt();
+            if (index < 0 || index >= terrain.length || terrain[index] != GROUND) {
+                throw new PacmanConfigurationException("Invalid .pacmap position " + index);
+            }
+            positions[i] = index;
+        }
+        return positions;
+    }
+
+    /**
+     * Checks a number of bytes is left in the buffer.
+     *
+     * @param source
+     *            The buffer being read.
+     * @param bytes
+     *            The number of bytes that should be left.
+     * @return The number of bytes.
+     * @throws PacmanConfigurationException
+     *             when fewer bytes are left.
+     */
+    private static int checkRemaining(ByteBuffer source, long bytes) {
+        if (bytes > source.remaining()) {
+            throw new PacmanConfigurationException("The .pacmap file is truncated.");
+        }
+        return (int) bytes;
+    }
+
+    /**
+     * Writes a map to a file.
+     *
+     * @param map
+     *            The map, with map[x][y] representing the square at position
+     *            x,y.
+     * @param distances
+     *            The distances between all squares as travelled by ghosts, or
+     *            <code>null</code> to leave them out.
+     * @param file
+     *            The file to write to.
+     * @throws IOException
+     *             when the file could not be written.
+     */
+    public static void write(char[][] map, PathTable distances, Path file) throws IOException {
+        ByteBuffer buffer = encode(map, distances);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+            StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Encodes a map in the binary format.
+     *
+     * @param map
+     *            The map, with map[x][y] representing the square at position
+     *            x,y.
+     * @param distances
+     *            The distances between all squares, or <code>null</code>.
+     * @return The encoded map, ready to be read.
+     */
+    static ByteBuffer encode(char[][] map, PathTable distances) {
+        int width = map.length;
+        int height = map[0].length;
+        List<Integer> players = new ArrayList<>();
+        List<Integer> ghosts = new ArrayList<>();
+        byte[] cells = compile(map, players, ghosts);
+        int size = HEADER_SIZE + cells.length + (2 + players.size() + ghosts.size())
+            * Integer.BYTES + 1;
+        if (distances != null) {
+            size += distances.byteSize();
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(width).putInt(height).put(cells);
+        writePositions(buffer, players);
+        writePositions(buffer, ghosts);
+        if (distances == null) {
+            buffer.put((byte) 0);
+        } else {
+            buffer.put((byte) 1);
+            distances.writeTo(buffer);
+        }
+        buffer.flip();
+        return buffer;
+    }
+
+    /**
+     * Compiles a map into one byte per square, taking out the start
+     * positions and ghosts.
+     *
+     * @param map
+     *            The map, with map[x][y] representing the square at position
+     *            x,y.
+     * @param players
+     *            The list to add the indices of the start positions to.
+     * @param ghosts
+     *            The list to add the indices of the ghosts to.
+     * @return The terrain and pellets of the squares, column by column.
+     */
+    private static byte[] compile(char[][] map, List<Integer> players, List<Integer> ghosts) {
+        int width = map.length;
+        int height = map[0].length;
+        byte[] cells = new byte[width * height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                int index = x * height + y;
+                char c = map[x][y];
+                if (c == PLAYER) {
+                    players.add(index);
+                    c = GROUND;
+                } else if (c == GHOST) {
+                    ghosts.add(index);
+                    c = GROUND;
+                }
+                cells[index] = (byte) c;
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Writes a list of positions.
+     *
+     * @param target
+     *            The buffer to write to.
+     * @param positions
+     *            The square indices of the positions.
+     */
+    private static void writePositions(ByteBuffer target, List<Integer> positions) {
+        target.putInt(positions.size());
+        for (int index : positions) {
+            target.putInt(index);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package nl.tudelft.jpacman.level;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * Converts text maps into the binary <code>.pacmap</code> format.
+ * <p>
+ * Usage: <code>PacMapConverter [--distances] input.txt output.pacmap</code>,
+ * where <code>--distances</code> includes the distances between all squares
+ * in the file.
+ *
+ * @author Jeroen Roosen
+ */
+public final class PacMapConverter {
+
+    /**
+     * The option to include the distances.
+     */
+    private static final String DISTANCES = "--distances";
+
+    private PacMapConverter() {
+    }
+
+    /**
+     * Converts a text map file.
+     *
+     * @param source
+     *            The text file to convert.
+     * @param target
+     *            The file to write the binary map to.
+     * @param withDistances
+     *            <code>true</code> to include the distances between all
+     *            squares.
+     * @throws IOException
+     *             when a file could not be read or written.
+     * @throws PacmanConfigurationException
+     *             when the distances are requested for a board that is too
+     *             large for them.
+     */
+    public static void convert(Path source, Path target, boolean withDistances)
+            throws IOException {
+        List<String> text = Files.readAllLines(source, StandardCharsets.UTF_8);
+        PacManSprites sprites = new HeadlessSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        parser.writeBinaryMap(text, target, withDistances);
+    }
+
+    /**
+     * Converts the text map file given on the command line.
+     *
+     * @param args
+     *            The optional <code>--distances</code>, the text file and the
+     *            file to write to.
+     * @throws IOException
+     *             when a file could not be read or written.
+     */
+    public static void main(String[] args) throws IOException {
+        boolean withDistances = args.length > 0 && DISTANCES.equals(args[0]);
+        int first = 0;
+        if (withDistances) {
+            first = 1;
+        }
+        if (args.length != first + 2) {
+            System.err.println("Usage: PacMapConverter [" + DISTANCES
+                + "] input.txt output.pacmap");
+            return;
+        }
+        try {
+            convert(Paths.get(args[first]), Paths.get(args[first + 1]), withDistances);
+        } catch (PacmanConfigurationException e) {
+            System.err.println(e.getMessage());
+            if (withDistances) {
+                System.err.println("Convert the map without " + DISTANCES + " instead.");
+            }
+            System.exit(1);
+        }
+    }
+}
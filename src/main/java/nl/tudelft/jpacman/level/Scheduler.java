@@ -0,0 +1,59 @@
+package nl.tudelft.jpacman.level;
+
+/**
+ * Schedules the recurring tasks that move the NPCs of a {@link Level}.
+ *
+ * @author Jeroen Roosen
+ */
+public interface Scheduler {
+
+    /**
+     * Schedules a recurring task for a level. The task will run for the first
+     * time after the given delay, and keeps on running after the delay it
+     * returns until it is cancelled or returns a negative delay.
+     *
+     * @param level
+     *            The level the task belongs to.
+     * @param task
+     *            The task to execute.
+     * @param delay
+     *            The delay before the first execution in milliseconds.
+     * @return The handle that can be used to cancel the task.
+     */
+    Task schedule(Level level, RecurringTask task, long delay);
+
+    /**
+     * A task that is executed repeatedly by a scheduler.
+     *
+     * @author Jeroen Roosen
+     */
+    interface RecurringTask {
+
+        /**
+         * Executes the task.
+         *
+         * @return The delay in milliseconds before the next execution, or a
+         *         negative value if the task should not run again.
+         */
+        long run();
+    }
+
+    /**
+     * A handle to a scheduled task.
+     *
+     * @author Jeroen Roosen
+     */
+    interface Task {
+
+        /**
+         * Cancels the task. A task that is currently running will finish its
+         * current execution, but will not be executed again.
+         */
+        void cancel();
+
+        /**
+         * @return <code>true</code> iff the task will not be executed again.
+         */
+        boolean isCancelled();
+    }
+}
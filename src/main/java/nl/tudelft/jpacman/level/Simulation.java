@@ -0,0 +1,164 @@
+package nl.tudelft.jpacman.level;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Level.LevelObserver;
+
+/**
+ * Plays a level without a user interface on a {@link VirtualClock}, as fast
+ * as the CPU allows.
+ * <p>
+ * The ghosts are scheduled exactly like they are in a real-time game, and the
+ * player is asked for a move by a {@link Controller} at a fixed interval. All
+ * of them move as discrete events on the virtual clock, so a level that takes
+ * minutes to play by hand is simulated in milliseconds. Combined with
+ * {@link nl.tudelft.jpacman.sprite.HeadlessSprites} no display is needed.
+ *
+ * @author Jeroen Roosen
+ */
+public class Simulation implements LevelObserver {
+
+    /**
+     * The level being simulated.
+     */
+    private final Level level;
+
+    /**
+     * The player playing the level.
+     */
+    private final Player player;
+
+    /**
+     * The clock driving the level.
+     */
+    private final VirtualClock clock;
+
+    /**
+     * The outcome of the simulation, or <code>null</code> while the level is
+     * still being played.
+     */
+    private Outcome outcome;
+
+    /**
+     * Creates a new simulation of a level, registering the player on it. The
+     * level must not have been started.
+     *
+     * @param level
+     *            The level to simulate.
+     * @param player
+     *            The player playing the level.
+     */
+    public Simulation(Level level, Player player) {
+        assert level != null;
+        assert player != null;
+        this.level = level;
+        this.player = player;
+        this.clock = new VirtualClock();
+        level.setScheduler(clock);
+        level.registerPlayer(player);
+        level.addObserver(this);
+    }
+
+    /**
+     * @return The clock driving the level.
+     */
+    public VirtualClock getClock() {
+        return clock;
+    }
+
+    /**
+     * @return The level being simulated.
+     */
+    public Level getLevel() {
+        return level;
+    }
+
+    /**
+     * Plays the level until it is won or lost, or until the given amount of
+     * virtual time has passed.
+     *
+     * @param controller
+     *            The controller deciding the moves of the player.
+     * @param moveInterval
+     *            The virtual time between the moves of the player in
+     *            milliseconds.
+     * @param timeLimit
+     *            The virtual time at which the simulation is stopped if the
+     *            level has not ended.
+     * @return The outcome of the simulation.
+     */
+    public Outcome run(Controller controller, long moveInterval, long timeLimit) {
+        assert controller != null;
+        assert moveInterval > 0;
+        Scheduler.Task moves = clock.schedule(level, () -> {
+            Direction direction = controller.nextMove(level, player);
+            if (direction != null) {
+                level.move(player, direction);
+            }
+            return moveInterval;
+        }, moveInterval);
+        level.start();
+        while (outcome == null && clock.nextEventTime() <= timeLimit) {
+            clock.step();
+        }
+        level.stop();
+        moves.cancel();
+        if (outcome == null) {
+            clock.advanceTo(timeLimit);
+            return Outcome.TIME_LIMIT;
+        }
+        return outcome;
+    }
+
+    @Override
+    public void levelWon() {
+        outcome = Outcome.WON;
+    }
+
+    @Override
+    public void levelLost() {
+        outcome = Outcome.LOST;
+    }
+
+    /**
+     * Decides the moves of the player in a simulation.
+     *
+     * @author Jeroen Roosen
+     */
+    public interface Controller {
+
+        /**
+         * Decides the next move of the player.
+         *
+         * @param level
+         *            The level being played.
+         * @param player
+         *            The player to move.
+         * @return The direction to move the player in, or <code>null</code> to
+         *         let the player stand still.
+         */
+        Direction nextMove(Level level, Player player);
+    }
+
+    /**
+     * The ways a simulation can end.
+     *
+     * @author Jeroen Roosen
+     */
+    public enum Outcome {
+
+        /**
+         * All pellets have been eaten.
+         */
+        WON,
+
+        /**
+         * The player has died.
+         */
+        LOST,
+
+        /**
+         * The level had not ended before the time limit.
+         */
+        TIME_LIMIT
+    }
+}
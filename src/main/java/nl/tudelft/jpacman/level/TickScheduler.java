@@ -0,0 +1,367 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * A hashed timer wheel that drives the NPCs of every {@link Level} in the
+ * process from a single thread.
+ * <p>
+ * Time is divided into ticks of a fixed duration. Every task is kept in the
+ * bucket of the wheel that corresponds to the tick it is due in, together
+ * with the number of full rotations it still has to wait. Every tick the
+ * worker thread only visits a single bucket, so the cost of a tick does not
+ * depend on the amount of levels being served.
+ *
+ * @author Jeroen Roosen
+ */
+public final class TickScheduler implements Scheduler {
+
+    /**
+     * The logger reporting tasks that failed.
+     */
+    private static final Logger LOGGER = Logger.getLogger(TickScheduler.class.getName());
+
+    /**
+     * The duration of a single tick in milliseconds.
+     */
+    private static final long TICK_MILLIS = 10L;
+
+    /**
+     * The number of buckets in the wheel, must be a power of two.
+     */
+    private static final int WHEEL_SIZE = 512;
+
+    /**
+     * The scheduler shared by all levels.
+     */
+    private static final TickScheduler SHARED = new TickScheduler(TICK_MILLIS, WHEEL_SIZE);
+
+    /**
+     * The duration of a single tick in nanoseconds.
+     */
+    private final long tickNanos;
+
+    /**
+     * The buckets of the wheel, one for every tick in a rotation.
+     */
+    private final List<List<Timeout>> wheel;
+
+    /**
+     * The mask used to map a tick onto its bucket.
+     */
+    private final int mask;
+
+    /**
+     * Timeouts that have been scheduled, but not yet placed in the wheel.
+     */
+    private final Queue<Timeout> pending;
+
+    /**
+     * The number of active tasks per level.
+     */
+    private final Map<Level, AtomicInteger> levels;
+
+    /**
+     * The number of active tasks.
+     */
+    private final AtomicInteger tasks;
+
+    /**
+     * The timeouts that are due in the tick being expired, only used by the
+     * worker.
+     */
+    private final List<Timeout> due;
+
+    /**
+     * The {@link System#nanoTime()} stamp of tick 0.
+     */
+    private final long startTime;
+
+    /**
+     * The thread running the wheel, or <code>null</code> if it has not been
+     * started yet.
+     */
+    private Thread worker;
+
+    /**
+     * Creates a new timer wheel.
+     *
+     * @param tickMillis
+     *            The duration of a single tick in milliseconds.
+     * @param wheelSize
+     *            The number of buckets, must be a power of two.
+     */
+    TickScheduler(long tickMillis, int wheelSize) {
+        assert tickMillis > 0;
+        assert Integer.bitCount(wheelSize) == 1;
+
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.mask = wheelSize - 1;
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.levels = new ConcurrentHashMap<>();
+        this.tasks = new AtomicInteger();
+        this.due = new ArrayList<>();
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * @return The scheduler shared by all levels in this process.
+     */
+    public static TickScheduler getShared() {
+        return SHARED;
+    }
+
+    @Override
+    public Timeout schedule(Level level, RecurringTask task, long delay) {
+        assert level != null;
+        assert task != null;
+
+        Timeout timeout = new Timeout(level, task);
+        timeout.deadline = deadlineAfter(delay);
+        tasks.incrementAndGet();
+        levels.computeIfAbsent(level, key -> new AtomicInteger()).incrementAndGet();
+        pending.add(timeout);
+        ensureStarted();
+        return timeout;
+    }
+
+    /**
+     * Returns the number of levels that currently have tasks scheduled.
+     *
+     * @return The number of levels served by this scheduler.
+     */
+    public int getLevelCount() {
+        return levels.size();
+    }
+
+    /**
+     * Returns the number of ghosts, i.e. recurring tasks, that are currently
+     * scheduled.
+     *
+     * @return The number of ghosts served by this scheduler.
+     */
+    public int getGhostCount() {
+        return tasks.get();
+    }
+
+    /**
+     * Computes the tick at which a task is due that is scheduled from now.
+     *
+     * @param delay
+     *            The delay in milliseconds.
+     * @return The tick at which the task is due.
+     */
+    private long deadlineAfter(long delay) {
+        long elapsed = System.nanoTime() - startTime
+            + TimeUnit.MILLISECONDS.toNanos(Math.max(0L, delay));
+        return elapsed / tickNanos;
+    }
+
+    /**
+     * Starts the worker thread if it is not running yet.
+     */
+    private synchronized void ensureStarted() {
+        if (worker == null) {
+            worker = new Thread(this::work, "jpacman-npc-ticker");
+            worker.setDaemon(true);
+            worker.start();
+        }
+    }
+
+    /**
+     * The main loop of the worker thread, expiring one bucket every tick.
+     */
+    private void work() {
+        long tick = (System.nanoTime() - startTime) / tickNanos;
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                waitFor(tick);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            Timeout timeout = pending.poll();
+            while (timeout != null) {
+                place(timeout, tick);
+                timeout = pending.poll();
+            }
+            expire(wheel.get((int) (tick & mask)), tick);
+            tick++;
+        }
+    }
+
+    /**
+     * Sleeps until the given tick has started.
+     *
+     * @param tick
+     *            The tick to wait for.
+     * @throws InterruptedException
+     *             When the worker is interrupted.
+     */
+    private void waitFor(long tick) throws InterruptedException {
+        long remaining = startTime + tick * tickNanos - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+
+    /**
+     * Puts a timeout in the bucket of its deadline.
+     *
+     * @param timeout
+     *            The timeout to place.
+     * @param tick
+     *            The first tick that has not been expired yet.
+     */
+    private void place(Timeout timeout, long tick) {
+        long dueTick = Math.max(timeout.deadline, tick);
+        timeout.rounds = (dueTick - tick) / wheel.size();
+        wheel.get((int) (dueTick & mask)).add(timeout);
+    }
+
+    /**
+     * Runs all timeouts in a bucket that are due in this round, and keeps the
+     * others in place.
+     *
+     * @param bucket
+     *            The bucket to expire.
+     * @param tick
+     *            The tick that is being expired.
+     */
+    private void expire(List<Timeout> bucket, long tick) {
+        int kept = 0;
+        for (Timeout timeout : bucket) {
+            if (timeout.isCancelled()) {
+                continue;
+            }
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                bucket.set(kept++, timeout);
+            } else {
+                due.add(timeout);
+            }
+        }
+        bucket.subList(kept, bucket.size()).clear();
+        for (Timeout timeout : due) {
+            long next = timeout.fire();
+            if (next >= 0 && !timeout.isCancelled()) {
+                timeout.deadline = deadlineAfter(next);
+                place(timeout, tick + 1);
+            } else {
+                timeout.release();
+            }
+        }
+        due.clear();
+    }
+
+    /**
+     * Updates the bookkeeping once a task is no longer scheduled.
+     *
+     * @param level
+     *            The level the task belonged to.
+     */
+    private void released(Level level) {
+        tasks.decrementAndGet();
+        levels.computeIfPresent(level, (key, count) -> {
+            if (count.decrementAndGet() == 0) {
+                return null;
+            }
+            return count;
+        });
+    }
+
+    /**
+     * A handle to a scheduled task.
+     *
+     * @author Jeroen Roosen
+     */
+    public final class Timeout implements Task {
+
+        /**
+         * The level the task belongs to.
+         */
+        private final Level level;
+
+        /**
+         * The task to execute.
+         */
+        private final RecurringTask task;
+
+        /**
+         * <code>true</code> once the task is no longer scheduled.
+         */
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        /**
+         * The tick at which the task is due, only used by the worker.
+         */
+        private long deadline;
+
+        /**
+         * The number of rotations of the wheel to wait, only used by the
+         * worker.
+         */
+        private long rounds;
+
+        /**
+         * Creates a new handle.
+         *
+         * @param level
+         *            The level the task belongs to.
+         * @param task
+         *            The task to execute.
+         */
+        Timeout(Level level, RecurringTask task) {
+            this.level = level;
+            this.task = task;
+        }
+
+        @Override
+        public void cancel() {
+            release();
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return released.get();
+        }
+
+        /**
+         * Executes the task, treating a failing task as one that finished
+         * after logging the failure.
+         *
+         * @return The delay before the next execution, or a negative value.
+         */
+        private long fire() {
+            try {
+                return task.run();
+            } catch (RuntimeException e) {
+                LOGGER.log(java.util.logging.Level.WARNING, "Task " + task
+                    + " failed and will not run again", e);
+                return -1L;
+            }
+        }
+
+        /**
+         * Removes this task from the bookkeeping, if that did not happen yet.
+         */
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                released(level);
+            }
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntConsumer;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Board.BoardObserver;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * The appearance of the occupants of a board at the end of a tick of a
+ * {@link FixedStepLoop}.
+ * <p>
+ * A snapshot never changes, so a renderer drawing it on another thread
+ * always shows the board as it was in a single tick, never halfway through
+ * one. The sprites are kept in a tree of {@value #WIDTH} squares per node,
+ * and a snapshot only copies the nodes on the paths to the squares that
+ * changed since the previous one, sharing all others. Taking a snapshot
+ * thus costs time in the number of changes, not in the size of the board.
+ *
+ * @author Jeroen Roosen
+ */
+public final class TickSnapshot {
+
+    /**
+     * The number of bits of a square index used per level of the tree.
+     */
+    private static final int BITS = 5;
+
+    /**
+     * The number of children of a node of the tree.
+     */
+    private static final int WIDTH = 1 << BITS;
+
+    /**
+     * The mask selecting the child of a node from a shifted index.
+     */
+    private static final int MASK = WIDTH - 1;
+
+    /**
+     * The tick the snapshot was taken at.
+     */
+    private final long tick;
+
+    /**
+     * The board the snapshot was taken of.
+     */
+    private final Board board;
+
+    /**
+     * The root of the tree holding the sprites of the occupants of every
+     * square, by square index. The leaves hold the lists of sprites.
+     */
+    private final Object[] root;
+
+    /**
+     * The shift of a square index selecting the child of the root.
+     */
+    private final int shift;
+
+    /**
+     * Creates a new snapshot.
+     *
+     * @param tick
+     *            The tick the snapshot was taken at.
+     * @param board
+     *            The board the snapshot was taken of.
+     * @param root
+     *            The root of the tree of sprites.
+     * @param shift
+     *            The shift of a square index selecting the child of the
+     *            root.
+     */
+    private TickSnapshot(long tick, Board board, Object[] root, int shift) {
+        this.tick = tick;
+        this.board = board;
+        this.root = root;
+        this.shift = shift;
+    }
+
+    /**
+     * @return The tick the snapshot was taken at.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * @return The board the snapshot was taken of.
+     */
+    public Board getBoard() {
+        return board;
+    }
+
+    /**
+     * @param index
+     *            The index of a square on the board.
+     * @return The sprites of the occupants of the square, in the order they
+     *         are drawn.
+     */
+    @SuppressWarnings("unchecked")
+    public List<Sprite> getSprites(int index) {
+        Object[] node = root;
+        for (int level = shift; level > 0; level -= BITS) {
+            node = (Object[]) node[(index >>> level) & MASK];
+        }
+        return (List<Sprite>) node[index & MASK];
+    }
+
+    /**
+     * Reports the squares whose sprites differ from those in an earlier
+     * snapshot of the same board. Only the parts of the tree that are not
+     * shared with the earlier snapshot are visited.
+     *
+     * @param earlier
+     *            An earlier snapshot of the same board.
+     * @param action
+     *            The action to perform on the index of every changed square.
+     */
+    public void forEachChange(TickSnapshot earlier, IntConsumer action) {
+        assert earlier.board == board;
+        diff(root, earlier.root, shift, 0, action);
+    }
+
+    /**
+     * Reports the squares below a node of the tree that differ from those
+     * below the same node of an earlier tree.
+     *
+     * @param node
+     *            The node of this tree.
+     * @param earlier
+     *            The node of the earlier tree.
+     * @param level
+     *            The shift of a square index selecting a child of the nodes.
+     * @param offset
+     *            The index of the first square below the nodes.
+     * @param action
+     *            The action to perform on the index of every changed square.
+     */
+    private static void diff(Object[] node, Object[] earlier, int level, int offset,
+                             IntConsumer action) {
+        for (int slot = 0; slot < WIDTH; slot++) {
+            if (node[slot] != earlier[slot]) {
+                int index = offset + (slot << level);
+                if (level == 0) {
+                    action.accept(index);
+                } else {
+                    diff((Object[]) node[slot], (Object[]) earlier[slot], level - BITS, index,
+                        action);
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the snapshots of a board, only capturing the squares again that
+     * changed since the previous snapshot.
+     *
+     * @author Jeroen Roosen
+     */
+    static final class Recorder implements BoardObserver {
+
+        /**
+         * The board to take snapshots of.
+         */
+        private final Board board;
+
+        /**
+         * The shift of a square index selecting the child of the root, for
+         * a tree that just fits all squares of the board.
+         */
+        private final int shift;
+
+        /**
+         * The indices of the squares that changed since the last snapshot.
+         */
+        private final Set<Integer> changed = ConcurrentHashMap.newKeySet();
+
+        /**
+         * The last snapshot, or <code>null</code> if none was taken yet.
+         */
+        private TickSnapshot last;
+
+        /**
+         * Creates a new recorder and starts following the changes on the
+         * board.
+         *
+         * @param board
+         *            The board to take snapshots of.
+         */
+        Recorder(Board board) {
+            this.board = board;
+            int levels = 0;
+            while ((long) WIDTH << levels < board.getSquareCount()) {
+                levels += BITS;
+            }
+            this.shift = levels;
+            board.addObserver(this);
+        }
+
+        @Override
+        public void unitEntered(Square square, Unit unit) {
+            mark(square);
+        }
+
+        @Override
+        public void unitLeft(Square square, Unit unit) {
+            mark(square);
+        }
+
+        /**
+         * Marks a square whose occupants may look different, for instance
+         * because one of them turned.
+         *
+         * @param square
+         *            The square to capture again.
+         */
+        void mark(Square square) {
+            changed.add(square.getIndex());
+        }
+
+        /**
+         * Takes a snapshot of the board.
+         *
+         * @param tick
+         *            The tick that just ended.
+         * @return The new snapshot.
+         */
+        TickSnapshot take(long tick) {
+            Object[] root;
+            if (last == null) {
+                changed.clear();
+                root = build(shift, 0);
+            } else if (changed.isEmpty()) {
+                root = last.root;
+            } else {
+                int[] indices = drainChanged();
+                root = update(last.root, shift, indices, 0, indices.length);
+            }
+            last = new TickSnapshot(tick, board, root, shift);
+            return last;
+        }
+
+        /**
+         * Takes the indices of the squares that changed.
+         *
+         * @return The indices, in ascending order.
+         */
+        private int[] drainChanged() {
+            int[] indices = new int[changed.size()];
+            int count = 0;
+            for (Integer index : changed) {
+                changed.remove(index);
+                if (count == indices.length) {
+                    indices = Arrays.copyOf(indices, count * 2 + 1);
+                }
+                indices[count++] = index;
+            }
+            indices = Arrays.copyOf(indices, count);
+            Arrays.sort(indices);
+            return indices;
+        }
+
+        /**
+         * Captures the squares below a new node of the tree.
+         *
+         * @param level
+         *            The shift of a square index selecting a child of the
+         *            node.
+         * @param offset
+         *            The index of the first square below the node.
+         * @return The new node.
+         */
+        private Object[] build(int level, int offset) {
+            Object[] node = new Object[WIDTH];
+            for (int slot = 0; slot < WIDTH; slot++) {
+                int first = offset + (slot << level);
+                if (first >= board.getSquareCount()) {
+                    break;
+                }
+                if (level == 0) {
+                    node[slot] = capture(first);
+                } else {
+                    node[slot] = build(level - BITS, first);
+                }
+            }
+            return node;
+        }
+
+        /**
+         * Copies a node of the tree, capturing the changed squares below it
+         * again and sharing the children without changes.
+         *
+         * @param node
+         *            The node of the last snapshot.
+         * @param level
+         *            The shift of a square index selecting a child of the
+         *            node.
+         * @param indices
+         *            The indices of the changed squares, in ascending order.
+         * @param from
+         *            The first of the indices below the node.
+         * @param to
+         *            The end of the indices below the node.
+         * @return The copy of the node.
+         */
+        private Object[] update(Object[] node, int level, int[] indices, int from, int to) {
+            Object[] copy = node.clone();
+            int i = from;
+            while (i < to) {
+                int slot = (indices[i] >>> level) & MASK;
+                if (level == 0) {
+                    copy[slot] = capture(indices[i++]);
+                    continue;
+                }
+                int end = i + 1;
+                while (end < to && ((indices[end] >>> level) & MASK) == slot) {
+                    end++;
+                }
+                copy[slot] = update((Object[]) node[slot], level - BITS, indices, i, end);
+                i = end;
+            }
+            return copy;
+        }
+
+        /**
+         * @param index
+         *            The index of a square.
+         * @return The sprites of the occupants of the square.
+         */
+        private List<Sprite> capture(int index) {
+            List<Unit> occupants = board.squareAtIndex(index).getOccupants();
+            if (occupants.isEmpty()) {
+                return Collections.emptyList();
+            }
+            Sprite[] result = new Sprite[occupants.size()];
+            for (int i = 0; i < result.length; i++) {
+                result[i] = occupants.get(i).getSprite();
+            }
+            return Collections.unmodifiableList(Arrays.asList(result));
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.npc.ghost.PathTable;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+/**
+ * A number of {@link Environment}s of the same map that are reset and
+ * stepped together, spread over a fork-join pool.
+ * <p>
+ * The observations, rewards and done flags of all environments are kept in
+ * flat arrays, so an agent can read a whole batch without any copying. An
+ * environment whose level ended is reset with a fresh seed at its next
+ * step, so the batch can be stepped indefinitely.
+ * <p>
+ * The map is only parsed once: all environments stamp their levels from
+ * the same {@link LevelLayout}, and the paths of the ghosts are computed for
+ * the first level and shared by all others, see {@link PathTable}.
+ *
+ * @author Jeroen Roosen
+ */
+public final class VectorEnvironment {
+
+    /**
+     * The number of environments below which a batch is no longer split.
+     */
+    private static final int THRESHOLD = 16;
+
+    /**
+     * The environments.
+     */
+    private final Environment[] environments;
+
+    /**
+     * The sources of the seeds of the environments.
+     */
+    private final SplittableRandom[] seeds;
+
+    /**
+     * The observations of all environments, one after the other.
+     */
+    private final byte[] observations;
+
+    /**
+     * The points scored by every environment in the last step.
+     */
+    private final int[] rewards;
+
+    /**
+     * Whether every environment ended in the last step.
+     */
+    private final boolean[] dones;
+
+    /**
+     * The pool running the environments.
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Creates new environments. Every environment gets its own parser, so
+     * that they can be reset in parallel, but they share the layout of the
+     * map.
+     *
+     * @param map
+     *            The text of the map, every entry being a row of squares on
+     *            the board and the first element being the top row.
+     * @param count
+     *            The number of environments.
+     * @param pool
+     *            The pool running the environments.
+     */
+    public VectorEnvironment(List<String> map, int count, ForkJoinPool pool) {
+        assert count > 0;
+        assert pool != null;
+        PacManSprites sprites = new HeadlessSprites();
+        PlayerFactory players = new PlayerFactory(sprites);
+        LevelTemplate first = parserOf(sprites).parseTemplate(map);
+        int size = first.getWidth() * first.getHeight();
+        this.environments = new Environment[count];
+        this.seeds = new SplittableRandom[count];
+        this.observations = new byte[count * size];
+        this.rewards = new int[count];
+        this.dones = new boolean[count];
+        this.pool = pool;
+        environments[0] = new Environment(first, players, observations, 0);
+        for (int i = 1; i < count; i++) {
+            environments[i] = new Environment(first.withParser(parserOf(sprites)), players,
+                observations, i * size);
+        }
+    }
+
+    /**
+     * @param sprites
+     *            The sprites of the levels.
+     * @return A new parser for an environment, precomputing the paths of
+     *         the ghosts.
+     */
+    private static MapParser parserOf(PacManSprites sprites) {
+        LevelFactory levels = new LevelFactory(sprites, new GhostFactory(sprites));
+        levels.setPrecomputePaths(true);
+        return new MapParser(levels, new BoardFactory(sprites));
+    }
+
+    /**
+     * Starts a new game in every environment.
+     *
+     * @param seed
+     *            The seed from which the seeds of all environments and of
+     *            their future games are derived.
+     */
+    public void reset(long seed) {
+        SplittableRandom random = new SplittableRandom(seed);
+        for (int i = 0; i < seeds.length; i++) {
+            seeds[i] = random.split();
+        }
+        run(i -> {
+            environments[i].reset(seeds[i].nextLong());
+            rewards[i] = 0;
+            dones[i] = false;
+        });
+    }
+
+    /**
+     * Steps all environments at once. Environments whose level ended in the
+     * previous step are reset first.
+     *
+     * @param actions
+     *            The action of every environment, see
+     *            {@link Environment#step(int)}.
+     * @throws IllegalStateException
+     *             when the environments have not been reset yet.
+     */
+    public void step(int[] actions) {
+        assert actions.length == environments.length;
+        if (seeds[0] == null) {
+            throw new IllegalStateException("The environments must be reset before stepping.");
+        }
+        run(i -> {
+            Environment environment = environments[i];
+            if (environment.isDone()) {
+                environment.reset(seeds[i].nextLong());
+            }
+            rewards[i] = environment.step(actions[i]);
+            dones[i] = environment.isDone();
+        });
+    }
+
+    /**
+     * @return The number of environments.
+     */
+    public int size() {
+        return environments.length;
+    }
+
+    /**
+     * @param index
+     *            The index of an environment.
+     * @return The environment.
+     */
+    public Environment get(int index) {
+        return environments[index];
+    }
+
+    /**
+     * @return The number of squares observed per environment.
+     */
+    public int getObservationSize() {
+        return environments[0].getObservationSize();
+    }
+
+    /**
+     * Returns the observations of all environments, those of environment
+     * <code>i</code> starting at <code>i * getObservationSize()</code>. The
+     * array is kept up to date and must not be changed.
+     *
+     * @return The observations of all environments.
+     */
+    public byte[] getObservations() {
+        return observations;
+    }
+
+    /**
+     * @return The points scored by every environment in the last step. The
+     *         array must not be changed.
+     */
+    public int[] getRewards() {
+        return rewards;
+    }
+
+    /**
+     * @return Whether every environment ended in the last step. The array
+     *         must not be changed.
+     */
+    public boolean[] getDones() {
+        return dones;
+    }
+
+    /**
+     * Runs an operation for every environment on the pool.
+     *
+     * @param operation
+     *            The operation, taking the index of an environment.
+     */
+    private void run(IntConsumer operation) {
+        pool.invoke(new Batch(operation, 0, environments.length));
+    }
+
+    /**
+     * Runs an operation for a range of environments, splitting it up until
+     * the ranges are small enough.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Batch extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The operation, taking the index of an environment.
+         */
+        private final transient IntConsumer operation;
+
+        /**
+         * The first environment of the range.
+         */
+        private final int from;
+
+        /**
+         * The environment after the last one of the range.
+         */
+        private final int to;
+
+        /**
+         * Creates a new batch.
+         *
+         * @param operation
+         *            The operation, taking the index of an environment.
+         * @param from
+         *            The first environment of the range.
+         * @param to
+         *            The environment after the last one of the range.
+         */
+        Batch(IntConsumer operation, int from, int to) {
+            this.operation = operation;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > THRESHOLD) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new Batch(operation, from, middle), new Batch(operation, middle, to));
+                return;
+            }
+            for (int i = from; i < to; i++) {
+                operation.accept(i);
+            }
+        }
+    }
+}
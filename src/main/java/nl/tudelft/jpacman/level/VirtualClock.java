@@ -0,0 +1,190 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.PriorityQueue;
+import java.util.Queue;
+
+/**
+ * A scheduler that runs on virtual time instead of the wall clock. Time only
+ * advances when the next event is executed, so a level driven by this clock
+ * runs as fast as the tasks themselves allow.
+ * <p>
+ * Events that are due at the same time are executed in the order in which
+ * they were scheduled, which makes runs reproducible. The clock is meant to
+ * be driven by a single thread and is not thread safe.
+ *
+ * @author Jeroen Roosen
+ */
+public final class VirtualClock implements Scheduler {
+
+    /**
+     * The events that are waiting to be executed, earliest first.
+     */
+    private final Queue<Event> events;
+
+    /**
+     * The current virtual time in milliseconds.
+     */
+    private long now;
+
+    /**
+     * The number of events scheduled so far, used to order events that are
+     * due at the same time.
+     */
+    private long sequence;
+
+    /**
+     * Creates a new clock at time 0.
+     */
+    public VirtualClock() {
+        this.events = new PriorityQueue<>();
+    }
+
+    /**
+     * @return The current virtual time in milliseconds.
+     */
+    public long now() {
+        return now;
+    }
+
+    @Override
+    public Task schedule(Level level, RecurringTask task, long delay) {
+        assert task != null;
+        Event event = new Event(task);
+        enqueue(event, delay);
+        return event;
+    }
+
+    /**
+     * Returns the time at which the next event is due.
+     *
+     * @return The time of the next event, or {@link Long#MAX_VALUE} if no
+     *         events are waiting.
+     */
+    public long nextEventTime() {
+        Event next = events.peek();
+        while (next != null && next.isCancelled()) {
+            events.poll();
+            next = events.peek();
+        }
+        if (next == null) {
+            return Long.MAX_VALUE;
+        }
+        return next.time;
+    }
+
+    /**
+     * Advances the time to the next event and executes it.
+     *
+     * @return <code>true</code> if an event was executed, <code>false</code>
+     *         if no events were waiting.
+     */
+    public boolean step() {
+        if (nextEventTime() == Long.MAX_VALUE) {
+            return false;
+        }
+        Event event = events.poll();
+        now = event.time;
+        long delay = event.task.run();
+        if (delay >= 0 && !event.isCancelled()) {
+            enqueue(event, delay);
+        } else {
+            event.cancel();
+        }
+        return true;
+    }
+
+    /**
+     * Executes all events that are due up to and including the given time,
+     * and advances the time to it.
+     *
+     * @param time
+     *            The time to advance to.
+     */
+    public void advanceTo(long time) {
+        while (nextEventTime() <= time) {
+            step();
+        }
+        now = Math.max(now, time);
+    }
+
+    /**
+     * Puts an event in the queue.
+     *
+     * @param event
+     *            The event to schedule.
+     * @param delay
+     *            The delay from now in milliseconds.
+     */
+    private void enqueue(Event event, long delay) {
+        event.time = now + Math.max(0L, delay);
+        event.order = sequence++;
+        events.add(event);
+    }
+
+    /**
+     * A task scheduled on the virtual clock.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Event implements Task, Comparable<Event> {
+
+        /**
+         * The task to execute.
+         */
+        private final RecurringTask task;
+
+        /**
+         * The time at which the task is due.
+         */
+        private long time;
+
+        /**
+         * The order in which the event was scheduled.
+         */
+        private long order;
+
+        /**
+         * <code>true</code> once the task will no longer be executed.
+         */
+        private boolean cancelled;
+
+        /**
+         * Creates a new event.
+         *
+         * @param task
+         *            The task to execute.
+         */
+        Event(RecurringTask task) {
+            this.task = task;
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        @Override
+        public int compareTo(Event other) {
+            int result = Long.compare(time, other.time);
+            if (result == 0) {
+                result = Long.compare(order, other.order);
+            }
+            return result;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return this == other;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(this);
+        }
+    }
+}
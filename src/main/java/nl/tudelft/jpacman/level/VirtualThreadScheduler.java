@@ -0,0 +1,210 @@
+package nl.tudelft.jpacman.level;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+
+/**
+ * Runs every scheduled task in a loop on a thread of its own, pacing it by
+ * sleeping for the delay the task asks for.
+ * <p>
+ * On a Java runtime that supports virtual threads (Java 21 and later) every
+ * task gets a virtual thread, so even tens of thousands of ghosts take only a
+ * handful of platform threads: a sleeping virtual thread does not hold on to
+ * one. Older runtimes would need a platform thread per task, so there the
+ * tasks are handed to the shared {@link TickScheduler} instead. Which of the
+ * two is used is logged when the scheduler is created.
+ *
+ * @author Jeroen Roosen
+ */
+public final class VirtualThreadScheduler implements Scheduler {
+
+    /**
+     * The logger reporting whether virtual threads are used.
+     */
+    private static final Logger LOGGER =
+        Logger.getLogger(VirtualThreadScheduler.class.getName());
+
+    /**
+     * The scheduler shared by all levels.
+     */
+    private static final VirtualThreadScheduler SHARED = new VirtualThreadScheduler();
+
+    /**
+     * The factory creating the threads of the tasks, or <code>null</code> if
+     * the tasks are handed to the fallback scheduler.
+     */
+    private final ThreadFactory threads;
+
+    /**
+     * The scheduler running the tasks when there are no virtual threads.
+     */
+    private final Scheduler fallback;
+
+    /**
+     * The number of tasks that are running.
+     */
+    private final AtomicInteger tasks = new AtomicInteger();
+
+    /**
+     * Creates a new scheduler, using virtual threads if the runtime supports
+     * them and the shared {@link TickScheduler} otherwise.
+     */
+    VirtualThreadScheduler() {
+        this(virtualThreadFactory(), TickScheduler.getShared());
+        if (threads == null) {
+            LOGGER.info("Virtual threads need Java 21 or later, "
+                + "scheduling the NPCs on the shared tick scheduler instead.");
+        } else {
+            LOGGER.info("Scheduling every NPC on a virtual thread of its own.");
+        }
+    }
+
+    /**
+     * Creates a new scheduler.
+     *
+     * @param threads
+     *            The factory creating a thread for every task, or
+     *            <code>null</code> to hand the tasks to the fallback.
+     * @param fallback
+     *            The scheduler running the tasks if there is no factory.
+     */
+    VirtualThreadScheduler(ThreadFactory threads, Scheduler fallback) {
+        assert threads != null || fallback != null;
+        this.threads = threads;
+        this.fallback = fallback;
+    }
+
+    /**
+     * @return The scheduler shared by all levels in this process.
+     */
+    public static VirtualThreadScheduler getShared() {
+        return SHARED;
+    }
+
+    /**
+     * @return <code>true</code> iff every task runs on a virtual thread of its
+     *         own, rather than on the shared {@link TickScheduler}.
+     */
+    public boolean isVirtual() {
+        return threads != null;
+    }
+
+    /**
+     * @return The number of tasks, i.e. threads, that are running. Tasks
+     *         handed to the fallback scheduler are not counted.
+     */
+    public int getTaskCount() {
+        return tasks.get();
+    }
+
+    @Override
+    public Task schedule(Level level, RecurringTask task, long delay) {
+        assert task != null;
+        if (threads == null) {
+            return fallback.schedule(level, task, delay);
+        }
+        Loop loop = new Loop(task, delay);
+        tasks.incrementAndGet();
+        Thread thread = threads.newThread(loop);
+        loop.thread = thread;
+        thread.start();
+        return loop;
+    }
+
+    /**
+     * Looks up the factory of virtual threads, which is only available from
+     * Java 21 onwards.
+     *
+     * @return The factory, or <code>null</code> if the runtime does not
+     *         support virtual threads.
+     */
+    private static ThreadFactory virtualThreadFactory() {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class)
+                .invoke(builder, "jpacman-npc-", 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+
+    /**
+     * A task running in a loop on its own thread.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class Loop implements Task, Runnable {
+
+        /**
+         * The task to execute.
+         */
+        private final RecurringTask task;
+
+        /**
+         * The delay before the first execution in milliseconds.
+         */
+        private final long delay;
+
+        /**
+         * <code>true</code> once the task will not be executed again.
+         */
+        private volatile boolean cancelled;
+
+        /**
+         * The thread running the task.
+         */
+        private volatile Thread thread;
+
+        /**
+         * Creates a new loop.
+         *
+         * @param task
+         *            The task to execute.
+         * @param delay
+         *            The delay before the first execution in milliseconds.
+         */
+        Loop(RecurringTask task, long delay) {
+            this.task = task;
+            this.delay = delay;
+        }
+
+        @Override
+        public void run() {
+            try {
+                long next = delay;
+                while (next >= 0 && !cancelled) {
+                    TimeUnit.MILLISECONDS.sleep(next);
+                    if (!cancelled) {
+                        next = task.run();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                LOGGER.log(java.util.logging.Level.WARNING, "Task " + task
+                    + " failed and will not run again", e);
+            } finally {
+                cancelled = true;
+                tasks.decrementAndGet();
+            }
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            Thread running = thread;
+            if (running != null) {
+                running.interrupt();
+            }
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled;
+        }
+    }
+}
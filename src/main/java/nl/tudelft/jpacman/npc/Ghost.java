@@ -3,13 +3,14 @@ package nl.tudelft.jpacman.npc;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.ghost.DistanceField;
 import nl.tudelft.jpacman.sprite.Sprite;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.Random;
+import java.util.SplittableRandom;
 
 /**
  * A non-player unit.
@@ -32,6 +33,17 @@ public abstract class Ghost extends Unit {
      */
     private final int intervalVariation;
 
+    /**
+     * The distances to the players on the level of this ghost, or
+     * <code>null</code> if the ghost is not part of a level.
+     */
+    private DistanceField playerDistances;
+
+    /**
+     * The source of the random timing and moves of this ghost.
+     */
+    private SplittableRandom random;
+
     /**
      * Calculates the next move for this unit and returns the direction to move
      * in.
@@ -64,6 +76,40 @@ public abstract class Ghost extends Unit {
         this.sprites = spriteMap;
         this.intervalVariation = intervalVariation;
         this.moveInterval = moveInterval;
+        this.random = new SplittableRandom();
+    }
+
+    /**
+     * Sets the source of the random timing and moves of this ghost. The
+     * source is only used from the thread moving this ghost.
+     *
+     * @param source
+     *            The random source, typically split off the source of the
+     *            level this ghost is part of.
+     */
+    public void setRandom(SplittableRandom source) {
+        assert source != null;
+        this.random = source;
+    }
+
+    /**
+     * Returns the distances to the players on the level of this ghost.
+     *
+     * @return The distance field shared by the ghosts of this kind on the
+     *         level, or <code>null</code> if the ghost is not part of a level.
+     */
+    public DistanceField getPlayerDistances() {
+        return playerDistances;
+    }
+
+    /**
+     * Sets the distances to the players this ghost uses to chase them.
+     *
+     * @param distances
+     *            The distance field of the level this ghost is part of.
+     */
+    public void setPlayerDistances(DistanceField distances) {
+        this.playerDistances = distances;
     }
 
     @Override
@@ -77,7 +123,10 @@ public abstract class Ghost extends Unit {
      * @return The suggested delay between moves in milliseconds.
      */
     public long getInterval() {
-        return this.moveInterval + new Random().nextInt(this.intervalVariation);
+        if (intervalVariation <= 0) {
+            return moveInterval;
+        }
+        return this.moveInterval + random.nextInt(this.intervalVariation);
     }
 
     /**
@@ -97,7 +146,7 @@ public abstract class Ghost extends Unit {
         if (directions.isEmpty()) {
             return null;
         }
-        int i = new Random().nextInt(directions.size());
+        int i = random.nextInt(directions.size());
         return directions.get(i);
     }
 }
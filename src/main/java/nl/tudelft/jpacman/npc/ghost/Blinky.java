@@ -84,6 +84,10 @@ public class Blinky extends Ghost {
 
         // TODO Blinky should patrol his corner every once in a while
         // TODO Implement his actual behaviour instead of simply chasing.
+        DistanceField distances = getPlayerDistances();
+        if (distances != null) {
+            return Optional.ofNullable(distances.nextHop(getSquare()));
+        }
         Unit nearest = Navigation.findNearest(Player.class, getSquare());
         if (nearest == null) {
             return Optional.empty();
@@ -91,6 +95,10 @@ public class Blinky extends Ghost {
         assert nearest.hasSquare();
         Square target = nearest.getSquare();
 
+        PathTable table = PathTable.lookup(getSquare().getBoard(), this);
+        if (table != null) {
+            return Optional.ofNullable(table.nextHop(getSquare(), target));
+        }
         List<Direction> path = Navigation.shortestPath(getSquare(), target, this);
         if (path != null && !path.isEmpty()) {
             return Optional.ofNullable(path.get(0));
@@ -0,0 +1,249 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * A breadth first search over the squares of a {@link Board} that works on
+ * the dense square indices instead of the squares themselves.
+ * <p>
+ * The queue is a ring buffer of square indices and a square counts as
+ * visited when its stamp equals the epoch of the current search, so a single
+ * instance can be reused for any number of searches without clearing or
+ * allocating anything. Neighbours are explored in the order of
+ * {@link Direction#values()}, which yields the same paths and units as a
+ * plain search over square objects would.
+ * <p>
+ * Instances are not thread safe.
+ *
+ * @author Jeroen Roosen
+ */
+public final class BreadthFirstSearch {
+
+    /**
+     * All directions, in the order in which neighbours are explored.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The ring buffer holding the indices of the squares still to visit.
+     */
+    private int[] queue;
+
+    /**
+     * The epoch in which each square was last discovered.
+     */
+    private int[] stamps;
+
+    /**
+     * The index of the square each square was discovered from.
+     */
+    private int[] parents;
+
+    /**
+     * The ordinal of the direction in which each square was discovered.
+     */
+    private byte[] directions;
+
+    /**
+     * The epoch of the current search.
+     */
+    private int epoch;
+
+    /**
+     * The position of the next square to visit in the queue.
+     */
+    private int head;
+
+    /**
+     * The number of squares in the queue.
+     */
+    private int size;
+
+    /**
+     * Creates a new search for boards of up to the given amount of squares.
+     * Larger boards will grow the internal buffers when searched.
+     *
+     * @param capacity
+     *            The expected amount of squares on the boards to search.
+     */
+    public BreadthFirstSearch(int capacity) {
+        assert capacity >= 0;
+        this.queue = new int[capacity];
+        this.stamps = new int[capacity];
+        this.parents = new int[capacity];
+        this.directions = new byte[capacity];
+    }
+
+    /**
+     * Calculates the shortest path between two squares on the same board,
+     * see {@link Navigation#shortestPath(Square, Square, Unit)}.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @param traveller
+     *            The traveller attempting to reach the destination, or
+     *            <code>null</code> to ignore terrain.
+     * @return The shortest path to the destination or <code>null</code> if no
+     *         such path could be found. When the destination is the current
+     *         square, an empty list is returned.
+     */
+    public List<Direction> shortestPath(Square from, Square to, Unit traveller) {
+        if (from.equals(to)) {
+            return new ArrayList<>();
+        }
+        Board board = begin(from);
+        int target = to.getIndex();
+        while (size > 0) {
+            Square square = board.squareAtIndex(poll());
+            for (Direction direction : DIRECTIONS) {
+                Square next = square.getSquareAt(direction);
+                if (traveller == null || next.isAccessibleTo(traveller)) {
+                    discover(next, square, direction);
+                    if (next.getIndex() == target) {
+                        return pathTo(target);
+                    }
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds the nearest unit of the given type, see
+     * {@link Navigation#findNearest(Class, Square)}.
+     *
+     * @param type
+     *            The type of unit to search for.
+     * @param currentLocation
+     *            The starting location for the search.
+     * @return The nearest unit of the given type, or <code>null</code> if no
+     *         such unit could be found.
+     */
+    public Unit findNearest(Class<? extends Unit> type, Square currentLocation) {
+        Board board = begin(currentLocation);
+        while (size > 0) {
+            Square square = board.squareAtIndex(poll());
+            Unit unit = Navigation.findUnit(type, square);
+            if (unit != null) {
+                return unit;
+            }
+            for (Direction direction : DIRECTIONS) {
+                discover(square.getSquareAt(direction), square, direction);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Starts a new search from the given square.
+     *
+     * @param origin
+     *            The square to start from.
+     * @return The board that will be searched.
+     */
+    private Board begin(Square origin) {
+        Board board = origin.getBoard();
+        assert board != null : "Can only search squares on a board.";
+        ensureCapacity(board.getSquareCount());
+        epoch++;
+        if (epoch == 0) {
+            Arrays.fill(stamps, 0);
+            epoch = 1;
+        }
+        head = 0;
+        size = 0;
+        int index = origin.getIndex();
+        stamps[index] = epoch;
+        parents[index] = -1;
+        queue[size++] = index;
+        return board;
+    }
+
+    /**
+     * Grows the buffers so that they can hold all squares of a board.
+     *
+     * @param capacity
+     *            The amount of squares on the board.
+     */
+    private void ensureCapacity(int capacity) {
+        if (stamps.length < capacity) {
+            queue = new int[capacity];
+            stamps = Arrays.copyOf(stamps, capacity);
+            parents = new int[capacity];
+            directions = new byte[capacity];
+        }
+    }
+
+    /**
+     * Marks a square as discovered and adds it to the queue, unless it was
+     * discovered before in this search.
+     *
+     * @param square
+     *            The square that was reached.
+     * @param parent
+     *            The square it was reached from.
+     * @param direction
+     *            The direction in which it was reached.
+     */
+    private void discover(Square square, Square parent, Direction direction) {
+        int index = square.getIndex();
+        if (stamps[index] == epoch) {
+            return;
+        }
+        stamps[index] = epoch;
+        parents[index] = parent.getIndex();
+        directions[index] = (byte) direction.ordinal();
+        int tail = head + size;
+        if (tail >= queue.length) {
+            tail -= queue.length;
+        }
+        queue[tail] = index;
+        size++;
+    }
+
+    /**
+     * Takes the next square to visit from the queue.
+     *
+     * @return The index of the next square to visit.
+     */
+    private int poll() {
+        int index = queue[head];
+        head++;
+        if (head == queue.length) {
+            head = 0;
+        }
+        size--;
+        return index;
+    }
+
+    /**
+     * Reconstructs the path from the origin of the search to a square that
+     * was discovered in it.
+     *
+     * @param target
+     *            The index of the square to reconstruct the path to.
+     * @return The directions leading from the origin to the target.
+     */
+    private List<Direction> pathTo(int target) {
+        int length = 0;
+        for (int index = target; parents[index] >= 0; index = parents[index]) {
+            length++;
+        }
+        Direction[] path = new Direction[length];
+        int index = target;
+        for (int i = length - 1; i >= 0; i--) {
+            path[i] = DIRECTIONS[directions[index]];
+            index = parents[index];
+        }
+        return new ArrayList<>(Arrays.asList(path));
+    }
+}
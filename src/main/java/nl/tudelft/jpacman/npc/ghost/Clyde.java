@@ -94,6 +94,11 @@ public class Clyde extends Ghost {
     public Optional<Direction> nextAiMove() {
         assert hasSquare();
 
+        DistanceField distances = getPlayerDistances();
+        if (distances != null) {
+            return keepDistance(distances.nextHop(getSquare()),
+                distances.distance(getSquare()));
+        }
         Unit nearest = Navigation.findNearest(Player.class, getSquare());
         if (nearest == null) {
             return Optional.empty();
@@ -101,14 +106,35 @@ public class Clyde extends Ghost {
         assert nearest.hasSquare();
         Square target = nearest.getSquare();
 
+        PathTable table = PathTable.lookup(getSquare().getBoard(), this);
+        if (table != null) {
+            return keepDistance(table.nextHop(getSquare(), target),
+                table.distance(getSquare(), target));
+        }
         List<Direction> path = Navigation.shortestPath(getSquare(), target, this);
         if (path != null && !path.isEmpty()) {
-            Direction direction = path.get(0);
-            if (path.size() <= SHYNESS) {
-                return Optional.ofNullable(OPPOSITES.get(direction));
-            }
-            return Optional.of(direction);
+            return keepDistance(path.get(0), path.size());
         }
         return Optional.empty();
     }
+
+    /**
+     * Decides whether to approach Pac-Man or to run away from him.
+     *
+     * @param direction
+     *            The first step towards Pac-Man, or <code>null</code> if there
+     *            is none.
+     * @param distance
+     *            The length of the shortest path to Pac-Man.
+     * @return The direction to move in, if any.
+     */
+    private Optional<Direction> keepDistance(Direction direction, int distance) {
+        if (direction == null) {
+            return Optional.empty();
+        }
+        if (distance <= SHYNESS) {
+            return Optional.ofNullable(OPPOSITES.get(direction));
+        }
+        return Optional.of(direction);
+    }
 }
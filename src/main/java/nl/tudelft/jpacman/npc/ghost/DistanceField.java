@@ -0,0 +1,259 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.util.Arrays;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Board.BoardObserver;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.npc.Ghost;
+
+/**
+ * The distance from every square of a board to the nearest player, as
+ * travelled by a certain kind of unit.
+ * <p>
+ * The field is computed by a single breadth first search starting from all
+ * squares occupied by players at once, and is only recomputed when a player
+ * enters or leaves a square. Any number of ghosts can then look up their
+ * distance to the nearest player and the first step towards it in constant
+ * time. The step is the first step of the same shortest path
+ * {@link Navigation#shortestPath(Square, Square, Unit)} would find, given
+ * that squares are linked both ways as they are on boards made by the
+ * board factory. The arrays of the field are only allocated when it is
+ * first used, so fields of large boards cost nothing until a unit asks for
+ * its distance.
+ *
+ * @author Jeroen Roosen
+ */
+public final class DistanceField implements BoardObserver {
+
+    /**
+     * The distance of squares from which no player can be reached.
+     */
+    public static final int UNREACHABLE = -1;
+
+    /**
+     * All directions, in the order in which neighbours are explored.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The board the distances are measured on.
+     */
+    private final Board board;
+
+    /**
+     * The unit whose access to squares determines the paths.
+     */
+    private final Unit traveller;
+
+    /**
+     * The number of players occupying each square, or <code>null</code> if
+     * the field has not been used yet.
+     */
+    private int[] players;
+
+    /**
+     * The distance from each square to the nearest player.
+     */
+    private int[] distances;
+
+    /**
+     * The index of the square of the player nearest to each square.
+     */
+    private int[] sources;
+
+    /**
+     * The queue of the breadth first search.
+     */
+    private int[] queue;
+
+    /**
+     * <code>true</code> iff the players moved since the distances were last
+     * computed.
+     */
+    private boolean stale;
+
+    /**
+     * Creates a new distance field for the players on the board. The field
+     * has to be registered as an observer of the board to keep track of the
+     * players moving.
+     *
+     * @param board
+     *            The board to measure distances on.
+     * @param traveller
+     *            The unit whose access to squares determines the paths.
+     */
+    public DistanceField(Board board, Unit traveller) {
+        assert board != null;
+        assert traveller != null;
+        this.board = board;
+        this.traveller = traveller;
+        this.stale = true;
+    }
+
+    /**
+     * Returns the length of the shortest path from a square to the nearest
+     * player.
+     *
+     * @param square
+     *            The square to measure from.
+     * @return The distance to the nearest player, or {@link #UNREACHABLE} if
+     *         no player can be reached.
+     */
+    public synchronized int distance(Square square) {
+        refresh();
+        return distances[square.getIndex()];
+    }
+
+    /**
+     * Returns the first step of the shortest path from a square to the
+     * nearest player.
+     *
+     * @param square
+     *            The square to move from.
+     * @return The direction to move in, or <code>null</code> if no player can
+     *         be reached or the square is occupied by a player already.
+     */
+    public synchronized Direction nextHop(Square square) {
+        refresh();
+        int distance = distances[square.getIndex()];
+        if (distance <= 0) {
+            return null;
+        }
+        for (Direction direction : DIRECTIONS) {
+            Square next = square.getSquareAt(direction);
+            if (distances[next.getIndex()] == distance - 1
+                && next.isAccessibleTo(traveller)) {
+                return direction;
+            }
+        }
+        throw new IllegalStateException("Distance field is inconsistent.");
+    }
+
+    /**
+     * Returns the player nearest to a square.
+     *
+     * @param square
+     *            The square to measure from.
+     * @return The nearest player, or <code>null</code> if no player can be
+     *         reached.
+     */
+    public synchronized Unit nearestPlayer(Square square) {
+        refresh();
+        int index = square.getIndex();
+        if (distances[index] == UNREACHABLE) {
+            return null;
+        }
+        return Navigation.findUnit(Player.class, board.squareAtIndex(sources[index]));
+    }
+
+    @Override
+    public synchronized void unitEntered(Square square, Unit unit) {
+        if (unit instanceof Player && players != null) {
+            players[square.getIndex()]++;
+            stale = true;
+        }
+    }
+
+    @Override
+    public synchronized void unitLeft(Square square, Unit unit) {
+        if (unit instanceof Player && players != null) {
+            players[square.getIndex()]--;
+            stale = true;
+        }
+    }
+
+    /**
+     * Recomputes the distances if the players moved.
+     */
+    private void refresh() {
+        if (!stale) {
+            return;
+        }
+        if (players == null) {
+            allocate();
+        }
+        Arrays.fill(distances, UNREACHABLE);
+        int tail = 0;
+        for (int i = 0; i < players.length; i++) {
+            if (players[i] > 0) {
+                distances[i] = 0;
+                sources[i] = i;
+                queue[tail++] = i;
+            }
+        }
+        for (int head = 0; head < tail; head++) {
+            tail = expand(queue[head], tail);
+        }
+        stale = false;
+    }
+
+    /**
+     * Allocates the arrays of the field and counts the players on the board,
+     * whose moves are followed from then on.
+     */
+    private void allocate() {
+        int count = board.getSquareCount();
+        distances = new int[count];
+        sources = new int[count];
+        queue = new int[count];
+        int[] occupied = new int[count];
+        for (int i = 0; i < count; i++) {
+            for (Unit unit : board.squareAtIndex(i).getOccupants()) {
+                if (unit instanceof Player) {
+                    occupied[i]++;
+                }
+            }
+        }
+        players = occupied;
+    }
+
+    /**
+     * Assigns a distance to the undiscovered neighbours of a square, if the
+     * traveller could move from them onto the square.
+     *
+     * @param index
+     *            The index of the square to expand.
+     * @param tail
+     *            The end of the queue.
+     * @return The new end of the queue.
+     */
+    private int expand(int index, int tail) {
+        Square square = board.squareAtIndex(index);
+        if (!square.isAccessibleTo(traveller)) {
+            return tail;
+        }
+        int end = tail;
+        for (Direction direction : DIRECTIONS) {
+            int next = square.getSquareAt(direction).getIndex();
+            if (distances[next] == UNREACHABLE) {
+                distances[next] = distances[index] + 1;
+                sources[next] = sources[index];
+                queue[end++] = next;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Finds the player a ghost should chase, using the distance field of the
+     * ghost if it has one and the nearest player can be reached.
+     *
+     * @param ghost
+     *            The ghost looking for a player.
+     * @return The nearest player, or <code>null</code> if there is none.
+     */
+    static Unit nearestPlayer(Ghost ghost) {
+        DistanceField field = ghost.getPlayerDistances();
+        if (field != null) {
+            Unit player = field.nearestPlayer(ghost.getSquare());
+            if (player != null) {
+                return player;
+            }
+        }
+        return Navigation.findNearest(Player.class, ghost.getSquare());
+    }
+}
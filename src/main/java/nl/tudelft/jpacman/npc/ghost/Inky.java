@@ -3,7 +3,6 @@ package nl.tudelft.jpacman.npc.ghost;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
-import nl.tudelft.jpacman.level.Player;
 import nl.tudelft.jpacman.npc.Ghost;
 import nl.tudelft.jpacman.sprite.Sprite;
 
@@ -85,7 +84,7 @@ public class Inky extends Ghost {
     public Optional<Direction> nextAiMove() {
         assert hasSquare();
         Unit blinky = Navigation.findNearest(Blinky.class, getSquare());
-        Unit player = Navigation.findNearest(Player.class, getSquare());
+        Unit player = DistanceField.nearestPlayer(this);
 
         if (blinky == null || player == null) {
             return Optional.empty();
@@ -1,9 +1,11 @@
 package nl.tudelft.jpacman.npc.ghost;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.util.List;
-import java.util.Set;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Direction;
@@ -17,6 +19,32 @@ import nl.tudelft.jpacman.board.Unit;
  */
 public final class Navigation {
 
+    /**
+     * The initial capacity of the search of each thread, enough for the
+     * default board.
+     */
+    private static final int INITIAL_CAPACITY = 1024;
+
+    /**
+     * The search used by each platform thread, which is reused between calls.
+     */
+    private static final ThreadLocal<BreadthFirstSearch> SEARCH =
+        ThreadLocal.withInitial(() -> new BreadthFirstSearch(INITIAL_CAPACITY));
+
+    /**
+     * The searches not in use by a virtual thread. Giving every one of
+     * possibly thousands of virtual threads a search of its own would waste
+     * the memory of its buffers, while only as many run at once as there are
+     * carrier threads.
+     */
+    private static final Queue<BreadthFirstSearch> POOL = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The handle of <code>Thread.isVirtual()</code>, or <code>null</code> if
+     * the runtime does not have virtual threads (before Java 21).
+     */
+    private static final MethodHandle IS_VIRTUAL = findIsVirtual();
+
     private Navigation() {
     }
 
@@ -38,36 +66,24 @@ public final class Navigation {
      * @return The shortest path to the destination or <code>null</code> if no
      *         such path could be found. When the destination is the current
      *         square, an empty list is returned.
+     * @see PathTable
      */
     public static List<Direction> shortestPath(Square from, Square to,
                                                          Unit traveller) {
-        if (from.equals(to)) {
-            return new ArrayList<>();
-        }
-
-        List<Node> targets = new ArrayList<>();
-        Set<Square> visited = new HashSet<>();
-        targets.add(new Node(null, from, null));
-        while (!targets.isEmpty()) {
-            Node node = targets.remove(0);
-            Square square = node.getSquare();
-            if (square.equals(to)) {
-                return node.getPath();
+        if (traveller != null && from.getBoard() != null) {
+            PathTable table = PathTable.lookup(from.getBoard(), traveller);
+            if (table != null) {
+                return table.shortestPath(from, to);
             }
-            visited.add(square);
-            addNewTargets(traveller, targets, visited, node, square);
         }
-        return null;
-    }
-
-    private static void addNewTargets(Unit traveller, List<Node> targets,
-                                      Set<Square> visited, Node node, Square square) {
-        for (Direction direction : Direction.values()) {
-            Square target = square.getSquareAt(direction);
-            if (!visited.contains(target)
-                && (traveller == null || target.isAccessibleTo(traveller))) {
-                targets.add(new Node(direction, target, node));
-            }
+        if (!onVirtualThread()) {
+            return SEARCH.get().shortestPath(from, to, traveller);
+        }
+        BreadthFirstSearch search = borrow();
+        try {
+            return search.shortestPath(from, to, traveller);
+        } finally {
+            POOL.offer(search);
         }
     }
 
@@ -85,27 +101,60 @@ public final class Navigation {
      */
     public static Unit findNearest(Class<? extends Unit> type,
                                              Square currentLocation) {
-        List<Square> toDo = new ArrayList<>();
-        Set<Square> visited = new HashSet<>();
+        if (!onVirtualThread()) {
+            return SEARCH.get().findNearest(type, currentLocation);
+        }
+        BreadthFirstSearch search = borrow();
+        try {
+            return search.findNearest(type, currentLocation);
+        } finally {
+            POOL.offer(search);
+        }
+    }
 
-        toDo.add(currentLocation);
+    /**
+     * @return A search from the pool, or a new one if all are in use.
+     */
+    private static BreadthFirstSearch borrow() {
+        BreadthFirstSearch search = POOL.poll();
+        if (search == null) {
+            search = new BreadthFirstSearch(INITIAL_CAPACITY);
+        }
+        return search;
+    }
 
-        while (!toDo.isEmpty()) {
-            Square square = toDo.remove(0);
-            Unit unit = findUnit(type, square);
-            if (unit != null) {
-                assert unit.hasSquare();
-                return unit;
-            }
-            visited.add(square);
-            for (Direction direction : Direction.values()) {
-                Square newTarget = square.getSquareAt(direction);
-                if (!visited.contains(newTarget) && !toDo.contains(newTarget)) {
-                    toDo.add(newTarget);
-                }
-            }
+    /**
+     * @return The number of searches in the pool of the virtual threads.
+     */
+    static int getPooledSearchCount() {
+        return POOL.size();
+    }
+
+    /**
+     * @return <code>true</code> iff the current thread is a virtual thread.
+     */
+    private static boolean onVirtualThread() {
+        if (IS_VIRTUAL == null) {
+            return false;
+        }
+        try {
+            return (boolean) IS_VIRTUAL.invokeExact(Thread.currentThread());
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return The handle of <code>Thread.isVirtual()</code>, or
+     *         <code>null</code> if the runtime does not have virtual threads.
+     */
+    private static MethodHandle findIsVirtual() {
+        try {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual",
+                MethodType.methodType(boolean.class));
+        } catch (ReflectiveOperationException e) {
+            return null;
         }
-        return null;
     }
 
     /**
@@ -154,83 +203,4 @@ public final class Navigation {
         }
         return null;
     }
-
-    /**
-     * Helper class to keep track of the path.
-     *
-     * @author Jeroen Roosen
-     */
-    private static final class Node {
-
-        /**
-         * The direction for this node, which is <code>null</code> for the root
-         * node.
-         */
-        private final Direction direction;
-
-        /**
-         * The parent node, which is <code>null</code> for the root node.
-         */
-        private final Node parent;
-
-        /**
-         * The square associated with this node.
-         */
-        private final Square square;
-
-        /**
-         * Creates a new node.
-         *
-         * @param direction
-         *            The direction, which is <code>null</code> for the root
-         *            node.
-         * @param square
-         *            The square.
-         * @param parent
-         *            The parent node, which is <code>null</code> for the root
-         *            node.
-         */
-        Node(Direction direction, Square square, Node parent) {
-            this.direction = direction;
-            this.square = square;
-            this.parent = parent;
-        }
-
-        /**
-         * @return The direction for this node, or <code>null</code> if this
-         *         node is a root node.
-         */
-        private Direction getDirection() {
-            return direction;
-        }
-
-        /**
-         * @return The square for this node.
-         */
-        private Square getSquare() {
-            return square;
-        }
-
-        /**
-         * @return The parent node, or <code>null</code> if this node is a root
-         *         node.
-         */
-        private Node getParent() {
-            return parent;
-        }
-
-        /**
-         * Returns the list of values from the root of the tree to this node.
-         *
-         * @return The list of values from the root of the tree to this node.
-         */
-        private List<Direction> getPath() {
-            if (parent == null) {
-                return new ArrayList<>();
-            }
-            List<Direction> path = parent.getPath();
-            path.add(getDirection());
-            return path;
-        }
-    }
 }
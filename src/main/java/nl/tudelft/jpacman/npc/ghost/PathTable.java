@@ -0,0 +1,693 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.lang.ref.WeakReference;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+
+/**
+ * The precomputed shortest paths between all pairs of squares on a board, as
+ * travelled by a certain kind of unit.
+ * <p>
+ * The walls of a board never change once it has been created, so the
+ * shortest paths between its squares do not change either. For every pair of
+ * squares the table stores the length of the shortest path and its first
+ * step, which is the same step {@link BreadthFirstSearch} would take. The
+ * rows of the table are computed in parallel, one breadth first search per
+ * destination.
+ * <p>
+ * Tables are registered per board and kind of traveller, after which
+ * {@link Navigation#shortestPath(Square, Square, Unit)} uses them instead of
+ * searching. A table only depends on the layout of a board, i.e. the
+ * neighbours of its squares and which of them the traveller may occupy, so
+ * the boards of levels created from the same map share a single table,
+ * which is only computed for the first of them. Boards for which the table
+ * would have more than {@link #MAX_ENTRIES} entries are not precomputed and
+ * keep being searched.
+ *
+ * @author Jeroen Roosen
+ */
+public final class PathTable {
+
+    /**
+     * The maximum number of entries, i.e. pairs of squares, of a table, which
+     * takes 12 MB and allows for boards of 2048 squares.
+     */
+    public static final int MAX_ENTRIES = 4_194_304;
+
+    /**
+     * The number of destinations computed by a single task.
+     */
+    private static final int ROWS_PER_TASK = 16;
+
+    /**
+     * The value marking a pair of squares without a path between them.
+     */
+    private static final byte NONE = -1;
+
+    /**
+     * All directions, in the order in which neighbours are explored.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The registered tables, per board and kind of traveller. The boards are
+     * only weakly referenced and the tables do not refer to their board, so
+     * boards that are no longer used can still be collected. The tables of a
+     * board are never changed once they are put in, but replaced, so looking
+     * them up takes no lock.
+     */
+    private static final ConcurrentMap<BoardKey, Map<Class<?>, PathTable>> TABLES =
+        new ConcurrentHashMap<>();
+
+    /**
+     * The computed tables, per layout. A table is kept as long as memory
+     * allows, also when no board of its layout is left, so that the boards
+     * of a level that is reset or created again get the same table. Only
+     * used while holding its lock, so that boards of the same layout that
+     * are precomputed at the same time wait for a single table.
+     */
+    private static final Map<Layout, Reference<PathTable>> LAYOUTS = new HashMap<>();
+
+    /**
+     * The keys of the boards that have been collected.
+     */
+    private static final ReferenceQueue<Board> COLLECTED = new ReferenceQueue<>();
+
+    /**
+     * The number of squares on the board.
+     */
+    private final int size;
+
+    /**
+     * The length of the shortest path from every square to every square,
+     * stored at <code>to * size + from</code>.
+     */
+    private final short[] distances;
+
+    /**
+     * The ordinal of the first step from every square to every square,
+     * stored like the distances.
+     */
+    private final byte[] steps;
+
+    /**
+     * Creates a new, empty table.
+     *
+     * @param size
+     *            The number of squares on the board.
+     */
+    private PathTable(int size) {
+        this.size = size;
+        this.distances = new short[size * size];
+        this.steps = new byte[size * size];
+    }
+
+    /**
+     * Registers the table for a board and kind of traveller, so that
+     * {@link Navigation} will use it from now on. The table is only computed
+     * if none was computed for a board of the same layout before.
+     *
+     * @param board
+     *            The board to compute the paths on.
+     * @param traveller
+     *            A unit of the kind to compute the paths for.
+     * @return The registered table, or <code>null</code> if the board is too
+     *         large to precompute.
+     */
+    public static PathTable precompute(Board board, Unit traveller) {
+        if (!fits(board, MAX_ENTRIES)) {
+            return null;
+        }
+        PathTable table = tableOf(new Layout(board, traveller));
+        register(board, traveller.getClass(), table);
+        return table;
+    }
+
+    /**
+     * @param layout
+     *            The layout of a board.
+     * @return The table computed for the layout before, or a new one.
+     */
+    private static PathTable tableOf(Layout layout) {
+        synchronized (LAYOUTS) {
+            LAYOUTS.values().removeIf(known -> known.get() == null);
+            Reference<PathTable> known = LAYOUTS.get(layout);
+            PathTable table = null;
+            if (known != null) {
+                table = known.get();
+            }
+            if (table == null) {
+                table = layout.build();
+                LAYOUTS.put(layout, new SoftReference<>(table));
+            }
+            return table;
+        }
+    }
+
+    /**
+     * Registers a table that was computed before, for instance one read
+     * from a file, so that {@link Navigation} will use it from now on.
+     *
+     * @param board
+     *            The board the table was computed for.
+     * @param kind
+     *            The kind of traveller the table was computed for.
+     * @param table
+     *            The table to register.
+     */
+    public static void register(Board board, Class<? extends Unit> kind, PathTable table) {
+        assert table.size == board.getSquareCount();
+        Reference<? extends Board> collected = COLLECTED.poll();
+        while (collected != null) {
+            TABLES.remove(collected);
+            collected = COLLECTED.poll();
+        }
+        TABLES.compute(new WeakBoardKey(board, COLLECTED), (key, tables) -> {
+            Map<Class<?>, PathTable> copy = new HashMap<>();
+            if (tables != null) {
+                copy.putAll(tables);
+            }
+            copy.put(kind, table);
+            return Collections.unmodifiableMap(copy);
+        });
+    }
+
+    /**
+     * Reads a table written by {@link #writeTo(ByteBuffer)}. The buffer must
+     * hold at least {@link #byteSize(int)} bytes.
+     *
+     * @param source
+     *            The buffer to read the table from.
+     * @param size
+     *            The number of squares on the board.
+     * @return The table.
+     * @throws PacmanConfigurationException
+     *             when the table holds a step that is not a direction.
+     */
+    public static PathTable readFrom(ByteBuffer source, int size) {
+        PathTable table = new PathTable(size);
+        source.asShortBuffer().get(table.distances);
+        source.position(source.position() + table.distances.length * Short.BYTES);
+        source.get(table.steps);
+        for (byte step : table.steps) {
+            if (step < NONE || step >= DIRECTIONS.length) {
+                throw new PacmanConfigurationException("Invalid step in path table: " + step);
+            }
+        }
+        return table;
+    }
+
+    /**
+     * Writes the table, the distances followed by the first steps.
+     *
+     * @param target
+     *            The buffer to write the table to.
+     */
+    public void writeTo(ByteBuffer target) {
+        target.asShortBuffer().put(distances);
+        target.position(target.position() + distances.length * Short.BYTES);
+        target.put(steps);
+    }
+
+    /**
+     * @return The number of bytes {@link #writeTo(ByteBuffer)} writes.
+     */
+    public int byteSize() {
+        return (int) byteSize(size);
+    }
+
+    /**
+     * @param size
+     *            The number of squares on a board.
+     * @return The number of bytes {@link #writeTo(ByteBuffer)} writes for a
+     *         table of the board.
+     */
+    public static long byteSize(int size) {
+        return (long) size * size * (Short.BYTES + Byte.BYTES);
+    }
+
+    /**
+     * Looks up the registered table for a board and traveller.
+     *
+     * @param board
+     *            The board to travel.
+     * @param traveller
+     *            The unit travelling the board.
+     * @return The table for the board and kind of traveller, or
+     *         <code>null</code> if none was precomputed.
+     */
+    public static PathTable lookup(Board board, Unit traveller) {
+        if (TABLES.isEmpty()) {
+            return null;
+        }
+        Map<Class<?>, PathTable> tables = TABLES.get(new LookupKey(board));
+        if (tables == null) {
+            return null;
+        }
+        return tables.get(traveller.getClass());
+    }
+
+    /**
+     * Computes the table for a board, unless it is too large.
+     *
+     * @param board
+     *            The board to compute the paths on.
+     * @param traveller
+     *            A unit of the kind to compute the paths for.
+     * @param maxEntries
+     *            The maximum number of entries of the table.
+     * @return The table, or <code>null</code> if the board is too large.
+     */
+    static PathTable build(Board board, Unit traveller, int maxEntries) {
+        if (!fits(board, maxEntries)) {
+            return null;
+        }
+        return new Layout(board, traveller).build();
+    }
+
+    /**
+     * @param board
+     *            A board.
+     * @param maxEntries
+     *            The maximum number of entries of a table.
+     * @return <code>true</code> iff the table of the board has no more
+     *         entries than the maximum.
+     */
+    private static boolean fits(Board board, int maxEntries) {
+        long size = board.getSquareCount();
+        return size * size <= maxEntries;
+    }
+
+    /**
+     * Returns the length of the shortest path between two squares.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @return The length of the shortest path, or <code>-1</code> if there
+     *         is none.
+     */
+    public int distance(Square from, Square to) {
+        return distances[entry(from, to)];
+    }
+
+    /**
+     * Returns the first step of the shortest path between two squares.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @return The direction to move in, or <code>null</code> if there is no
+     *         path or both squares are the same.
+     */
+    public Direction nextHop(Square from, Square to) {
+        byte step = steps[entry(from, to)];
+        if (step == NONE) {
+            return null;
+        }
+        return DIRECTIONS[step];
+    }
+
+    /**
+     * Returns the shortest path between two squares, by following the first
+     * steps from square to square.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @return The shortest path to the destination or <code>null</code> if no
+     *         such path could be found. When the destination is the current
+     *         square, an empty list is returned.
+     */
+    public List<Direction> shortestPath(Square from, Square to) {
+        int distance = distance(from, to);
+        if (distance < 0) {
+            return null;
+        }
+        List<Direction> path = new ArrayList<>(distance);
+        Square square = from;
+        for (int i = 0; i < distance; i++) {
+            Direction direction = nextHop(square, to);
+            path.add(direction);
+            square = square.getSquareAt(direction);
+        }
+        return path;
+    }
+
+    /**
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @return The position of the pair of squares in the table.
+     */
+    private int entry(Square from, Square to) {
+        assert from.getIndex() < size && to.getIndex() < size;
+        return to.getIndex() * size + from.getIndex();
+    }
+
+    /**
+     * The layout of a board as travelled by a certain kind of unit, which is
+     * all a table depends on. Layouts are equal when their boards have the
+     * same squares, connected in the same way, that the traveller may occupy.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Layout {
+
+        /**
+         * The index of the neighbour of every square in every direction.
+         */
+        private final int[] neighbours;
+
+        /**
+         * Whether the traveller may occupy every square.
+         */
+        private final boolean[] accessible;
+
+        /**
+         * The hash code of the layout.
+         */
+        private final int hash;
+
+        /**
+         * Works out the layout of a board.
+         *
+         * @param board
+         *            The board.
+         * @param traveller
+         *            A unit of the kind travelling the board.
+         */
+        Layout(Board board, Unit traveller) {
+            assert board != null;
+            assert traveller != null;
+            int size = board.getSquareCount();
+            this.neighbours = new int[size * DIRECTIONS.length];
+            this.accessible = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                Square square = board.squareAtIndex(i);
+                accessible[i] = square.isAccessibleTo(traveller);
+                for (Direction direction : DIRECTIONS) {
+                    neighbours[i * DIRECTIONS.length + direction.ordinal()] =
+                        square.getSquareAt(direction).getIndex();
+                }
+            }
+            this.hash = Arrays.hashCode(neighbours) ^ Arrays.hashCode(accessible);
+        }
+
+        /**
+         * @return A new table of the paths on this layout.
+         */
+        PathTable build() {
+            PathTable table = new PathTable(accessible.length);
+            ForkJoinPool.commonPool().invoke(
+                table.new RowTask(neighbours, accessible, 0, accessible.length));
+            return table;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            if (!(other instanceof Layout)) {
+                return false;
+            }
+            Layout layout = (Layout) other;
+            return hash == layout.hash && Arrays.equals(accessible, layout.accessible)
+                && Arrays.equals(neighbours, layout.neighbours);
+        }
+    }
+
+    /**
+     * Identifies a board in the registered tables by identity.
+     *
+     * @author Jeroen Roosen
+     */
+    private interface BoardKey {
+
+        /**
+         * @return The board, or <code>null</code> if it has been collected.
+         */
+        Board getBoard();
+
+        /**
+         * @param key
+         *            A key.
+         * @param other
+         *            The object to compare it with.
+         * @return <code>true</code> iff the other object is a key of the same
+         *         board, which has not been collected.
+         */
+        static boolean sameBoard(BoardKey key, Object other) {
+            if (key == other) {
+                return true;
+            }
+            if (!(other instanceof BoardKey)) {
+                return false;
+            }
+            Board board = key.getBoard();
+            return board != null && board == ((BoardKey) other).getBoard();
+        }
+    }
+
+    /**
+     * The key to look up the tables of a board with.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class LookupKey implements BoardKey {
+
+        /**
+         * The board to look up.
+         */
+        private final Board board;
+
+        /**
+         * Creates a new key.
+         *
+         * @param board
+         *            The board to look up.
+         */
+        LookupKey(Board board) {
+            this.board = board;
+        }
+
+        @Override
+        public Board getBoard() {
+            return board;
+        }
+
+        @Override
+        public int hashCode() {
+            return System.identityHashCode(board);
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return BoardKey.sameBoard(this, other);
+        }
+    }
+
+    /**
+     * The key under which the tables of a board are registered, which does
+     * not keep the board from being collected.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class WeakBoardKey extends WeakReference<Board>
+        implements BoardKey {
+
+        /**
+         * The identity hash code of the board.
+         */
+        private final int hash;
+
+        /**
+         * Creates a new key.
+         *
+         * @param board
+         *            The board.
+         * @param queue
+         *            The queue to enqueue the key on once the board has been
+         *            collected.
+         */
+        WeakBoardKey(Board board, ReferenceQueue<Board> queue) {
+            super(board, queue);
+            this.hash = System.identityHashCode(board);
+        }
+
+        @Override
+        public Board getBoard() {
+            return get();
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return BoardKey.sameBoard(this, other);
+        }
+    }
+
+    /**
+     * Computes the rows of the table for a range of destinations, splitting
+     * the range over several tasks when it is large.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class RowTask extends RecursiveAction {
+
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The index of the neighbour of every square in every direction.
+         */
+        private final int[] neighbours;
+
+        /**
+         * Whether the traveller may occupy every square.
+         */
+        private final boolean[] accessible;
+
+        /**
+         * The first destination to compute.
+         */
+        private final int start;
+
+        /**
+         * The destination after the last one to compute.
+         */
+        private final int end;
+
+        /**
+         * Creates a new task.
+         *
+         * @param neighbours
+         *            The index of the neighbour of every square in every
+         *            direction.
+         * @param accessible
+         *            Whether the traveller may occupy every square.
+         * @param start
+         *            The first destination to compute.
+         * @param end
+         *            The destination after the last one to compute.
+         */
+        RowTask(int[] neighbours, boolean[] accessible, int start, int end) {
+            this.neighbours = neighbours;
+            this.accessible = accessible;
+            this.start = start;
+            this.end = end;
+        }
+
+        @Override
+        protected void compute() {
+            if (end - start > ROWS_PER_TASK) {
+                int middle = (start + end) >>> 1;
+                invokeAll(new RowTask(neighbours, accessible, start, middle),
+                    new RowTask(neighbours, accessible, middle, end));
+                return;
+            }
+            int[] queue = new int[size];
+            for (int to = start; to < end; to++) {
+                computeDistances(to, queue);
+                computeSteps(to);
+            }
+        }
+
+        /**
+         * Computes the distances from all squares to a destination, by
+         * searching backwards from the destination.
+         *
+         * @param to
+         *            The destination.
+         * @param queue
+         *            The queue to use for the search.
+         */
+        private void computeDistances(int to, int[] queue) {
+            int row = to * size;
+            Arrays.fill(distances, row, row + size, (short) -1);
+            distances[row + to] = 0;
+            queue[0] = to;
+            int tail = 1;
+            for (int head = 0; head < tail; head++) {
+                int square = queue[head];
+                if (!accessible[square]) {
+                    continue;
+                }
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    int next = neighbours[square * DIRECTIONS.length + d];
+                    if (distances[row + next] < 0) {
+                        distances[row + next] = (short) (distances[row + square] + 1);
+                        queue[tail++] = next;
+                    }
+                }
+            }
+        }
+
+        /**
+         * Computes the first steps from all squares to a destination, given
+         * the distances towards it.
+         *
+         * @param to
+         *            The destination.
+         */
+        private void computeSteps(int to) {
+            int row = to * size;
+            for (int from = 0; from < size; from++) {
+                steps[row + from] = firstStep(row, from);
+            }
+        }
+
+        /**
+         * Determines the first step from a square towards the destination of
+         * a row, which is the first direction leading to an accessible square
+         * that is one step closer.
+         *
+         * @param row
+         *            The start of the row of the destination.
+         * @param from
+         *            The square to move from.
+         * @return The ordinal of the direction to move in, or {@link #NONE}.
+         */
+        private byte firstStep(int row, int from) {
+            int distance = distances[row + from];
+            if (distance <= 0) {
+                return NONE;
+            }
+            for (int d = 0; d < DIRECTIONS.length; d++) {
+                int next = neighbours[from * DIRECTIONS.length + d];
+                if (accessible[next] && distances[row + next] == distance - 1) {
+                    return (byte) d;
+                }
+            }
+            throw new IllegalStateException("Path table is inconsistent.");
+        }
+    }
+}
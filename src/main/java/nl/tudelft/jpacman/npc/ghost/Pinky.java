@@ -7,7 +7,6 @@ import java.util.Optional;
 import nl.tudelft.jpacman.board.Direction;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
-import nl.tudelft.jpacman.level.Player;
 import nl.tudelft.jpacman.npc.Ghost;
 import nl.tudelft.jpacman.sprite.Sprite;
 
@@ -91,13 +90,17 @@ public class Pinky extends Ghost {
     public Optional<Direction> nextAiMove() {
         assert hasSquare();
 
-        Unit player = Navigation.findNearest(Player.class, getSquare());
+        Unit player = DistanceField.nearestPlayer(this);
         if (player == null) {
             return Optional.empty();
         }
         assert player.hasSquare();
         Square destination = player.squaresAheadOf(SQUARES_AHEAD);
 
+        PathTable table = PathTable.lookup(getSquare().getBoard(), this);
+        if (table != null) {
+            return Optional.ofNullable(table.nextHop(getSquare(), destination));
+        }
         List<Direction> path = Navigation.shortestPath(getSquare(), destination, this);
         if (path != null && !path.isEmpty()) {
             return Optional.ofNullable(path.get(0));
@@ -3,8 +3,8 @@ package nl.tudelft.jpacman.sprite;
 import java.awt.Graphics;
 
 /**
- * Animated sprite, renders the frame depending on the time of requesting the
- * draw.
+ * Animated sprite, renders the frame depending on the time of the
+ * {@link AnimationClock} when requesting the draw.
  *
  * @author Jeroen Roosen 
  */
@@ -16,7 +16,8 @@ public class AnimatedSprite implements Sprite {
     private static final Sprite END_OF_LOOP = new EmptySprite();
 
     /**
-     * The animation itself, in frames.
+     * The animation itself, in frames. The frames may be shared with other
+     * animations, since they are never changed.
      */
     private final Sprite[] animationFrames;
 
@@ -41,9 +42,10 @@ public class AnimatedSprite implements Sprite {
     private boolean animating;
 
     /**
-     * The {@link System#currentTimeMillis()} stamp of the last update.
+     * The time on the {@link AnimationClock} at which the current frame
+     * started.
      */
-    private long lastUpdate;
+    private long frameStart;
 
     /**
      * Creates a new animating sprite that will change frames every interval. By
@@ -81,7 +83,7 @@ public class AnimatedSprite implements Sprite {
         this.animating = isAnimating;
 
         this.current = 0;
-        this.lastUpdate = System.currentTimeMillis();
+        this.frameStart = AnimationClock.global().now();
     }
 
     /**
@@ -104,16 +106,35 @@ public class AnimatedSprite implements Sprite {
      *            to stop animating this sprite.
      */
     public void setAnimating(boolean isAnimating) {
+        if (isAnimating && !animating) {
+            frameStart = AnimationClock.global().now();
+        }
         this.animating = isAnimating;
     }
 
+    /**
+     * @param index
+     *            The index of the frame.
+     * @return The frame with the given index.
+     */
+    Sprite getFrame(int index) {
+        return animationFrames[index];
+    }
+
+    /**
+     * @return <code>true</code> iff this sprite is currently animating.
+     */
+    public boolean isAnimating() {
+        return animating;
+    }
+
     /**
      * (Re)starts the current animation.
      */
     public void restart() {
         this.current = 0;
-        this.lastUpdate = System.currentTimeMillis();
-        setAnimating(true);
+        this.frameStart = AnimationClock.global().now();
+        this.animating = true;
     }
 
     @Override
@@ -129,22 +150,27 @@ public class AnimatedSprite implements Sprite {
     }
 
     /**
-     * Updates the current frame index depending on the current system time.
+     * Updates the current frame index depending on the time of the
+     * {@link AnimationClock}. The number of frames that passed since the
+     * current frame started is computed at once, so catching up after a
+     * long pause takes no longer than moving on to the next frame.
      */
     private void update() {
-        long now = System.currentTimeMillis();
-        if (animating) {
-            while (lastUpdate < now) {
-                lastUpdate += animationDelay;
-                current++;
-                if (looping) {
-                    current %= animationFrames.length;
-                } else if (current == animationFrames.length) {
-                    animating = false;
-                }
-            }
+        long now = AnimationClock.global().now();
+        if (!animating || animationDelay <= 0) {
+            frameStart = now;
+            return;
+        }
+        long passed = Math.max(0L, now - frameStart) / animationDelay;
+        if (passed == 0) {
+            return;
+        }
+        frameStart += passed * animationDelay;
+        if (looping) {
+            current = (int) ((current + passed) % animationFrames.length);
         } else {
-            lastUpdate = now;
+            current = (int) Math.min(animationFrames.length, current + passed);
+            animating = current < animationFrames.length;
         }
     }
 
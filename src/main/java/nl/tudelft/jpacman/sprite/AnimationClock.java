@@ -0,0 +1,80 @@
+package nl.tudelft.jpacman.sprite;
+
+import java.util.function.LongSupplier;
+
+/**
+ * The clock driving all {@link AnimatedSprite}s. The renderer samples the
+ * time once per frame by calling {@link #tick()}, after which every
+ * animation drawn in that frame uses the same time.
+ * <p>
+ * By default the clock samples the system time. Any other source of time can
+ * be used instead, such as a virtual clock, which makes animations
+ * deterministic in headless and test runs.
+ *
+ * @author Jeroen Roosen
+ */
+public final class AnimationClock {
+
+    /**
+     * The clock used by all animations.
+     */
+    private static volatile AnimationClock global =
+        new AnimationClock(System::currentTimeMillis);
+
+    /**
+     * The source of the time in milliseconds.
+     */
+    private final LongSupplier source;
+
+    /**
+     * The time sampled by the last tick.
+     */
+    private volatile long time;
+
+    /**
+     * Creates a new clock, sampling the time right away.
+     *
+     * @param source
+     *            The source of the time in milliseconds.
+     */
+    public AnimationClock(LongSupplier source) {
+        assert source != null;
+        this.source = source;
+        this.time = source.getAsLong();
+    }
+
+    /**
+     * @return The clock used by all animations.
+     */
+    public static AnimationClock global() {
+        return global;
+    }
+
+    /**
+     * Replaces the clock used by all animations.
+     *
+     * @param clock
+     *            The new clock.
+     */
+    public static void setGlobal(AnimationClock clock) {
+        assert clock != null;
+        global = clock;
+    }
+
+    /**
+     * Samples the time from the source, to be used until the next tick.
+     *
+     * @return The new time in milliseconds.
+     */
+    public long tick() {
+        time = source.getAsLong();
+        return time;
+    }
+
+    /**
+     * @return The time sampled by the last tick in milliseconds.
+     */
+    public long now() {
+        return time;
+    }
+}
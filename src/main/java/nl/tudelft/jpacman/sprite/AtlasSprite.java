@@ -0,0 +1,73 @@
+package nl.tudelft.jpacman.sprite;
+
+import java.awt.Graphics;
+import java.awt.Rectangle;
+
+/**
+ * A sprite that is a view of a part of a {@link TextureAtlas}. Splitting it
+ * creates another view of the same atlas rather than a new image.
+ *
+ * @author Jeroen Roosen
+ */
+final class AtlasSprite implements Sprite {
+
+    /**
+     * The atlas containing the image of this sprite.
+     */
+    private final TextureAtlas atlas;
+
+    /**
+     * The part of the atlas showing this sprite.
+     */
+    private final Rectangle bounds;
+
+    /**
+     * Creates a new view of a part of an atlas.
+     *
+     * @param atlas
+     *            The atlas containing the image of the sprite.
+     * @param bounds
+     *            The part of the atlas showing the sprite.
+     */
+    AtlasSprite(TextureAtlas atlas, Rectangle bounds) {
+        assert atlas != null;
+        assert bounds != null;
+        this.atlas = atlas;
+        this.bounds = new Rectangle(bounds);
+    }
+
+    @Override
+    public void draw(Graphics graphics, int x, int y, int width, int height) {
+        atlas.draw(graphics, bounds, x, y, width, height);
+    }
+
+    @Override
+    public Sprite split(int x, int y, int width, int height) {
+        if (withinSprite(x, y) && withinSprite(x + width - 1, y + height - 1)) {
+            return new AtlasSprite(atlas, new Rectangle(bounds.x + x, bounds.y + y,
+                width, height));
+        }
+        return new EmptySprite();
+    }
+
+    /**
+     * @param x
+     *            The x position to test.
+     * @param y
+     *            The y position to test.
+     * @return <code>true</code> iff the position lies within this sprite.
+     */
+    private boolean withinSprite(int x, int y) {
+        return x >= 0 && x < bounds.width && y >= 0 && y < bounds.height;
+    }
+
+    @Override
+    public int getWidth() {
+        return bounds.width;
+    }
+
+    @Override
+    public int getHeight() {
+        return bounds.height;
+    }
+}
@@ -0,0 +1,33 @@
+package nl.tudelft.jpacman.sprite;
+
+/**
+ * Sprite store for running the game without a display. It provides the same
+ * sprites as {@link PacManSprites}, but none of them load or draw an image.
+ *
+ * @author Jeroen Roosen
+ */
+public class HeadlessSprites extends PacManSprites {
+
+    /**
+     * The sprite returned for every resource.
+     */
+    private static final Sprite EMPTY = new EmptySprite();
+
+    /**
+     * Does nothing, as there are no sprites to load.
+     */
+    @Override
+    public void preload() {
+        // nothing to load.
+    }
+
+    /**
+     * Returns an empty sprite instead of loading the resource.
+     *
+     * {@inheritDoc}
+     */
+    @Override
+    public Sprite loadSprite(String resource) {
+        return EMPTY;
+    }
+}
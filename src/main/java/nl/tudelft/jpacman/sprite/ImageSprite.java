@@ -1,6 +1,7 @@
 package nl.tudelft.jpacman.sprite;
 
 import java.awt.Graphics;
+import java.awt.Graphics2D;
 import java.awt.GraphicsConfiguration;
 import java.awt.GraphicsEnvironment;
 import java.awt.Image;
@@ -19,6 +20,11 @@ public class ImageSprite implements Sprite {
      */
     private final Image image;
 
+    /**
+     * Copies of the image scaled to the sizes it was recently drawn at.
+     */
+    private final ScaledImageCache scaled;
+
     /**
      * Creates a new sprite from an image.
      *
@@ -27,12 +33,28 @@ public class ImageSprite implements Sprite {
      */
     public ImageSprite(Image img) {
         this.image = img;
+        this.scaled = new ScaledImageCache(img, ScaledImageCache.DEFAULT_CAPACITY);
     }
 
+    /**
+     * Draws the image. When it has to be scaled, a scaled copy is drawn
+     * instead, so that the image is only scaled once for every size it is
+     * drawn at.
+     */
     @Override
     public void draw(Graphics graphics, int x, int y, int width, int height) {
-        graphics.drawImage(image, x, y, x + width, y + height, 0, 0,
-            image.getWidth(null), image.getHeight(null), null);
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (width == image.getWidth(null) && height == image.getHeight(null)) {
+            graphics.drawImage(image, x, y, null);
+            return;
+        }
+        GraphicsConfiguration configuration = null;
+        if (graphics instanceof Graphics2D) {
+            configuration = ((Graphics2D) graphics).getDeviceConfiguration();
+        }
+        graphics.drawImage(scaled.get(width, height, configuration), x, y, null);
     }
 
     @Override
@@ -53,7 +75,9 @@ public class ImageSprite implements Sprite {
 
     /**
      * Creates a new, empty image of the given width and height. Its
-     * transparency will be a bitmask, so no try ARGB image.
+     * transparency will be a bitmask, so no try ARGB image. Without a display
+     * there is no screen to be compatible with, in which case a plain ARGB
+     * image is created.
      *
      * @param width
      *            The width of the new image.
@@ -62,9 +86,10 @@ public class ImageSprite implements Sprite {
      * @return The new, empty image.
      */
     private BufferedImage newImage(int width, int height) {
-        GraphicsConfiguration gc = GraphicsEnvironment
-            .getLocalGraphicsEnvironment().getDefaultScreenDevice()
-            .getDefaultConfiguration();
+        GraphicsConfiguration gc = Screen.CONFIGURATION;
+        if (gc == null) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        }
         return gc.createCompatibleImage(width, height, Transparency.BITMASK);
     }
 
@@ -78,4 +103,33 @@ public class ImageSprite implements Sprite {
         return image.getHeight(null);
     }
 
+    /**
+     * The configuration of the default screen, looked up once when it is
+     * first needed.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Screen {
+
+        /**
+         * The configuration of the default screen, or <code>null</code> when
+         * running without a display.
+         */
+        private static final GraphicsConfiguration CONFIGURATION = lookup();
+
+        private Screen() {
+        }
+
+        /**
+         * @return The configuration of the default screen, or
+         *         <code>null</code> when running without a display.
+         */
+        private static GraphicsConfiguration lookup() {
+            if (GraphicsEnvironment.isHeadless()) {
+                return null;
+            }
+            return GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDefaultConfiguration();
+        }
+    }
 }
@@ -1,7 +1,10 @@
 package nl.tudelft.jpacman.sprite;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 import nl.tudelft.jpacman.PacmanConfigurationException;
@@ -51,6 +54,64 @@ public class PacManSprites extends SpriteStore {
      */
     private static final int ANIMATION_DELAY = 200;
 
+    /**
+     * The frames of the animations, by resource path. The frames do not
+     * change, so they are split once and shared by all animations, which
+     * only keep track of their own progress.
+     */
+    private final Map<String, Sprite[][]> frames = new HashMap<>();
+
+    /**
+     * Creates a new store that loads each sprite from its own image.
+     */
+    public PacManSprites() {
+        super();
+    }
+
+    /**
+     * Creates a new store.
+     *
+     * @param useAtlas
+     *            <code>true</code> to pack all sprites into a single
+     *            {@link TextureAtlas} right away, see
+     *            {@link #packAtlas(String...)}.
+     */
+    public PacManSprites(boolean useAtlas) {
+        super();
+        if (useAtlas) {
+            try {
+                packAtlas(resources());
+            } catch (IOException e) {
+                throw new PacmanConfigurationException("Unable to pack sprites", e);
+            }
+        }
+    }
+
+    /**
+     * Starts loading all sprites provided by this store in the background,
+     * see {@link #preload(String...)}.
+     */
+    public void preload() {
+        preload(resources());
+    }
+
+    /**
+     * @return The resource paths of all sprites provided by this store.
+     */
+    private static String[] resources() {
+        List<String> resources = new ArrayList<>();
+        resources.add("/sprite/pacman.png");
+        resources.add("/sprite/dead.png");
+        for (GhostColor color : GhostColor.values()) {
+            resources.add(ghostResource(color));
+        }
+        resources.add("/sprite/wall.png");
+        resources.add("/sprite/floor.png");
+        resources.add("/sprite/pellet.png");
+        resources.add("/sprite/apple.png");
+        return resources.toArray(new String[0]);
+    }
+
     /**
      * @return A map of animated Pac-Man sprites for all directions.
      */
@@ -62,14 +123,8 @@ public class PacManSprites extends SpriteStore {
      * @return The animation of a dying Pac-Man.
      */
     public AnimatedSprite getPacManDeathAnimation() {
-        String resource = "/sprite/dead.png";
-
-        Sprite baseImage = loadSprite(resource);
-        AnimatedSprite animation = createAnimatedSprite(baseImage, PACMAN_DEATH_FRAMES,
-            ANIMATION_DELAY, false);
-        animation.setAnimating(false);
-
-        return animation;
+        Sprite[] deathFrames = getFrames("/sprite/dead.png", 1, PACMAN_DEATH_FRAMES)[0];
+        return new AnimatedSprite(deathFrames, ANIMATION_DELAY, false);
     }
 
     /**
@@ -77,26 +132,49 @@ public class PacManSprites extends SpriteStore {
      *
      * @param resource
      *            The resource name of the sprite.
-     * @param frames
+     * @param frameCount
      *            The number of frames in this sprite.
      * @return The animated sprite facing the given direction.
      */
-    private Map<Direction, Sprite> directionSprite(String resource, int frames) {
-        Map<Direction, Sprite> sprite = new HashMap<>();
+    private Map<Direction, Sprite> directionSprite(String resource, int frameCount) {
+        Map<Direction, Sprite> sprite = new EnumMap<>(Direction.class);
 
-        Sprite baseImage = loadSprite(resource);
+        Sprite[][] directionFrames = getFrames(resource, DIRECTIONS.length, frameCount);
         for (int i = 0; i < DIRECTIONS.length; i++) {
-            Sprite directionSprite = baseImage.split(0, i * SPRITE_SIZE, frames
-                * SPRITE_SIZE, SPRITE_SIZE);
-            AnimatedSprite animation = createAnimatedSprite(directionSprite,
-                frames, ANIMATION_DELAY, true);
-            animation.setAnimating(true);
-            sprite.put(DIRECTIONS[i], animation);
+            sprite.put(DIRECTIONS[i], new AnimatedSprite(directionFrames[i],
+                ANIMATION_DELAY, true, true));
         }
 
         return sprite;
     }
 
+    /**
+     * Returns the frames of the animations in a resource, splitting them the
+     * first time they are requested.
+     *
+     * @param resource
+     *            The resource name of the sprite.
+     * @param rows
+     *            The number of animations, which are stacked vertically.
+     * @param frameCount
+     *            The number of frames in each animation.
+     * @return The frames of each animation.
+     */
+    private synchronized Sprite[][] getFrames(String resource, int rows, int frameCount) {
+        Sprite[][] result = frames.get(resource);
+        if (result == null) {
+            Sprite baseImage = loadSprite(resource);
+            result = new Sprite[rows][];
+            for (int i = 0; i < rows; i++) {
+                Sprite row = baseImage.split(0, i * SPRITE_SIZE, frameCount
+                    * SPRITE_SIZE, SPRITE_SIZE);
+                result[i] = splitFrames(row, frameCount);
+            }
+            frames.put(resource, result);
+        }
+        return result;
+    }
+
     /**
      * Returns a map of animated ghost sprites for all directions.
      *
@@ -107,9 +185,16 @@ public class PacManSprites extends SpriteStore {
     public Map<Direction, Sprite> getGhostSprite(GhostColor color) {
         assert color != null;
 
-        String resource = "/sprite/ghost_" + color.name().toLowerCase()
-            + ".png";
-        return directionSprite(resource, GHOST_ANIMATION_FRAMES);
+        return directionSprite(ghostResource(color), GHOST_ANIMATION_FRAMES);
+    }
+
+    /**
+     * @param color
+     *            The colour of the ghost.
+     * @return The resource path of the sprite of the ghost.
+     */
+    private static String ghostResource(GhostColor color) {
+        return "/sprite/ghost_" + color.name().toLowerCase() + ".png";
     }
 
     /**
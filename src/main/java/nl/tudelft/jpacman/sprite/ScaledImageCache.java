@@ -0,0 +1,121 @@
+package nl.tudelft.jpacman.sprite;
+
+import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Transparency;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Copies of an image scaled to the sizes it is drawn at, so that drawing it
+ * is a plain copy instead of scaling it over and over again.
+ * <p>
+ * Only the sizes used most recently are kept. When the board is resized the
+ * copies at the old size are therefore evicted as soon as enough copies at
+ * the new size have been made.
+ *
+ * @author Jeroen Roosen
+ */
+final class ScaledImageCache {
+
+    /**
+     * The number of sizes that are kept by default, which allows for the size
+     * of a board and the size it is being resized to.
+     */
+    static final int DEFAULT_CAPACITY = 2;
+
+    /**
+     * The image to scale.
+     */
+    private final Image source;
+
+    /**
+     * The scaled copies, by size, least recently used first.
+     */
+    private final Map<Long, Image> copies;
+
+    /**
+     * Creates a new cache.
+     *
+     * @param source
+     *            The image to scale.
+     * @param capacity
+     *            The maximum number of sizes to keep.
+     */
+    ScaledImageCache(Image source, int capacity) {
+        assert source != null;
+        assert capacity > 0;
+        this.source = source;
+        this.copies = new LinkedHashMap<Long, Image>(capacity + 1, 1f, true) {
+
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Image> eldest) {
+                return size() > capacity;
+            }
+        };
+    }
+
+    /**
+     * Returns the image scaled to the given size, scaling it first if no copy
+     * of that size is available.
+     *
+     * @param width
+     *            The width to scale to, at least 1.
+     * @param height
+     *            The height to scale to, at least 1.
+     * @param configuration
+     *            The configuration of the device the image will be drawn on,
+     *            or <code>null</code> if it is unknown.
+     * @return The scaled image.
+     */
+    synchronized Image get(int width, int height, GraphicsConfiguration configuration) {
+        assert width > 0 && height > 0;
+        Long size = ((long) width << Integer.SIZE) | height;
+        Image copy = copies.get(size);
+        if (copy == null) {
+            copy = scale(width, height, configuration);
+            copies.put(size, copy);
+        }
+        return copy;
+    }
+
+    /**
+     * @return The number of sizes currently kept.
+     */
+    synchronized int size() {
+        return copies.size();
+    }
+
+    /**
+     * Scales the image into a new image that is compatible with the device,
+     * if it is known.
+     *
+     * @param width
+     *            The width to scale to.
+     * @param height
+     *            The height to scale to.
+     * @param configuration
+     *            The configuration of the device, or <code>null</code>.
+     * @return The scaled image.
+     */
+    private Image scale(int width, int height, GraphicsConfiguration configuration) {
+        BufferedImage copy;
+        if (configuration == null) {
+            copy = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        } else {
+            copy = configuration.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+        }
+        Graphics graphics = copy.getGraphics();
+        try {
+            graphics.drawImage(source, 0, 0, width, height, 0, 0,
+                source.getWidth(null), source.getHeight(null), null);
+        } finally {
+            graphics.dispose();
+        }
+        return copy;
+    }
+}
@@ -3,8 +3,14 @@ package nl.tudelft.jpacman.sprite;
 import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.io.InputStream;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
 
 import javax.imageio.ImageIO;
 
@@ -17,21 +23,24 @@ public class SpriteStore {
 
     /**
      * We only need to load images once, so we keep track
-     * of them in a hash map.
+     * of them in a hash map. Each sprite is loaded by a task, which is run
+     * either in the background or by the first thread that needs the sprite,
+     * whichever comes first.
      */
-    private final Map<String, Sprite> spriteMap;
+    private final ConcurrentMap<String, FutureTask<Sprite>> spriteMap;
 
     /**
      * Create a new sprite store.
      */
     public SpriteStore() {
-        spriteMap = new HashMap<>();
+        spriteMap = new ConcurrentHashMap<>();
     }
 
     /**
      * Loads a sprite from a resource on the class path.
      * Sprites are loaded once, and then stored in the store
-     * so that they can be efficiently retrieved.
+     * so that they can be efficiently retrieved. If the sprite is being
+     * loaded in the background, this waits for it to be loaded.
      *
      * @param resource
      *            The resource path.
@@ -40,12 +49,70 @@ public class SpriteStore {
      *             When the resource could not be loaded.
      */
     public Sprite loadSprite(String resource) throws IOException {
-        Sprite result = spriteMap.get(resource);
-        if (result == null) {
-            result = loadSpriteFromResource(resource);
-            spriteMap.put(resource, result);
+        FutureTask<Sprite> task = spriteTask(resource);
+        task.run();
+        return await(resource, task);
+    }
+
+    /**
+     * Starts loading sprites in the background, decoding their images in
+     * parallel. Sprites that are loaded or being loaded already are skipped.
+     *
+     * @param resources
+     *            The resource paths of the sprites to load.
+     */
+    public void preload(String... resources) {
+        for (String resource : resources) {
+            FutureTask<Sprite> task = spriteTask(resource);
+            if (!task.isDone()) {
+                ForkJoinPool.commonPool().execute(task);
+            }
+        }
+    }
+
+    /**
+     * Returns the task loading a sprite, creating it if there is none yet.
+     *
+     * @param resource
+     *            The resource path.
+     * @return The task loading the sprite for the resource.
+     */
+    private FutureTask<Sprite> spriteTask(String resource) {
+        return spriteMap.computeIfAbsent(resource,
+            key -> new FutureTask<>(() -> loadSpriteFromResource(key)));
+    }
+
+    /**
+     * Waits for a sprite to be loaded. When loading failed, the task is
+     * forgotten, so that the next attempt tries again.
+     *
+     * @param resource
+     *            The resource path.
+     * @param task
+     *            The task loading the sprite.
+     * @param <T>
+     *            The type of the result of the task.
+     * @return The result of the task.
+     * @throws IOException
+     *             When the resource could not be loaded.
+     */
+    private <T> T await(String resource, Future<T> task) throws IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading " + resource, e);
+        } catch (ExecutionException e) {
+            spriteMap.remove(resource, task);
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) {
+                throw (IOException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new IOException("Unable to load " + resource, cause);
         }
-        return result;
     }
 
     /**
@@ -58,12 +125,58 @@ public class SpriteStore {
      *             When the resource could not be loaded.
      */
     private Sprite loadSpriteFromResource(String resource) throws IOException {
+        return new ImageSprite(readImage(resource));
+    }
+
+    /**
+     * Packs the images of a number of resources into a single
+     * {@link TextureAtlas}. From then on, loading any of these resources
+     * returns a view of the atlas, as do all sprites split off from it, such
+     * as the frames of animations.
+     *
+     * @param resources
+     *            The resource paths of the images to pack.
+     * @return The atlas containing the images.
+     * @throws IOException
+     *             When one of the resources could not be loaded.
+     */
+    public TextureAtlas packAtlas(String... resources) throws IOException {
+        Map<String, FutureTask<BufferedImage>> reads = new LinkedHashMap<>();
+        for (String resource : resources) {
+            FutureTask<BufferedImage> read = new FutureTask<>(() -> readImage(resource));
+            ForkJoinPool.commonPool().execute(read);
+            reads.put(resource, read);
+        }
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        for (Map.Entry<String, FutureTask<BufferedImage>> read : reads.entrySet()) {
+            read.getValue().run();
+            images.put(read.getKey(), await(read.getKey(), read.getValue()));
+        }
+        TextureAtlas atlas = TextureAtlas.pack(images);
+        for (String resource : resources) {
+            Sprite sprite = atlas.getSprite(resource);
+            FutureTask<Sprite> task = new FutureTask<>(() -> sprite);
+            task.run();
+            spriteMap.put(resource, task);
+        }
+        return atlas;
+    }
+
+    /**
+     * Reads an image from a resource on the class path.
+     *
+     * @param resource
+     *            The resource path.
+     * @return The image of the resource.
+     * @throws IOException
+     *             When the resource could not be loaded.
+     */
+    private BufferedImage readImage(String resource) throws IOException {
         try (InputStream input = SpriteStore.class.getResourceAsStream(resource)) {
             if (input == null) {
                 throw new IOException("Unable to load " + resource + ", resource does not exist.");
             }
-            BufferedImage image = ImageIO.read(input);
-            return new ImageSprite(image);
+            return ImageIO.read(input);
         }
     }
 
@@ -82,6 +195,20 @@ public class SpriteStore {
      */
     public AnimatedSprite createAnimatedSprite(Sprite baseImage, int frames,
                                                int delay, boolean loop) {
+        return new AnimatedSprite(splitFrames(baseImage, frames), delay, loop);
+    }
+
+    /**
+     * Splits a base image into the frames of an animation, placed next to
+     * each other.
+     *
+     * @param baseImage
+     *            The base image to split.
+     * @param frames
+     *            The amount of frames of the animation.
+     * @return The frames of the animation.
+     */
+    protected Sprite[] splitFrames(Sprite baseImage, int frames) {
         assert baseImage != null;
         assert frames > 0;
 
@@ -92,8 +219,7 @@ public class SpriteStore {
             animation[i] = baseImage.split(i * frameWidth, 0, frameWidth,
                 baseImage.getHeight());
         }
-
-        return new AnimatedSprite(animation, delay, loop);
+        return animation;
     }
 
 }
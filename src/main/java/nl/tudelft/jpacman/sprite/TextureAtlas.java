@@ -0,0 +1,232 @@
+package nl.tudelft.jpacman.sprite;
+
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.GraphicsConfiguration;
+import java.awt.Image;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A single image containing a number of images, packed next to each other.
+ * The sprites of an atlas are views of a part of its image, and so are the
+ * sprites split off from them, so no matter how many sprites and animation
+ * frames there are, they are all drawn from the same image.
+ * <p>
+ * Images are packed in rows on a grid of {@link #GRID} pixels. When a sprite
+ * is drawn at another size, the whole atlas is scaled to match once, after
+ * which the sprite and every other sprite drawn at the same scale is copied
+ * from the scaled atlas as is.
+ *
+ * @author Jeroen Roosen
+ */
+public final class TextureAtlas {
+
+    /**
+     * The size of the grid the images are aligned to, which is the size of
+     * the sprites of the game.
+     */
+    public static final int GRID = 16;
+
+    /**
+     * The packed images.
+     */
+    private final BufferedImage image;
+
+    /**
+     * Copies of the packed images scaled to the sizes the sprites were
+     * recently drawn at.
+     */
+    private final ScaledImageCache scaled;
+
+    /**
+     * The sprites of the packed images, by name.
+     */
+    private final Map<String, Sprite> sprites;
+
+    /**
+     * Creates a new atlas.
+     *
+     * @param image
+     *            The packed images.
+     */
+    private TextureAtlas(BufferedImage image) {
+        this.image = image;
+        this.scaled = new ScaledImageCache(image, ScaledImageCache.DEFAULT_CAPACITY);
+        this.sprites = new HashMap<>();
+    }
+
+    /**
+     * Packs images into a new atlas.
+     *
+     * @param images
+     *            The images to pack, by name.
+     * @return The atlas with a sprite for each of the images.
+     */
+    public static TextureAtlas pack(Map<String, ? extends Image> images) {
+        assert images != null;
+        List<String> names = new ArrayList<>(images.keySet());
+        names.sort((a, b) -> Integer.compare(images.get(b).getHeight(null),
+            images.get(a).getHeight(null)));
+
+        Map<String, Rectangle> places = new HashMap<>();
+        Rectangle bounds = place(names, images, places);
+        TextureAtlas atlas = new TextureAtlas(new BufferedImage(Math.max(GRID, bounds.width),
+            Math.max(GRID, bounds.height), BufferedImage.TYPE_INT_ARGB));
+        Graphics graphics = atlas.image.getGraphics();
+        try {
+            for (String name : names) {
+                Rectangle place = places.get(name);
+                graphics.drawImage(images.get(name), place.x, place.y, null);
+                atlas.sprites.put(name, new AtlasSprite(atlas, place));
+            }
+        } finally {
+            graphics.dispose();
+        }
+        return atlas;
+    }
+
+    /**
+     * Decides where to place each image, filling rows from left to right.
+     *
+     * @param names
+     *            The names of the images, tallest first.
+     * @param images
+     *            The images to place, by name.
+     * @param places
+     *            The map to put the place of each image in.
+     * @return The bounds of all placed images.
+     */
+    private static Rectangle place(List<String> names, Map<String, ? extends Image> images,
+                                   Map<String, Rectangle> places) {
+        long area = 0;
+        int widest = 0;
+        for (String name : names) {
+            Image img = images.get(name);
+            area += (long) alignUp(img.getWidth(null)) * alignUp(img.getHeight(null));
+            widest = Math.max(widest, alignUp(img.getWidth(null)));
+        }
+        int width = Math.max(widest, alignUp((int) Math.ceil(Math.sqrt(area))));
+        Rectangle bounds = new Rectangle();
+        int x = 0;
+        int rowHeight = 0;
+        for (String name : names) {
+            Image img = images.get(name);
+            if (x + img.getWidth(null) > width) {
+                bounds.height += rowHeight;
+                x = 0;
+                rowHeight = 0;
+            }
+            places.put(name, new Rectangle(x, bounds.height, img.getWidth(null),
+                img.getHeight(null)));
+            x += alignUp(img.getWidth(null));
+            rowHeight = Math.max(rowHeight, alignUp(img.getHeight(null)));
+            bounds.width = Math.max(bounds.width, x);
+        }
+        bounds.height += rowHeight;
+        return bounds;
+    }
+
+    /**
+     * @param size
+     *            A size in pixels.
+     * @return The smallest multiple of the grid that is at least the size.
+     */
+    private static int alignUp(int size) {
+        return (size + GRID - 1) / GRID * GRID;
+    }
+
+    /**
+     * Returns the sprite of a packed image.
+     *
+     * @param name
+     *            The name of the image.
+     * @return The sprite of the image, or <code>null</code> if there is no
+     *         image with that name in this atlas.
+     */
+    public Sprite getSprite(String name) {
+        return sprites.get(name);
+    }
+
+    /**
+     * @return The image containing all packed images.
+     */
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    /**
+     * Draws a part of the atlas.
+     *
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param source
+     *            The part of the atlas to draw.
+     * @param x
+     *            The x position to start drawing.
+     * @param y
+     *            The y position to start drawing.
+     * @param width
+     *            The width to draw the part at.
+     * @param height
+     *            The height to draw the part at.
+     */
+    void draw(Graphics graphics, Rectangle source, int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) {
+            return;
+        }
+        if (width != source.width || height != source.height) {
+            int cellW = width * GRID / source.width;
+            int cellH = height * GRID / source.height;
+            if (isAligned(source, width, height) && cellW > 0 && cellH > 0) {
+                int sx = source.x / GRID * cellW;
+                int sy = source.y / GRID * cellH;
+                graphics.drawImage(scaledImage(graphics, cellW, cellH), x, y, x + width,
+                    y + height, sx, sy, sx + width, sy + height, null);
+                return;
+            }
+        }
+        graphics.drawImage(image, x, y, x + width, y + height, source.x, source.y,
+            source.x + source.width, source.y + source.height, null);
+    }
+
+    /**
+     * @param source
+     *            The part of the atlas to draw.
+     * @param width
+     *            The width to draw the part at.
+     * @param height
+     *            The height to draw the part at.
+     * @return <code>true</code> iff the part lands exactly on pixels of the
+     *         atlas when the grid is scaled to match the size.
+     */
+    private static boolean isAligned(Rectangle source, int width, int height) {
+        return source.x % GRID == 0 && source.y % GRID == 0
+            && width * GRID % source.width == 0 && height * GRID % source.height == 0;
+    }
+
+    /**
+     * Returns the atlas scaled so that each cell of the grid has the given
+     * size.
+     *
+     * @param graphics
+     *            The graphics context the atlas will be drawn on.
+     * @param cellW
+     *            The width of a cell of the grid.
+     * @param cellH
+     *            The height of a cell of the grid.
+     * @return The scaled atlas.
+     */
+    private Image scaledImage(Graphics graphics, int cellW, int cellH) {
+        GraphicsConfiguration configuration = null;
+        if (graphics instanceof Graphics2D) {
+            configuration = ((Graphics2D) graphics).getDeviceConfiguration();
+        }
+        return scaled.get(image.getWidth() / GRID * cellW, image.getHeight() / GRID * cellH,
+            configuration);
+    }
+}
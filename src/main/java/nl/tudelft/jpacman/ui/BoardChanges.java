@@ -0,0 +1,135 @@
+package nl.tudelft.jpacman.ui;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.Board.BoardObserver;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+/**
+ * Keeps track of the squares of a board that look different since they were
+ * last collected, so that only those have to be painted again.
+ * <p>
+ * A square changes when a unit enters or leaves it, as reported by the
+ * board, or when one of the units moving around on it changes its sprite or
+ * has an animated sprite. Units that never moved, such as pellets, are only
+ * followed when they are animated.
+ *
+ * @author Jeroen Roosen
+ */
+final class BoardChanges implements BoardObserver {
+
+    /**
+     * The squares entered or left since the changes were last collected.
+     */
+    private final Set<Square> changed;
+
+    /**
+     * The units that may change their appearance, with the square they are on
+     * and the sprite they last had.
+     */
+    private final Map<Unit, Appearance> units;
+
+    /**
+     * Creates a new set of changes for a board, following the animated units
+     * already on it. It has to be registered as an observer of the board to
+     * keep track of the units moving.
+     *
+     * @param board
+     *            The board to keep track of.
+     */
+    BoardChanges(Board board) {
+        assert board != null;
+        this.changed = new LinkedHashSet<>();
+        this.units = new IdentityHashMap<>();
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            Square square = board.squareAtIndex(i);
+            for (Unit unit : square.getOccupants()) {
+                if (unit.getSprite() instanceof AnimatedSprite) {
+                    units.put(unit, new Appearance(square));
+                }
+            }
+        }
+    }
+
+    @Override
+    public synchronized void unitEntered(Square square, Unit unit) {
+        changed.add(square);
+        units.put(unit, new Appearance(square));
+    }
+
+    @Override
+    public synchronized void unitLeft(Square square, Unit unit) {
+        changed.add(square);
+        Appearance appearance = units.get(unit);
+        if (appearance != null && appearance.square == square) {
+            units.remove(unit);
+        }
+    }
+
+    /**
+     * Returns the squares that changed since the last time they were
+     * collected, and starts over.
+     *
+     * @return The squares that have to be painted again, possibly none.
+     */
+    synchronized List<Square> collect() {
+        for (Map.Entry<Unit, Appearance> entry : units.entrySet()) {
+            Sprite sprite = entry.getKey().getSprite();
+            Appearance appearance = entry.getValue();
+            if (sprite != appearance.sprite || isAnimating(sprite)) {
+                appearance.sprite = sprite;
+                changed.add(appearance.square);
+            }
+        }
+        List<Square> result = new ArrayList<>(changed);
+        changed.clear();
+        return result;
+    }
+
+    /**
+     * @param sprite
+     *            The sprite to test.
+     * @return <code>true</code> iff the sprite may show another frame the
+     *         next time it is drawn.
+     */
+    private static boolean isAnimating(Sprite sprite) {
+        return sprite instanceof AnimatedSprite && ((AnimatedSprite) sprite).isAnimating();
+    }
+
+    /**
+     * Where a unit is and what it looked like.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Appearance {
+
+        /**
+         * The square the unit is on.
+         */
+        private final Square square;
+
+        /**
+         * The sprite the unit had when the changes were last collected.
+         */
+        private Sprite sprite;
+
+        /**
+         * Creates a new appearance of a unit that has not been collected yet.
+         *
+         * @param square
+         *            The square the unit is on.
+         */
+        Appearance(Square square) {
+            this.square = square;
+        }
+    }
+}
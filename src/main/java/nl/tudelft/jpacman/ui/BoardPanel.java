@@ -3,6 +3,12 @@ package nl.tudelft.jpacman.ui;
 import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
+import java.awt.GraphicsConfiguration;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
 
 import javax.swing.JPanel;
 
@@ -10,6 +16,8 @@ import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.Square;
 import nl.tudelft.jpacman.board.Unit;
 import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.TickSnapshot;
+import nl.tudelft.jpacman.sprite.Sprite;
 
 /**
  * Panel displaying a game.
@@ -40,6 +48,36 @@ class BoardPanel extends JPanel {
      */
     private final Game game;
 
+    /**
+     * The walls and floors of the board rendered at the current size of this
+     * panel, or <code>null</code> if they have not been rendered yet. The
+     * terrain never changes, so it only has to be rendered again when the
+     * panel is resized or the game moves on to another board.
+     */
+    private transient BufferedImage terrain;
+
+    /**
+     * The board the terrain was rendered for.
+     */
+    private transient Board terrainBoard;
+
+    /**
+     * The board whose changes are being followed, or <code>null</code> if
+     * none are followed yet.
+     */
+    private transient Board observed;
+
+    /**
+     * The changes to the observed board since it was last repainted.
+     */
+    private transient BoardChanges changes;
+
+    /**
+     * The last snapshot whose changes were repainted, or <code>null</code>
+     * if the level is not advanced in ticks or no snapshot was taken yet.
+     */
+    private transient TickSnapshot repainted;
+
     /**
      * Creates a new board panel that will display the provided game.
      *
@@ -67,8 +105,80 @@ class BoardPanel extends JPanel {
         render(game.getLevel().getBoard(), g, getSize());
     }
 
+    /**
+     * Requests the squares that changed since the last call to be repainted.
+     * Nothing is repainted if nothing changed. The whole panel is repainted
+     * the first time and whenever the game moves on to another board.
+     */
+    void repaintChanges() {
+        Set<Integer> changed = collectChanges();
+        if (changed == null) {
+            repaint();
+            return;
+        }
+        Board board = game.getLevel().getBoard();
+        for (int index : changed) {
+            repaintSquare(board, index);
+        }
+    }
+
+    /**
+     * Collects the squares that look different since the last call.
+     * <p>
+     * These are the squares reported by the {@link BoardChanges}, which
+     * include the squares of animating units even when nothing moves. When
+     * the level is advanced in ticks, the panel draws the snapshots instead
+     * of the board, so the squares that differ between the snapshot
+     * collected last time and the current one are added to them.
+     *
+     * @return The indices of the squares to repaint, or <code>null</code> if
+     *         the whole panel has to be repainted.
+     */
+    Set<Integer> collectChanges() {
+        Board board = game.getLevel().getBoard();
+        TickSnapshot snapshot = getSnapshot(board);
+        TickSnapshot earlier = repainted;
+        repainted = snapshot;
+        if (board != observed) {
+            if (observed != null) {
+                observed.removeObserver(changes);
+            }
+            changes = new BoardChanges(board);
+            board.addObserver(changes);
+            observed = board;
+            return null;
+        }
+        Set<Integer> changed = new LinkedHashSet<>();
+        for (Square square : changes.collect()) {
+            changed.add(square.getIndex());
+        }
+        if (snapshot != null && earlier == null) {
+            return null;
+        }
+        if (snapshot != null && snapshot != earlier) {
+            snapshot.forEachChange(earlier, changed::add);
+        }
+        return changed;
+    }
+
+    /**
+     * Requests a single square to be repainted.
+     *
+     * @param board
+     *            The board being rendered.
+     * @param index
+     *            The index of the square.
+     */
+    private void repaintSquare(Board board, int index) {
+        int cellW = getWidth() / board.getWidth();
+        int cellH = getHeight() / board.getHeight();
+        repaint(board.columnOf(index) * cellW, board.rowOf(index) * cellH, cellW, cellH);
+    }
+
     /**
      * Renders the board on the given graphics context to the given dimensions.
+     * Only the occupants of the squares within the clip of the graphics
+     * context are rendered.
      *
      * @param board
      *            The board to render.
@@ -81,25 +191,141 @@ class BoardPanel extends JPanel {
         int cellW = window.width / board.getWidth();
         int cellH = window.height / board.getHeight();
 
-        graphics.setColor(BACKGROUND_COLOR);
-        graphics.fillRect(0, 0, window.width, window.height);
+        graphics.drawImage(getTerrain(board, window, cellW, cellH), 0, 0, null);
+        if (cellW == 0 || cellH == 0) {
+            return;
+        }
 
-        for (int y = 0; y < board.getHeight(); y++) {
-            for (int x = 0; x < board.getWidth(); x++) {
+        Rectangle clip = graphics.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(window);
+        }
+        int firstX = Math.max(0, clip.x / cellW);
+        int firstY = Math.max(0, clip.y / cellH);
+        int lastX = Math.min(board.getWidth() - 1, (clip.x + clip.width - 1) / cellW);
+        int lastY = Math.min(board.getHeight() - 1, (clip.y + clip.height - 1) / cellH);
+        TickSnapshot snapshot = getSnapshot(board);
+        for (int y = firstY; y <= lastY; y++) {
+            for (int x = firstX; x <= lastX; x++) {
                 int cellX = x * cellW;
                 int cellY = y * cellH;
                 Square square = board.squareAt(x, y);
-                render(square, graphics, cellX, cellY, cellW, cellH);
+                render(square, snapshot, graphics, cellX, cellY, cellW, cellH);
+            }
+        }
+    }
+
+    /**
+     * @param board
+     *            The board being rendered.
+     * @return The snapshot of the last tick of the board if the level is
+     *         advanced in ticks, or <code>null</code> if the board itself
+     *         should be rendered.
+     */
+    private TickSnapshot getSnapshot(Board board) {
+        TickSnapshot snapshot = game.getLevel().getSnapshot();
+        if (snapshot == null || snapshot.getBoard() != board) {
+            return null;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Returns the rendered terrain of the board, rendering it first if it is
+     * not available at the given dimensions yet.
+     *
+     * @param board
+     *            The board to render.
+     * @param window
+     *            The dimensions to scale the rendered board to.
+     * @param cellW
+     *            The width of a square (in pixels.)
+     * @param cellH
+     *            The height of a square (in pixels.)
+     * @return The terrain of the board at the given dimensions.
+     */
+    private BufferedImage getTerrain(Board board, Dimension window, int cellW, int cellH) {
+        int width = Math.max(1, window.width);
+        int height = Math.max(1, window.height);
+        if (terrain != null && terrainBoard == board
+            && terrain.getWidth() == width && terrain.getHeight() == height) {
+            return terrain;
+        }
+        BufferedImage image = createTerrainImage(width, height);
+        Graphics graphics = image.getGraphics();
+        try {
+            graphics.setColor(BACKGROUND_COLOR);
+            graphics.fillRect(0, 0, width, height);
+            for (int y = 0; y < board.getHeight(); y++) {
+                for (int x = 0; x < board.getWidth(); x++) {
+                    board.squareAt(x, y).getSprite()
+                        .draw(graphics, x * cellW, y * cellH, cellW, cellH);
+                }
             }
+        } finally {
+            graphics.dispose();
+        }
+        terrain = image;
+        terrainBoard = board;
+        return image;
+    }
+
+    /**
+     * Creates an opaque image that is compatible with the screen this panel
+     * is displayed on, so that drawing it is a plain copy.
+     *
+     * @param width
+     *            The width of the image.
+     * @param height
+     *            The height of the image.
+     * @return The new image.
+     */
+    private BufferedImage createTerrainImage(int width, int height) {
+        GraphicsConfiguration configuration = getGraphicsConfiguration();
+        if (configuration == null) {
+            return new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
         }
+        return configuration.createCompatibleImage(width, height);
     }
 
     /**
-     * Renders a single square on the given graphics context on the specified
-     * rectangle.
+     * Renders the occupants of a single square on the given graphics context
+     * on the specified rectangle.
      *
      * @param square
      *            The square to render.
+     * @param snapshot
+     *            The snapshot to take the occupants from, or
+     *            <code>null</code> to take them from the square itself.
+     * @param graphics
+     *            The graphics context to draw on.
+     * @param x
+     *            The x position to start drawing.
+     * @param y
+     *            The y position to start drawing.
+     * @param width
+     *            The width of this square (in pixels.)
+     * @param height
+     *            The height of this square (in pixels.)
+     */
+    private void render(Square square, TickSnapshot snapshot, Graphics graphics,
+                        int x, int y, int width, int height) {
+        if (snapshot != null) {
+            render(snapshot.getSprites(square.getIndex()), graphics, x, y, width, height);
+            return;
+        }
+        List<Unit> occupants = square.getOccupants();
+        for (int i = 0; i < occupants.size(); i++) {
+            occupants.get(i).getSprite().draw(graphics, x, y, width, height);
+        }
+    }
+
+    /**
+     * Renders the occupants of a single square as they were at the end of a
+     * tick, see {@link TickSnapshot}.
+     *
+     * @param sprites
+     *            The sprites of the occupants of the square.
      * @param graphics
      *            The graphics context to draw on.
      * @param x
@@ -111,10 +337,10 @@ class BoardPanel extends JPanel {
      * @param height
      *            The height of this square (in pixels.)
      */
-    private void render(Square square, Graphics graphics, int x, int y, int width, int height) {
-        square.getSprite().draw(graphics, x, y, width, height);
-        for (Unit unit : square.getOccupants()) {
-            unit.getSprite().draw(graphics, x, y, width, height);
+    private void render(List<Sprite> sprites, Graphics graphics, int x, int y,
+                        int width, int height) {
+        for (int i = 0; i < sprites.size(); i++) {
+            sprites.get(i).draw(graphics, x, y, width, height);
         }
     }
 }
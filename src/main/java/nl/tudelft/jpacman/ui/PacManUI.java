@@ -12,6 +12,7 @@ import javax.swing.JPanel;
 import javax.swing.WindowConstants;
 
 import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.sprite.AnimationClock;
 import nl.tudelft.jpacman.ui.ScorePanel.ScoreFormatter;
 
 /**
@@ -107,10 +108,12 @@ public class PacManUI extends JFrame {
     }
 
     /**
-     * Draws the next frame, i.e. refreshes the scores and game.
+     * Draws the next frame, i.e. advances the animations and refreshes the
+     * scores and the squares of the game that changed.
      */
     private void nextFrame() {
-        boardPanel.repaint();
+        AnimationClock.global().tick();
+        boardPanel.repaintChanges();
         scorePanel.refresh();
     }
 }
@@ -1,5 +1,7 @@
 package nl.tudelft.jpacman.board;
 
+import java.util.List;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -62,4 +64,21 @@ class SquareTest {
 
         assertThat(square.getOccupants()).containsSequence(o1, o2);
     }
+
+    /**
+     * Assert that reading the occupants of an unchanged square returns the
+     * same snapshot, and that the snapshot is replaced when they change.
+     */
+    @Test
+    void testSnapshot() {
+        Unit o1 = mock(Unit.class);
+        square.put(o1);
+        List<Unit> first = square.getOccupants();
+
+        assertThat(square.getOccupants()).isSameAs(first);
+
+        square.remove(o1);
+        assertThat(square.getOccupants()).isNotSameAs(first).isEmpty();
+        assertThat(first).containsExactly(o1);
+    }
 }
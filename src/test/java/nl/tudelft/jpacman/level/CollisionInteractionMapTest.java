@@ -0,0 +1,110 @@
+package nl.tudelft.jpacman.level;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyZeroInteractions;
+
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.CollisionInteractionMap.CollisionHandler;
+import nl.tudelft.jpacman.npc.Ghost;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the dispatch of collisions to the handlers in a
+ * {@link CollisionInteractionMap}.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("unchecked")
+class CollisionInteractionMapTest {
+
+    /**
+     * The map under test.
+     */
+    private CollisionInteractionMap map;
+
+    /**
+     * A player colliding with things.
+     */
+    private Player player;
+
+    /**
+     * A pellet being collided with.
+     */
+    private Pellet pellet;
+
+    /**
+     * Creates an empty map and some units.
+     */
+    @BeforeEach
+    void setUp() {
+        map = new CollisionInteractionMap();
+        player = mock(Player.class);
+        pellet = mock(Pellet.class);
+    }
+
+    /**
+     * Verifies a handler listed for super classes handles collisions of
+     * their subclasses, every time they collide.
+     */
+    @Test
+    void superClassHandler() {
+        CollisionHandler<Unit, Unit> handler = mock(CollisionHandler.class);
+        map.onCollision(Unit.class, Unit.class, false, handler);
+
+        map.collide(player, pellet);
+        map.collide(player, pellet);
+
+        verify(handler, times(2)).handleCollision(player, pellet);
+    }
+
+    /**
+     * Verifies symmetric handlers are called with the units swapped.
+     */
+    @Test
+    void symmetricHandler() {
+        CollisionHandler<Player, Pellet> handler = mock(CollisionHandler.class);
+        map.onCollision(Player.class, Pellet.class, handler);
+
+        map.collide(pellet, player);
+
+        verify(handler).handleCollision(player, pellet);
+    }
+
+    /**
+     * Verifies nothing happens for units without a handler.
+     */
+    @Test
+    void noHandler() {
+        CollisionHandler<Player, Pellet> handler = mock(CollisionHandler.class);
+        map.onCollision(Player.class, Pellet.class, false, handler);
+
+        map.collide(player, mock(Ghost.class));
+        map.collide(pellet, player);
+
+        verifyZeroInteractions(handler);
+    }
+
+    /**
+     * Verifies a more specific handler that is added after a collision has
+     * been handled takes over.
+     */
+    @Test
+    void addedHandlerTakesOver() {
+        CollisionHandler<Unit, Unit> general = mock(CollisionHandler.class);
+        CollisionHandler<Player, Pellet> specific = mock(CollisionHandler.class);
+        map.onCollision(Unit.class, Unit.class, false, general);
+        map.collide(player, pellet);
+
+        map.onCollision(Player.class, Pellet.class, false, specific);
+        map.collide(player, pellet);
+
+        verify(general).handleCollision(player, pellet);
+        verify(specific).handleCollision(player, pellet);
+        verify(general, never()).handleCollision(pellet, player);
+    }
+}
@@ -0,0 +1,225 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.npc.ghost.PathTable;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies agents can play levels through an {@link Environment} and a
+ * {@link VectorEnvironment}.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class EnvironmentTest {
+
+    /**
+     * A corridor with two pellets east of the player.
+     */
+    private static final List<String> CORRIDOR = Lists.newArrayList("#####", "#P..#", "#####");
+
+    /**
+     * Verifies the observation shows the board after a reset, and follows
+     * the player eating pellets until the level is won.
+     */
+    @Test
+    void eatPellets() {
+        Environment environment = environmentOf(CORRIDOR);
+        environment.reset(1L);
+        byte[] observation = environment.getObservations();
+        assertThat(observation[index(1, 1)]).isEqualTo(Environment.PLAYER);
+        assertThat(observation[index(2, 1)]).isEqualTo(Environment.PELLET);
+        assertThat(observation[index(0, 1)]).isEqualTo(Environment.WALL);
+
+        assertThat(environment.step(Direction.EAST.ordinal())).isEqualTo(10);
+        assertThat(observation[index(1, 1)]).isEqualTo(Environment.EMPTY);
+        assertThat(observation[index(2, 1)]).isEqualTo(Environment.PLAYER);
+        assertThat(environment.isDone()).isFalse();
+
+        assertThat(environment.step(-1)).isZero();
+        assertThat(environment.step(Direction.EAST.ordinal())).isEqualTo(10);
+        assertThat(environment.isDone()).isTrue();
+        assertThat(environment.isPlayerAlive()).isTrue();
+    }
+
+    /**
+     * Verifies the same seed and actions play out the same way on the
+     * default board.
+     *
+     * @throws IOException
+     *             when the board cannot be read.
+     */
+    @Test
+    void deterministic() throws IOException {
+        List<String> board = defaultBoard();
+        Environment first = environmentOf(board);
+        Environment second = environmentOf(board);
+        first.reset(42L);
+        second.reset(42L);
+        for (int i = 0; i < 200; i++) {
+            int action = i / 7 % 4;
+            assertThat(second.step(action)).isEqualTo(first.step(action));
+        }
+        assertThat(second.getObservations()).isEqualTo(first.getObservations());
+    }
+
+    /**
+     * Verifies stepping environments in parallel gives the same results as
+     * stepping them one at a time.
+     *
+     * @throws IOException
+     *             when the board cannot be read.
+     */
+    @Test
+    void parallel() throws IOException {
+        List<String> board = defaultBoard();
+        VectorEnvironment serial = new VectorEnvironment(board, 32, new ForkJoinPool(1));
+        VectorEnvironment parallel = new VectorEnvironment(board, 32, new ForkJoinPool(4));
+        serial.reset(7L);
+        parallel.reset(7L);
+        int[] actions = new int[32];
+        for (int step = 0; step < 100; step++) {
+            for (int i = 0; i < actions.length; i++) {
+                actions[i] = (step / 5 + i) % 4;
+            }
+            serial.step(actions);
+            parallel.step(actions);
+            assertThat(parallel.getRewards()).isEqualTo(serial.getRewards());
+            assertThat(parallel.getDones()).isEqualTo(serial.getDones());
+        }
+        assertThat(parallel.getObservations()).isEqualTo(serial.getObservations());
+        assertThat(parallel.getObservations()).hasSize(32 * parallel.getObservationSize());
+    }
+
+    /**
+     * Verifies an environment whose level ended is reset at the next step.
+     */
+    @Test
+    void autoReset() {
+        VectorEnvironment environments = new VectorEnvironment(
+            Lists.newArrayList("####", "#P.#", "####"), 2, ForkJoinPool.commonPool());
+        environments.reset(1L);
+        int[] east = new int[2];
+        Arrays.fill(east, Direction.EAST.ordinal());
+
+        environments.step(east);
+        assertThat(environments.getDones()).containsExactly(true, true);
+        assertThat(environments.getRewards()).containsExactly(10, 10);
+
+        environments.step(east);
+        assertThat(environments.getDones()).containsExactly(true, true);
+        assertThat(environments.get(1).getLevel().isInProgress()).isFalse();
+        assertThat(environments.getObservations()[12 + index(2, 1)])
+            .isEqualTo(Environment.PLAYER);
+    }
+
+    /**
+     * Verifies environments that have not been reset cannot be stepped.
+     */
+    @Test
+    void stepBeforeReset() {
+        VectorEnvironment environments = new VectorEnvironment(
+            CORRIDOR, 2, ForkJoinPool.commonPool());
+
+        assertThatThrownBy(() -> environments.step(new int[2]))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> environmentOf(CORRIDOR).step(0))
+            .isInstanceOf(IllegalStateException.class);
+    }
+
+    /**
+     * Verifies all environments share the paths of the ghosts of the map,
+     * also after their levels were reset.
+     *
+     * @throws IOException
+     *             when the board cannot be read.
+     */
+    @Test
+    void sharedPaths() throws IOException {
+        VectorEnvironment environments = new VectorEnvironment(
+            defaultBoard(), 4, ForkJoinPool.commonPool());
+        environments.reset(1L);
+        PathTable table = pathsOf(environments.get(0).getLevel());
+        assertThat(table).isNotNull();
+        environments.get(0).reset(2L);
+
+        for (int i = 0; i < environments.size(); i++) {
+            assertThat(pathsOf(environments.get(i).getLevel())).isSameAs(table);
+        }
+    }
+
+    /**
+     * @param level
+     *            A level with ghosts.
+     * @return The table of the paths of the first ghost on the board.
+     */
+    private static PathTable pathsOf(Level level) {
+        Board board = level.getBoard();
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            for (Unit unit : board.squareAtIndex(i).getOccupants()) {
+                if (unit instanceof Ghost) {
+                    return PathTable.lookup(board, unit);
+                }
+            }
+        }
+        throw new AssertionError("No ghost on the board.");
+    }
+
+    /**
+     * @param map
+     *            The text of a map.
+     * @return An environment playing the map.
+     */
+    private static Environment environmentOf(List<String> map) {
+        PacManSprites sprites = new HeadlessSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        return new Environment(parser.parseTemplate(map), new PlayerFactory(sprites));
+    }
+
+    /**
+     * @param x
+     *            The column of a square on a board three rows high.
+     * @param y
+     *            The row of the square.
+     * @return The index of the square.
+     */
+    private static int index(int x, int y) {
+        return x * 3 + y;
+    }
+
+    /**
+     * @return The text of the default board.
+     * @throws IOException
+     *             when the board cannot be read.
+     */
+    private static List<String> defaultBoard() throws IOException {
+        try (InputStream source = EnvironmentTest.class.getResourceAsStream("/board.txt");
+             BufferedReader reader = new BufferedReader(
+                 new InputStreamReader(source, StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies a {@link FixedStepLoop} advances levels in whole ticks.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class FixedStepLoopTest {
+
+    /**
+     * The loop under test, which is stepped by hand.
+     */
+    private FixedStepLoop loop;
+
+    /**
+     * A level of a single corridor with a ghost at the far end.
+     */
+    private Level level;
+
+    /**
+     * The player on the level.
+     */
+    private Player player;
+
+    /**
+     * The parser creating levels advanced by the loop.
+     */
+    private MapParser parser;
+
+    /**
+     * Creates a started level advanced by the loop, with a player on it.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new HeadlessSprites();
+        LevelFactory factory = new LevelFactory(sprites, new GhostFactory(sprites));
+        loop = new FixedStepLoop(FixedStepLoop.DEFAULT_TICK_MILLIS);
+        factory.setFixedStepLoop(loop);
+        parser = new MapParser(factory, new BoardFactory(sprites));
+        level = parser.parseMap(Lists.newArrayList("#########", "#P     G#", "#########"));
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+        level.start();
+    }
+
+    /**
+     * Verifies delays are rounded to whole ticks of at least one.
+     */
+    @Test
+    void ticks() {
+        assertThat(loop.toTicks(250L)).isEqualTo(10L);
+        assertThat(loop.toTicks(260L)).isEqualTo(10L);
+        assertThat(loop.toTicks(263L)).isEqualTo(11L);
+        assertThat(loop.toTicks(0L)).isEqualTo(1L);
+    }
+
+    /**
+     * Verifies moves are applied at the next tick, and only show in the
+     * snapshot of that tick.
+     */
+    @Test
+    void movesPerTick() {
+        Board board = level.getBoard();
+        loop.step();
+        TickSnapshot first = level.getSnapshot();
+        assertThat(first.getTick()).isEqualTo(1L);
+
+        level.move(player, Direction.EAST);
+        assertThat(player.getSquare()).isSameAs(board.squareAt(1, 1));
+        loop.step();
+        assertThat(player.getSquare()).isSameAs(board.squareAt(2, 1));
+
+        TickSnapshot second = level.getSnapshot();
+        assertThat(second.getTick()).isEqualTo(2L);
+        assertThat(second.getSprites(board.squareAt(1, 1).getIndex())).isEmpty();
+        assertThat(second.getSprites(board.squareAt(2, 1).getIndex()))
+            .containsExactly(player.getSprite());
+        assertThat(first.getSprites(board.squareAt(1, 1).getIndex()))
+            .containsExactly(player.getSprite());
+    }
+
+    /**
+     * Verifies the ghost only moves once its delay in ticks has passed.
+     */
+    @Test
+    void ghostInTicks() {
+        Board board = level.getBoard();
+        Unit ghost = board.squareAt(7, 1).getOccupants().get(0);
+        for (int i = 0; i < 3; i++) {
+            loop.step();
+        }
+        assertThat(ghost.getSquare()).isSameAs(board.squareAt(7, 1));
+        for (int i = 0; i < 4; i++) {
+            loop.step();
+        }
+        Square square = ghost.getSquare();
+        assertThat(square).isSameAs(board.squareAt(6, 1));
+        assertThat(level.getSnapshot().getSprites(square.getIndex()))
+            .containsExactly(ghost.getSprite());
+    }
+
+    /**
+     * Verifies levels that are stopped, like the ones replaced when the game
+     * is reset, are let go by the loop after the snapshot of their last
+     * tick, so that repeated resets do not grow the loop.
+     */
+    @Test
+    void releasesStoppedLevels() {
+        assertThat(loop.getLevelCount()).isEqualTo(1);
+        level.move(player, Direction.EAST);
+        level.stop();
+        loop.step();
+        assertThat(loop.getLevelCount()).isZero();
+        assertThat(level.getSnapshot().getSprites(player.getSquare().getIndex()))
+            .containsExactly(player.getSprite());
+
+        for (int i = 0; i < 20; i++) {
+            Level reset = parser.parseMap(
+                Lists.newArrayList("#########", "#P     G#", "#########"));
+            reset.start();
+            loop.step();
+            reset.stop();
+            loop.step();
+        }
+        assertThat(loop.getLevelCount()).isZero();
+    }
+
+    /**
+     * Verifies no thread runs ticks anymore once the loop is stopped, even
+     * when it is started and stopped in quick succession.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted.
+     */
+    @Test
+    void stopWaitsForWorker() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            loop.start();
+            loop.stop();
+        }
+        long stopped = loop.getTick();
+        TimeUnit.MILLISECONDS.sleep(3 * FixedStepLoop.DEFAULT_TICK_MILLIS);
+        assertThat(loop.getTick()).isEqualTo(stopped);
+    }
+}
@@ -0,0 +1,215 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies {@link MapParser#parseLargeMap(InputStream)} creates the same
+ * levels as parsing the lines of text.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class LargeMapTest {
+
+    /**
+     * The parser under test.
+     */
+    private MapParser parser;
+
+    /**
+     * Creates the parser.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new HeadlessSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+    }
+
+    /**
+     * Verifies the default board, read one byte at a time, results in the
+     * same level as parsing its lines.
+     *
+     * @throws IOException
+     *             when the board cannot be read.
+     */
+    @Test
+    void sameAsLines() throws IOException {
+        Level expected = parser.parseMap("/board.txt");
+        Level actual;
+        try (InputStream source = new Trickle(
+            MapParser.class.getResourceAsStream("/board.txt"))) {
+            actual = parser.parseLargeMap(source);
+        }
+
+        assertThat(actual.remainingPellets()).isEqualTo(expected.remainingPellets());
+        assertThat(layout(actual.getBoard())).isEqualTo(layout(expected.getBoard()));
+    }
+
+    /**
+     * Verifies a large map without a final line feed and with carriage
+     * returns is read completely.
+     *
+     * @throws IOException
+     *             when the map cannot be read.
+     */
+    @Test
+    void largeMap() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int y = 0; y < 300; y++) {
+            if (y > 0) {
+                text.append("\r\n");
+            }
+            for (int x = 0; x < 400; x++) {
+                text.append(cell(x, y));
+            }
+        }
+        Level level = parser.parseLargeMap(stream(text.toString()));
+
+        Board board = level.getBoard();
+        assertThat(board.getWidth()).isEqualTo(400);
+        assertThat(board.getHeight()).isEqualTo(300);
+        assertThat(level.remainingPellets()).isEqualTo(400 * 300 / 2);
+        assertThat(board.squareAt(3, 0).getOccupants()).isEmpty();
+        assertThat(board.squareAt(3, 299).getOccupants()).hasSize(1);
+    }
+
+    /**
+     * Verifies rows of different widths are rejected.
+     */
+    @Test
+    void unequalWidths() {
+        assertThatThrownBy(() -> parser.parseLargeMap(stream("###\n##\n")))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * Verifies unknown characters are rejected.
+     */
+    @Test
+    void invalidCharacter() {
+        assertThatThrownBy(() -> parser.parseLargeMap(stream("#.#\n#x#\n")))
+            .isInstanceOf(PacmanConfigurationException.class)
+            .hasMessageContaining("1,1");
+    }
+
+    /**
+     * Verifies an empty stream is rejected.
+     */
+    @Test
+    void empty() {
+        assertThatThrownBy(() -> parser.parseLargeMap(stream("")))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * @param x
+     *            The column of a square.
+     * @param y
+     *            The row of a square.
+     * @return A pellet on every other square, and empty squares in between.
+     */
+    private static char cell(int x, int y) {
+        if ((x + y) % 2 == 0) {
+            return '.';
+        }
+        return ' ';
+    }
+
+    /**
+     * @param text
+     *            The text of a map.
+     * @return A stream of the text.
+     */
+    private static InputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param board
+     *            The board to describe.
+     * @return The kinds of squares and the kinds of units on them, square by
+     *         square.
+     */
+    private static List<String> layout(Board board) {
+        List<String> layout = new ArrayList<>();
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            Square square = board.squareAtIndex(i);
+            StringBuilder description = new StringBuilder(square.getClass().getSimpleName());
+            for (Unit unit : square.getOccupants()) {
+                description.append(' ').append(unit.getClass().getSimpleName());
+            }
+            layout.add(description.toString());
+        }
+        return layout;
+    }
+
+    /**
+     * An unbuffered stream handing out at most one byte per read.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class Trickle extends InputStream {
+
+        /**
+         * The stream to read from.
+         */
+        private final InputStream source;
+
+        /**
+         * @param source
+         *            The stream to read from.
+         */
+        Trickle(InputStream source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() throws IOException {
+            return source.read();
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (length == 0) {
+                return 0;
+            }
+            int b = source.read();
+            if (b < 0) {
+                return -1;
+            }
+            buffer[offset] = (byte) b;
+            return 1;
+        }
+
+        @Override
+        public int available() {
+            return 0;
+        }
+
+        @Override
+        public void close() throws IOException {
+            source.close();
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies a {@link LevelState} plays out moves the same way as the level it
+ * was captured from, and that its moves can be undone.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class LevelStateTest {
+
+    /**
+     * A small map with two ghosts, some pellets and a wall in the middle.
+     */
+    private static final List<String> MAP = Lists.newArrayList(
+        "#######", "#G. .G#", "#..P..#", "#.#. .#", "#######");
+
+    /**
+     * The directions, by ordinal.
+     */
+    private static final Direction[] DIRECTIONS = Direction.values();
+
+    /**
+     * The level the state is captured from.
+     */
+    private Level level;
+
+    /**
+     * The player on the level.
+     */
+    private Player player;
+
+    /**
+     * Creates a started level whose ghosts only move when told to.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new HeadlessSprites();
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        level = parser.parseMap(MAP);
+        level.setScheduler(new VirtualClock());
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+        level.start();
+    }
+
+    /**
+     * Verifies a state captured from a level describes it.
+     */
+    @Test
+    void captured() {
+        LevelState state = LevelState.of(level);
+        Board board = level.getBoard();
+        assertThat(state.getBoard()).isSameAs(board);
+        assertThat(state.getPlayerCount()).isEqualTo(1);
+        assertThat(state.getGhostCount()).isEqualTo(2);
+        assertThat(state.getPlayerSquare(0)).isEqualTo(board.squareAt(3, 2).getIndex());
+        assertThat(state.getGhostSquare(0)).isEqualTo(board.squareAt(1, 1).getIndex());
+        assertThat(state.remainingPellets()).isEqualTo(level.remainingPellets());
+        assertThat(state.hasPellet(board.squareAt(2, 1).getIndex())).isTrue();
+        assertThat(state.hasPellet(board.squareAt(3, 1).getIndex())).isFalse();
+        assertThat(state.canPlayerMove(0, Direction.SOUTH)).isTrue();
+        assertThat(state.canGhostMove(0, Direction.WEST)).isFalse();
+        assertThat(state.isAlive(0)).isTrue();
+    }
+
+    /**
+     * Verifies random moves have the same effect on a state as on the level,
+     * for a number of seeds.
+     */
+    @Test
+    void sameAsLevel() {
+        for (long seed = 0L; seed < 20L; seed++) {
+            setUp();
+            playRandomly(new Random(seed));
+        }
+    }
+
+    /**
+     * Verifies undoing all moves restores the state, and that moves on a
+     * fork do not change the state it was forked from.
+     */
+    @Test
+    void undoAndFork() {
+        LevelState state = LevelState.of(level);
+        LevelState fork = state.fork();
+        Random random = new Random(3L);
+        for (int i = 0; i < 200; i++) {
+            move(fork, random.nextInt(3), DIRECTIONS[random.nextInt(DIRECTIONS.length)]);
+        }
+        assertSame(state, LevelState.of(level));
+        while (fork.canUndo()) {
+            fork.undo();
+        }
+        assertSame(fork, state);
+    }
+
+    /**
+     * Verifies a player walking into a ghost dies, and comes back to life
+     * when the move is undone.
+     */
+    @Test
+    void killed() {
+        LevelState state = LevelState.of(level);
+        state.moveGhost(1, Direction.SOUTH);
+        state.moveGhost(1, Direction.WEST);
+        assertThat(state.isAlive(0)).isTrue();
+        state.movePlayer(0, Direction.EAST);
+        assertThat(state.isLost()).isTrue();
+        assertThat(state.getScore(0)).isEqualTo(10);
+        state.undo();
+        assertThat(state.isAlive(0)).isTrue();
+        assertThat(state.getScore(0)).isZero();
+    }
+
+    /**
+     * Makes random moves on the level and on a state captured from it,
+     * comparing them after every move until the game ends.
+     *
+     * @param random
+     *            The source of the moves.
+     */
+    private void playRandomly(Random random) {
+        LevelState state = LevelState.of(level);
+        List<Unit> units = new ArrayList<>();
+        units.add(player);
+        units.addAll(ghosts());
+        for (int i = 0; i < 500 && !state.isWon() && !state.isLost(); i++) {
+            int unit = random.nextInt(units.size());
+            Direction direction = DIRECTIONS[random.nextInt(DIRECTIONS.length)];
+            level.move(units.get(unit), direction);
+            move(state, unit, direction);
+            assertSame(state, LevelState.of(level));
+        }
+    }
+
+    /**
+     * @return The ghosts on the level, in the order of their squares.
+     */
+    private List<Ghost> ghosts() {
+        List<Ghost> ghosts = new ArrayList<>();
+        Board board = level.getBoard();
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            for (Unit unit : board.squareAtIndex(i).getOccupants()) {
+                if (unit instanceof Ghost) {
+                    ghosts.add((Ghost) unit);
+                }
+            }
+        }
+        return ghosts;
+    }
+
+    /**
+     * Moves a unit on a state.
+     *
+     * @param state
+     *            The state.
+     * @param unit
+     *            The player if 0, otherwise one more than the ghost.
+     * @param direction
+     *            The direction to move in.
+     */
+    private static void move(LevelState state, int unit, Direction direction) {
+        if (unit == 0) {
+            state.movePlayer(0, direction);
+        } else {
+            state.moveGhost(unit - 1, direction);
+        }
+    }
+
+    /**
+     * @param state
+     *            A state.
+     * @return The squares of its ghosts. Ghosts are numbered by their squares
+     *         when a state is captured, so the order may differ.
+     */
+    private static Integer[] ghostSquares(LevelState state) {
+        Integer[] squares = new Integer[state.getGhostCount()];
+        for (int ghost = 0; ghost < squares.length; ghost++) {
+            squares[ghost] = state.getGhostSquare(ghost);
+        }
+        return squares;
+    }
+
+    /**
+     * Asserts two states have their units and pellets in the same places.
+     *
+     * @param actual
+     *            The state to check.
+     * @param expected
+     *            The state it should match.
+     */
+    private static void assertSame(LevelState actual, LevelState expected) {
+        assertThat(actual.getPlayerSquare(0)).isEqualTo(expected.getPlayerSquare(0));
+        assertThat(actual.isAlive(0)).isEqualTo(expected.isAlive(0));
+        assertThat(actual.getScore(0)).isEqualTo(expected.getScore(0));
+        assertThat(actual.remainingPellets()).isEqualTo(expected.remainingPellets());
+        assertThat(ghostSquares(actual)).containsExactlyInAnyOrder(ghostSquares(expected));
+        for (int i = 0; i < expected.getBoard().getSquareCount(); i++) {
+            assertThat(actual.hasPellet(i)).isEqualTo(expected.hasPellet(i));
+        }
+    }
+}
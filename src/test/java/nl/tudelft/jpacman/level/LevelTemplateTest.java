@@ -0,0 +1,152 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the levels created from a {@link LevelTemplate} are identical,
+ * but independent of each other.
+ *
+ * @author Jeroen Roosen
+ */
+class LevelTemplateTest {
+
+    /**
+     * The parser creating the template.
+     */
+    private MapParser parser;
+
+    /**
+     * The template of the default board.
+     */
+    private LevelTemplate template;
+
+    /**
+     * Parses the default board into a template.
+     *
+     * @throws IOException
+     *             when the default board cannot be read.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        PacManSprites sprites = new HeadlessSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        template = parser.parseTemplate("/board.txt");
+    }
+
+    /**
+     * Verifies every level has its own board with the same layout, pellets
+     * and ghosts.
+     */
+    @Test
+    void identicalLevels() {
+        Level first = template.createLevel();
+        Level second = template.createLevel();
+
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getBoard()).isNotSameAs(first.getBoard());
+        assertThat(second.remainingPellets()).isEqualTo(first.remainingPellets());
+        assertSameLayout(first.getBoard(), second.getBoard());
+    }
+
+    /**
+     * Verifies a level stamped from the layout of a map is connected and
+     * occupied like the level parsed from the same map.
+     *
+     * @throws IOException
+     *             when the default board cannot be read.
+     */
+    @Test
+    void sameAsParsed() throws IOException {
+        Board expected = parser.parseMap("/board.txt").getBoard();
+        Board actual = template.createLevel().getBoard();
+
+        assertSameLayout(expected, actual);
+        for (int i = 0; i < expected.getSquareCount(); i++) {
+            for (Direction direction : Direction.values()) {
+                assertThat(actual.squareAtIndex(i).getSquareAt(direction).getIndex())
+                    .isEqualTo(expected.squareAtIndex(i).getSquareAt(direction).getIndex());
+            }
+        }
+    }
+
+    /**
+     * Verifies a map with a character that is not supported is rejected when
+     * it is parsed, not when the first level is created.
+     */
+    @Test
+    void invalidCharacter() {
+        assertThatThrownBy(() -> parser.parseTemplate(Lists.newArrayList("#P?#")))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * Verifies levels built in the background are identical as well.
+     */
+    @Test
+    void prebuilt() {
+        Level first = template.createLevel();
+        template.setPrebuild(true);
+        Level second = template.createLevel();
+        Level third = template.createLevel();
+
+        assertThat(third).isNotSameAs(second);
+        assertSameLayout(first.getBoard(), second.getBoard());
+        assertSameLayout(first.getBoard(), third.getBoard());
+    }
+
+    /**
+     * Verifies changing one level does not affect the others.
+     */
+    @Test
+    void independent() {
+        Level first = template.createLevel();
+        Square square = first.getBoard().squareAt(1, 1);
+        square.getOccupants().get(0).leaveSquare();
+
+        Level second = template.createLevel();
+        assertThat(second.remainingPellets()).isEqualTo(first.remainingPellets() + 1);
+    }
+
+    /**
+     * Asserts two boards have the same squares, occupied by the same kinds
+     * of units.
+     *
+     * @param expected
+     *            The board to compare with.
+     * @param actual
+     *            The board to verify.
+     */
+    private static void assertSameLayout(Board expected, Board actual) {
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        for (int i = 0; i < expected.getSquareCount(); i++) {
+            Square square = expected.squareAtIndex(i);
+            Square other = actual.squareAtIndex(i);
+            assertThat(other.getClass()).isEqualTo(square.getClass());
+            assertThat(other.getOccupants()).hasSameSizeAs(square.getOccupants());
+            for (int u = 0; u < square.getOccupants().size(); u++) {
+                Unit unit = square.getOccupants().get(u);
+                assertThat(other.getOccupants().get(u).getClass()).isEqualTo(unit.getClass());
+            }
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies moves submitted to a {@link MoveLoop} are applied in batches.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class MoveLoopTest {
+
+    /**
+     * The loop under test.
+     */
+    private MoveLoop loop;
+
+    /**
+     * A level of a single corridor, whose moves are applied by the loop.
+     */
+    private Level level;
+
+    /**
+     * The player on the level.
+     */
+    private Player player;
+
+    /**
+     * Creates a started level using the loop, with a player on it.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = new HeadlessSprites();
+        LevelFactory factory = new LevelFactory(sprites, new GhostFactory(sprites));
+        loop = new MoveLoop(1L);
+        factory.setMoveLoop(loop);
+        MapParser parser = new MapParser(factory, new BoardFactory(sprites));
+        level = parser.parseMap(Lists.newArrayList("########", "#P  ...#", "########"));
+        level.setScheduler(new VirtualClock());
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+        level.start();
+    }
+
+    /**
+     * Verifies moves wait in the queue until the next batch applies them in
+     * order.
+     */
+    @Test
+    void batched() {
+        List<Integer> batches = new ArrayList<>();
+        loop.addObserver((size, depth, nanos) -> batches.add(size));
+
+        level.move(player, Direction.EAST);
+        level.move(player, Direction.EAST);
+        assertThat(player.getSquare()).isSameAs(level.getBoard().squareAt(1, 1));
+        assertThat(loop.getQueueDepth()).isEqualTo(2);
+
+        assertThat(loop.applyBatch()).isEqualTo(2);
+        assertThat(player.getSquare()).isSameAs(level.getBoard().squareAt(3, 1));
+        assertThat(loop.getQueueDepth()).isZero();
+        assertThat(loop.getLastBatchSize()).isEqualTo(2);
+        assertThat(loop.getLastBatchNanos()).isPositive();
+        assertThat(batches).containsExactly(2);
+    }
+
+    /**
+     * Verifies moves queued on a level that was stopped are dropped.
+     */
+    @Test
+    void stoppedLevel() {
+        level.move(player, Direction.EAST);
+        level.stop();
+        loop.applyBatch();
+        assertThat(player.getSquare()).isSameAs(level.getBoard().squareAt(1, 1));
+    }
+
+    /**
+     * Verifies a move that throws an error is counted and reported, and
+     * does not keep the rest of the batch from being applied.
+     */
+    @Test
+    void failingMove() {
+        List<Throwable> failures = new ArrayList<>();
+        loop.addObserver(new MoveLoop.BatchObserver() {
+            @Override
+            public void batchApplied(int size, int queueDepth, long nanos) {
+                // Only failures are of interest.
+            }
+
+            @Override
+            public void moveFailed(Unit unit, Direction direction, Throwable failure) {
+                failures.add(failure);
+            }
+        });
+        Unit broken = new BrokenUnit();
+        broken.occupy(level.getBoard().squareAt(4, 1));
+
+        loop.submit(level, broken, Direction.EAST);
+        level.move(player, Direction.EAST);
+        assertThat(loop.applyBatch()).isEqualTo(2);
+
+        assertThat(failures).hasSize(1).allMatch(AssertionError.class::isInstance);
+        assertThat(loop.getFailureCount()).isEqualTo(1);
+        assertThat(player.getSquare()).isSameAs(level.getBoard().squareAt(2, 1));
+    }
+
+    /**
+     * Verifies no thread applies batches anymore once the loop is stopped,
+     * even when it is started and stopped in quick succession.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted.
+     */
+    @Test
+    void stopWaitsForWorker() throws InterruptedException {
+        for (int i = 0; i < 50; i++) {
+            loop.start();
+            loop.stop();
+        }
+        level.move(player, Direction.EAST);
+        TimeUnit.MILLISECONDS.sleep(20L);
+        assertThat(loop.getQueueDepth()).isEqualTo(1);
+        assertThat(loop.getFailureCount()).isZero();
+    }
+
+    /**
+     * Verifies moves submitted by many threads at once are all applied by
+     * the running loop.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted.
+     */
+    @Test
+    void manyProducers() throws InterruptedException {
+        int producers = 4;
+        int moves = 1000;
+        AtomicInteger applied = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(1);
+        loop.addObserver((size, depth, nanos) -> {
+            if (applied.addAndGet(size) == producers * moves) {
+                done.countDown();
+            }
+        });
+        loop.start();
+        try {
+            for (Thread thread : startProducers(producers, moves)) {
+                thread.join();
+            }
+            assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            loop.stop();
+        }
+        assertThat(loop.getQueueDepth()).isZero();
+        assertThat(player.getSquare()).isSameAs(level.getBoard().squareAt(1, 1));
+    }
+
+    /**
+     * Starts threads that each submit moves of the player to the west.
+     *
+     * @param producers
+     *            The number of threads.
+     * @param moves
+     *            The number of moves every thread submits.
+     * @return The threads.
+     */
+    private List<Thread> startProducers(int producers, int moves) {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < producers; i++) {
+            Thread thread = new Thread(() -> {
+                for (int m = 0; m < moves; m++) {
+                    level.move(player, Direction.WEST);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        return threads;
+    }
+
+    /**
+     * A unit that fails with an error whenever it is moved.
+     */
+    private static final class BrokenUnit extends Unit {
+
+        @Override
+        public void setDirection(Direction newDirection) {
+            throw new AssertionError("Broken unit moved.");
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import nl.tudelft.jpacman.PacmanConfigurationException;
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.npc.ghost.PathTable;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies maps converted to the binary {@link PacMap} format load into the
+ * same levels as their text.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class PacMapTest {
+
+    /**
+     * The parser under test.
+     */
+    private MapParser parser;
+
+    /**
+     * The text of the default board.
+     */
+    private List<String> text;
+
+    /**
+     * The file the binary map is written to.
+     */
+    private Path file;
+
+    /**
+     * Reads the default board and creates a file to convert it to.
+     *
+     * @throws IOException
+     *             when the board could not be read or the file created.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        PacManSprites sprites = new HeadlessSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        try (InputStream source = PacMapTest.class.getResourceAsStream("/board.txt");
+             BufferedReader reader = new BufferedReader(
+                 new InputStreamReader(source, StandardCharsets.UTF_8))) {
+            text = reader.lines().collect(Collectors.toList());
+        }
+        file = Files.createTempFile("board", ".pacmap");
+    }
+
+    /**
+     * Removes the converted file.
+     *
+     * @throws IOException
+     *             when the file could not be removed.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    /**
+     * Verifies a map without distances loads into the same level.
+     *
+     * @throws IOException
+     *             when the file could not be written or read.
+     */
+    @Test
+    void withoutDistances() throws IOException {
+        parser.writeBinaryMap(text, file, false);
+        Level expected = parser.parseMap(text);
+        Level actual = parser.parseBinaryMap(file);
+
+        assertThat(actual.remainingPellets()).isEqualTo(expected.remainingPellets());
+        assertSameLayout(expected.getBoard(), actual.getBoard());
+        assertThat(PathTable.lookup(actual.getBoard(), findGhost(actual.getBoard()))).isNull();
+    }
+
+    /**
+     * Verifies the distances in a map are used by the ghosts of the level.
+     *
+     * @throws IOException
+     *             when the file could not be written or read.
+     */
+    @Test
+    void withDistances() throws IOException {
+        parser.writeBinaryMap(text, file, true);
+        Level expected = parser.parseMap(text);
+        Level actual = parser.parseBinaryMap(file);
+
+        assertSameLayout(expected.getBoard(), actual.getBoard());
+        Board board = actual.getBoard();
+        PathTable table = PathTable.lookup(board, findGhost(board));
+        assertThat(table).isNotNull();
+        Square from = board.squareAt(1, 1);
+        Square to = board.squareAt(1, 2);
+        assertThat(table.distance(from, to)).isEqualTo(1);
+    }
+
+    /**
+     * Verifies distances requested for a board that is too large for them
+     * are reported, instead of writing a file without them.
+     *
+     * @throws IOException
+     *             when the file could not be removed.
+     */
+    @Test
+    void tooLargeForDistances() throws IOException {
+        Files.delete(file);
+        List<String> large = new ArrayList<>();
+        for (int y = 0; y < 50; y++) {
+            large.add(String.join("", Collections.nCopies(50, " ")));
+        }
+
+        assertThatThrownBy(() -> parser.writeBinaryMap(large, file, true))
+            .isInstanceOf(PacmanConfigurationException.class);
+        assertThat(file).doesNotExist();
+    }
+
+    /**
+     * Verifies files in another format are rejected.
+     */
+    @Test
+    void notAPacMap() {
+        ByteBuffer buffer = ByteBuffer.wrap("#...#...#...#...".getBytes(StandardCharsets.UTF_8));
+        assertThatThrownBy(() -> PacMap.read(buffer))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * Verifies the ghosts and start positions are placed on the same squares
+     * as in the text, the ghosts in the same order.
+     *
+     * @throws IOException
+     *             when the file could not be written or read.
+     */
+    @Test
+    void sameUnits() throws IOException {
+        parser.writeBinaryMap(text, file, false);
+        Board expected = parser.parseMap(text).getBoard();
+        Board actual = parser.parseBinaryMap(file).getBoard();
+
+        for (int i = 0; i < expected.getSquareCount(); i++) {
+            List<Unit> occupants = actual.squareAtIndex(i).getOccupants();
+            assertThat(occupants).extracting(Object::getClass).containsExactlyElementsOf(
+                expected.squareAtIndex(i).getOccupants().stream().map(Object::getClass)
+                    .collect(Collectors.toList()));
+        }
+    }
+
+    /**
+     * Verifies files with counts, sizes or indices that do not fit the file
+     * or the board are rejected as invalid maps.
+     */
+    @Test
+    void corrupt() {
+        ByteBuffer valid = PacMap.encode(new char[][] {{'#', 'P'}, {'G', '.'}}, null);
+        assertThat(PacMap.read(valid.duplicate()).getGhosts()).containsExactly(2);
+
+        assertCorrupt(valid, 8, Integer.MAX_VALUE);
+        assertCorrupt(valid, 8, -1);
+        assertCorrupt(valid, 16, 0x58585858);
+        assertCorrupt(valid, 20, Integer.MAX_VALUE);
+        assertCorrupt(valid, 24, 4);
+        assertCorrupt(valid, 24, 0);
+        assertCorrupt(valid, 32, 3);
+        ByteBuffer truncated = valid.duplicate();
+        truncated.limit(truncated.limit() - 1);
+        assertThatThrownBy(() -> PacMap.read(truncated))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * Asserts a map is rejected once a value in it is overwritten.
+     *
+     * @param valid
+     *            The valid map.
+     * @param position
+     *            The position of the value to overwrite.
+     * @param value
+     *            The int to write.
+     */
+    private static void assertCorrupt(ByteBuffer valid, int position, int value) {
+        ByteBuffer corrupt = ByteBuffer.allocate(valid.remaining());
+        corrupt.put(valid.duplicate()).flip();
+        corrupt.putInt(position, value);
+        assertThatThrownBy(() -> PacMap.read(corrupt))
+            .isInstanceOf(PacmanConfigurationException.class);
+    }
+
+    /**
+     * @param board
+     *            The board to search.
+     * @return The first ghost on the board.
+     */
+    private static Unit findGhost(Board board) {
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            for (Unit unit : board.squareAtIndex(i).getOccupants()) {
+                if (unit instanceof Ghost) {
+                    return unit;
+                }
+            }
+        }
+        throw new AssertionError("No ghost on the board.");
+    }
+
+    /**
+     * Asserts two boards have the same squares, occupied by the same kinds
+     * of units.
+     *
+     * @param expected
+     *            The board to compare with.
+     * @param actual
+     *            The board to verify.
+     */
+    private static void assertSameLayout(Board expected, Board actual) {
+        assertThat(actual.getWidth()).isEqualTo(expected.getWidth());
+        assertThat(actual.getHeight()).isEqualTo(expected.getHeight());
+        for (int i = 0; i < expected.getSquareCount(); i++) {
+            Square square = expected.squareAtIndex(i);
+            Square other = actual.squareAtIndex(i);
+            assertThat(other.getClass()).isEqualTo(square.getClass());
+            assertThat(other.getOccupants()).hasSameSizeAs(square.getOccupants());
+        }
+    }
+}
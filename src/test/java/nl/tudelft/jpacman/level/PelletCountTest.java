@@ -0,0 +1,81 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the pellet count a level keeps track of while pellets are eaten.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class PelletCountTest {
+
+    /**
+     * The level under test.
+     */
+    private Level level;
+
+    /**
+     * The player eating the pellets.
+     */
+    private Player player;
+
+    /**
+     * Creates a small level with three pellets and a player.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = mock(PacManSprites.class);
+        when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+        MapParser parser = new MapParser(
+            new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+        level = parser.parseMap(Lists.newArrayList("#####", "#P..#", "#.  #", "#####"));
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+    }
+
+    /**
+     * Verifies the initial count matches the pellets on the map.
+     */
+    @Test
+    void initialCount() {
+        assertThat(level.remainingPellets()).isEqualTo(3);
+    }
+
+    /**
+     * Verifies eating a pellet lowers the count.
+     */
+    @Test
+    void eatPellet() {
+        level.start();
+        level.move(player, Direction.EAST);
+        assertThat(level.remainingPellets()).isEqualTo(2);
+        level.stop();
+    }
+
+    /**
+     * Verifies walking over an empty square leaves the count intact.
+     */
+    @Test
+    void revisitSquare() {
+        level.start();
+        level.move(player, Direction.EAST);
+        level.move(player, Direction.WEST);
+        level.move(player, Direction.EAST);
+        assertThat(level.remainingPellets()).isEqualTo(2);
+        level.stop();
+    }
+}
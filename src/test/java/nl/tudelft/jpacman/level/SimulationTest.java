@@ -0,0 +1,133 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.level.Simulation.Outcome;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Plays levels in a headless {@link Simulation}.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class SimulationTest {
+
+    /**
+     * The sprites, which need no display.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * Map parser used to construct levels.
+     */
+    private MapParser parser;
+
+    /**
+     * Set up the map parser.
+     */
+    @BeforeEach
+    void setUp() {
+        sprites = new HeadlessSprites();
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(sprites)),
+            new BoardFactory(sprites));
+    }
+
+    /**
+     * Verifies a player eating all pellets wins, at the time of the last
+     * move.
+     */
+    @Test
+    void win() {
+        Level level = parser.parseMap(Lists.newArrayList("#######", "#P....#", "#######"));
+        Simulation simulation = new Simulation(level, new PlayerFactory(sprites).createPacMan());
+
+        Outcome outcome = simulation.run((lvl, player) -> Direction.EAST, 100L, 10_000L);
+
+        assertThat(outcome).isEqualTo(Outcome.WON);
+        assertThat(simulation.getClock().now()).isEqualTo(400L);
+        assertThat(level.isInProgress()).isFalse();
+    }
+
+    /**
+     * Verifies a player that stands still on the default board is caught by
+     * the ghosts, within minutes of virtual time.
+     *
+     * @throws IOException
+     *             when the board cannot be read.
+     */
+    @Test
+    void lose() throws IOException {
+        Level level = parser.parseMap("/board.txt");
+        Player player = new PlayerFactory(sprites).createPacMan();
+        Simulation simulation = new Simulation(level, player);
+
+        Outcome outcome = simulation.run((lvl, p) -> null, 200L, 600_000L);
+
+        assertThat(outcome).isEqualTo(Outcome.LOST);
+        assertThat(player.isAlive()).isFalse();
+        assertThat(simulation.getClock().now()).isLessThan(600_000L);
+    }
+
+    /**
+     * Verifies the simulation stops at the time limit if the level has not
+     * ended.
+     */
+    @Test
+    void timeLimit() {
+        Level level = parser.parseMap(Lists.newArrayList("#####", "#P#.#", "#####"));
+        Simulation simulation = new Simulation(level, new PlayerFactory(sprites).createPacMan());
+
+        Outcome outcome = simulation.run((lvl, player) -> Direction.EAST, 100L, 5_000L);
+
+        assertThat(outcome).isEqualTo(Outcome.TIME_LIMIT);
+        assertThat(simulation.getClock().now()).isEqualTo(5_000L);
+        assertThat(level.remainingPellets()).isEqualTo(1);
+    }
+
+    /**
+     * Verifies levels with the same seed play out the same way.
+     *
+     * @throws IOException
+     *             when the board cannot be read.
+     */
+    @Test
+    void reproducible() throws IOException {
+        assertThat(timeOfDeath(42L)).isEqualTo(timeOfDeath(42L));
+    }
+
+    /**
+     * Plays the default board with the given seed, with a player moving back
+     * and forth until he is caught.
+     *
+     * @param seed
+     *            The seed of the level.
+     * @return The virtual time at which the player was caught.
+     * @throws IOException
+     *             when the board cannot be read.
+     */
+    private long timeOfDeath(long seed) throws IOException {
+        LevelFactory factory = new LevelFactory(sprites, new GhostFactory(sprites));
+        factory.setSeed(seed);
+        Level level = new MapParser(factory, new BoardFactory(sprites)).parseMap("/board.txt");
+        Simulation simulation = new Simulation(level, new PlayerFactory(sprites).createPacMan());
+        Direction[] moves = {Direction.WEST, Direction.EAST};
+
+        Outcome outcome = simulation.run(
+            (lvl, player) -> moves[(int) (simulation.getClock().now() / 1000L % 2)],
+            150L, 600_000L);
+
+        assertThat(outcome).isEqualTo(Outcome.LOST);
+        return simulation.getClock().now();
+    }
+}
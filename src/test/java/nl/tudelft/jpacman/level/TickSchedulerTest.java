@@ -0,0 +1,173 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import nl.tudelft.jpacman.level.TickScheduler.Timeout;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the shared timer wheel driving the NPCs.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class TickSchedulerTest {
+
+    /**
+     * The scheduler under test, with a small wheel so that tasks wrap around.
+     */
+    private TickScheduler scheduler;
+
+    /**
+     * Creates a fresh scheduler.
+     */
+    @BeforeEach
+    void setUp() {
+        scheduler = new TickScheduler(1L, 8);
+    }
+
+    /**
+     * Verifies a recurring task keeps running with the delay it returns.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted while waiting.
+     */
+    @Test
+    void recurs() throws InterruptedException {
+        CountDownLatch runs = new CountDownLatch(3);
+        scheduler.schedule(mock(Level.class), () -> {
+            runs.countDown();
+            return 20L;
+        }, 0L);
+        assertThat(runs.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    /**
+     * Verifies the scheduler counts the levels and ghosts it serves.
+     */
+    @Test
+    void countsLevelsAndGhosts() {
+        Level first = mock(Level.class);
+        Level second = mock(Level.class);
+        scheduler.schedule(first, () -> 1000L, 1000L);
+        scheduler.schedule(first, () -> 1000L, 1000L);
+        Timeout timeout = scheduler.schedule(second, () -> 1000L, 1000L);
+
+        assertThat(scheduler.getLevelCount()).isEqualTo(2);
+        assertThat(scheduler.getGhostCount()).isEqualTo(3);
+
+        timeout.cancel();
+        assertThat(scheduler.getLevelCount()).isEqualTo(1);
+        assertThat(scheduler.getGhostCount()).isEqualTo(2);
+    }
+
+    /**
+     * Verifies a task that throws is logged as a warning and not run again.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted while waiting.
+     */
+    @Test
+    void failureLogged() throws InterruptedException {
+        Logger logger = Logger.getLogger(TickScheduler.class.getName());
+        RecordingHandler handler = new RecordingHandler();
+        logger.addHandler(handler);
+        try {
+            AtomicInteger runs = new AtomicInteger();
+            scheduler.schedule(mock(Level.class), () -> {
+                runs.incrementAndGet();
+                throw new IllegalStateException("broken ghost");
+            }, 0L);
+            LogRecord record = handler.records.poll(5, TimeUnit.SECONDS);
+
+            assertThat(record).isNotNull();
+            assertThat(record.getLevel()).isEqualTo(java.util.logging.Level.WARNING);
+            assertThat(record.getThrown()).hasMessage("broken ghost");
+            Thread.sleep(50L);
+            assertThat(runs.get()).isEqualTo(1);
+        } finally {
+            logger.removeHandler(handler);
+        }
+    }
+
+    /**
+     * Verifies a cancelled task is not executed anymore.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted while waiting.
+     */
+    @Test
+    void cancel() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        Timeout timeout = scheduler.schedule(mock(Level.class), () -> {
+            runs.incrementAndGet();
+            return 1L;
+        }, 50L);
+        timeout.cancel();
+        Thread.sleep(100L);
+
+        assertThat(runs.get()).isZero();
+        assertThat(timeout.isCancelled()).isTrue();
+        assertThat(scheduler.getGhostCount()).isZero();
+    }
+
+    /**
+     * Verifies a task that finishes by itself is no longer counted.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted while waiting.
+     */
+    @Test
+    void finish() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(1);
+        scheduler.schedule(mock(Level.class), () -> {
+            done.countDown();
+            return -1L;
+        }, 0L);
+        assertThat(done.await(5, TimeUnit.SECONDS)).isTrue();
+        Thread.sleep(50L);
+
+        assertThat(scheduler.getGhostCount()).isZero();
+        assertThat(scheduler.getLevelCount()).isZero();
+    }
+
+    /**
+     * A log handler keeping the records it is given.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class RecordingHandler extends Handler {
+
+        /**
+         * The records published so far.
+         */
+        private final BlockingQueue<LogRecord> records = new LinkedBlockingQueue<>();
+
+        @Override
+        public void publish(LogRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {
+            // Nothing is buffered.
+        }
+
+        @Override
+        public void close() {
+            // Nothing to release.
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+
+/**
+ * Verifies a {@link TickSnapshot.Recorder} captures the changed squares of
+ * boards of any size, sharing the others with the previous snapshot.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class TickSnapshotTest {
+
+    /**
+     * Verifies a unit moved between two snapshots only shows in the later
+     * one, while the squares that did not change are shared and only the
+     * changed ones are reported as differences.
+     *
+     * @param width
+     *            The width of the board.
+     * @param height
+     *            The height of the board.
+     */
+    @ParameterizedTest
+    @CsvSource({"1, 2", "3, 11", "40, 40", "70, 20"})
+    void changesOnly(int width, int height) {
+        PacManSprites sprites = new HeadlessSprites();
+        Board board = createBoard(sprites, width, height);
+        Player player = new PlayerFactory(sprites).createPacMan();
+        player.occupy(board.squareAtIndex(0));
+        int last = board.getSquareCount() - 1;
+        TickSnapshot.Recorder recorder = new TickSnapshot.Recorder(board);
+
+        TickSnapshot first = recorder.take(1L);
+        assertThat(recorder.take(2L).getSprites(0)).isSameAs(first.getSprites(0));
+        player.occupy(board.squareAtIndex(last));
+        TickSnapshot third = recorder.take(3L);
+
+        assertThat(first.getSprites(0)).containsExactly(player.getSprite());
+        assertThat(first.getSprites(last)).isEmpty();
+        assertThat(third.getSprites(0)).isEmpty();
+        assertThat(third.getSprites(last)).containsExactly(player.getSprite());
+        for (int i = 1; i < last; i++) {
+            assertThat(third.getSprites(i)).isSameAs(first.getSprites(i));
+        }
+        List<Integer> changes = new ArrayList<>();
+        third.forEachChange(first, changes::add);
+        assertThat(changes).containsExactlyInAnyOrder(0, last);
+    }
+
+    /**
+     * Creates a board of empty squares.
+     *
+     * @param sprites
+     *            The sprites of the squares.
+     * @param width
+     *            The width of the board.
+     * @param height
+     *            The height of the board.
+     * @return The new board.
+     */
+    private static Board createBoard(PacManSprites sprites, int width, int height) {
+        BoardFactory factory = new BoardFactory(sprites);
+        Square[][] grid = new Square[width][height];
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                grid[x][y] = factory.createGround();
+            }
+        }
+        return factory.createBoard(grid);
+    }
+}
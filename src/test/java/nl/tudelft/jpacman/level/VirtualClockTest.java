@@ -0,0 +1,84 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import nl.tudelft.jpacman.level.Scheduler.Task;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the order in which a {@link VirtualClock} executes its tasks.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class VirtualClockTest {
+
+    /**
+     * The clock under test.
+     */
+    private VirtualClock clock;
+
+    /**
+     * The tasks executed, with the time at which they ran.
+     */
+    private List<String> log;
+
+    /**
+     * Creates a fresh clock.
+     */
+    @BeforeEach
+    void setUp() {
+        clock = new VirtualClock();
+        log = new ArrayList<>();
+    }
+
+    /**
+     * Verifies tasks run at their virtual time, in the order in which they
+     * were scheduled when they are due at the same time.
+     */
+    @Test
+    void order() {
+        clock.schedule(mock(Level.class), () -> {
+            log.add("a" + clock.now());
+            return 30L;
+        }, 10L);
+        clock.schedule(mock(Level.class), () -> {
+            log.add("b" + clock.now());
+            return 20L;
+        }, 20L);
+
+        clock.advanceTo(60L);
+
+        assertThat(log).containsExactly("a10", "b20", "a40", "b40", "b60");
+        assertThat(clock.now()).isEqualTo(60L);
+    }
+
+    /**
+     * Verifies cancelled and finished tasks no longer run.
+     */
+    @Test
+    void cancelAndFinish() {
+        Task cancelled = clock.schedule(mock(Level.class), () -> {
+            log.add("cancelled");
+            return 1L;
+        }, 5L);
+        clock.schedule(mock(Level.class), () -> {
+            log.add("once");
+            return -1L;
+        }, 5L);
+        cancelled.cancel();
+
+        while (clock.step()) {
+            assertThat(log.size()).isLessThan(2);
+        }
+
+        assertThat(log).containsExactly("once");
+        assertThat(clock.nextEventTime()).isEqualTo(Long.MAX_VALUE);
+    }
+}
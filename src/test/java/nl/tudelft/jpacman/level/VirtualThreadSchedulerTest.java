@@ -0,0 +1,214 @@
+package nl.tudelft.jpacman.level;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.level.Scheduler.Task;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the {@link VirtualThreadScheduler} paces its tasks, and scales to
+ * thousands of levels when virtual threads are available.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class VirtualThreadSchedulerTest {
+
+    /**
+     * The number of levels played at once in the scaling test.
+     */
+    private static final int LEVELS = 10_000;
+
+    /**
+     * The most heap a running level with four ghost threads may take in the
+     * scaling test, in bytes. A level takes about 13 KB on Java 21, with the
+     * stacks of its sleeping virtual threads on the heap.
+     */
+    private static final long MAX_HEAP_PER_LEVEL = 64L * 1024L;
+
+    /**
+     * Creates daemon platform threads, standing in for virtual threads so
+     * that the tasks running on threads of their own can be verified on any
+     * runtime.
+     */
+    private static final ThreadFactory THREADS = task -> {
+        Thread thread = new Thread(task, "test-npc");
+        thread.setDaemon(true);
+        return thread;
+    };
+
+    /**
+     * Verifies a task runs repeatedly until it is cancelled.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted.
+     */
+    @Test
+    void runsUntilCancelled() throws InterruptedException {
+        VirtualThreadScheduler scheduler = new VirtualThreadScheduler(THREADS, null);
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch ran = new CountDownLatch(3);
+        Task task = scheduler.schedule(null, () -> {
+            runs.incrementAndGet();
+            ran.countDown();
+            return 1L;
+        }, 0L);
+
+        assertThat(ran.await(5, TimeUnit.SECONDS)).isTrue();
+        task.cancel();
+        awaitNoTasks(scheduler);
+        int stopped = runs.get();
+        TimeUnit.MILLISECONDS.sleep(20L);
+        assertThat(task.isCancelled()).isTrue();
+        assertThat(runs.get()).isEqualTo(stopped);
+    }
+
+    /**
+     * Verifies a task that asks not to be run again finishes.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted.
+     */
+    @Test
+    void finishes() throws InterruptedException {
+        VirtualThreadScheduler scheduler = new VirtualThreadScheduler(THREADS, null);
+        Task task = scheduler.schedule(null, () -> -1L, 0L);
+        awaitNoTasks(scheduler);
+        assertThat(task.isCancelled()).isTrue();
+    }
+
+    /**
+     * Verifies tasks are handed to the fallback scheduler when there are no
+     * virtual threads, without starting any threads.
+     */
+    @Test
+    void fallsBack() {
+        VirtualClock clock = new VirtualClock();
+        VirtualThreadScheduler scheduler = new VirtualThreadScheduler(null, clock);
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int platformBefore = threads.getThreadCount();
+        AtomicInteger runs = new AtomicInteger();
+        Task task = scheduler.schedule(null, () -> {
+            runs.incrementAndGet();
+            return 10L;
+        }, 0L);
+
+        clock.advanceTo(25L);
+        task.cancel();
+        clock.advanceTo(100L);
+        assertThat(scheduler.isVirtual()).isFalse();
+        assertThat(runs.get()).isEqualTo(3);
+        assertThat(scheduler.getTaskCount()).isZero();
+        assertThat(threads.getThreadCount()).isEqualTo(platformBefore);
+    }
+
+    /**
+     * Verifies the scheduler created for this runtime only runs the tasks
+     * on threads of their own if those are virtual threads.
+     */
+    @Test
+    void virtualOnlyWhenSupported() {
+        boolean supported;
+        try {
+            Thread.class.getMethod("ofVirtual");
+            supported = true;
+        } catch (NoSuchMethodException e) {
+            supported = false;
+        }
+        assertThat(new VirtualThreadScheduler().isVirtual()).isEqualTo(supported);
+    }
+
+    /**
+     * Starts {@value #LEVELS} levels with four ghosts each, every ghost on a
+     * virtual thread, and verifies the number of platform threads and the
+     * heap taken per level stay small. Only runs on a Java runtime with
+     * virtual threads.
+     *
+     * @throws InterruptedException
+     *             when the test is interrupted.
+     */
+    @Test
+    void scalesToThousandsOfLevels() throws InterruptedException {
+        VirtualThreadScheduler scheduler = new VirtualThreadScheduler();
+        assumeTrue(scheduler.isVirtual(), "Virtual threads need Java 21 or later");
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        int platformBefore = threads.getThreadCount();
+        long heapBefore = usedHeap();
+
+        List<Level> levels = createLevels(scheduler);
+        levels.forEach(Level::start);
+        TimeUnit.MILLISECONDS.sleep(500L);
+
+        int platformThreads = threads.getThreadCount() - platformBefore;
+        long heapPerLevel = (usedHeap() - heapBefore) / LEVELS;
+        assertThat(scheduler.getTaskCount()).isEqualTo(4 * LEVELS);
+        assertThat(platformThreads).isLessThan(Runtime.getRuntime().availableProcessors() + 16);
+        assertThat(heapPerLevel).as("heap per level in bytes")
+            .isLessThan(MAX_HEAP_PER_LEVEL);
+
+        levels.forEach(Level::stop);
+        awaitNoTasks(scheduler);
+    }
+
+    /**
+     * @param scheduler
+     *            The scheduler driving the ghosts.
+     * @return {@value #LEVELS} small levels with four ghosts each.
+     */
+    private static List<Level> createLevels(Scheduler scheduler) {
+        PacManSprites sprites = new HeadlessSprites();
+        LevelFactory factory = new LevelFactory(sprites, new GhostFactory(sprites));
+        factory.setNpcScheduler(scheduler);
+        MapParser parser = new MapParser(factory, new BoardFactory(sprites));
+        LevelTemplate template = parser.parseTemplate(
+            Lists.newArrayList("#######", "#G...G#", "#..P..#", "#G...G#", "#######"));
+        List<Level> levels = new ArrayList<>(LEVELS);
+        for (int i = 0; i < LEVELS; i++) {
+            levels.add(template.createLevel());
+        }
+        return levels;
+    }
+
+    /**
+     * @return The number of bytes in use on the heap, after a collection.
+     */
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Waits until all tasks of a scheduler have finished.
+     *
+     * @param scheduler
+     *            The scheduler to wait for.
+     * @throws InterruptedException
+     *             when the test is interrupted.
+     */
+    private static void awaitNoTasks(VirtualThreadScheduler scheduler)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10L);
+        while (scheduler.getTaskCount() > 0 && System.nanoTime() < deadline) {
+            TimeUnit.MILLISECONDS.sleep(5L);
+        }
+        assertThat(scheduler.getTaskCount()).isZero();
+    }
+}
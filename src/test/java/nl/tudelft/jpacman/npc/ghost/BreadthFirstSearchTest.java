@@ -0,0 +1,235 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Pellet;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the {@link BreadthFirstSearch} finds exactly the same paths and
+ * units as the straightforward search over squares it replaced, on randomly
+ * generated mazes.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class BreadthFirstSearchTest {
+
+    /**
+     * The number of random mazes to compare the searches on.
+     */
+    private static final int MAZES = 40;
+
+    /**
+     * The number of random searches per maze.
+     */
+    private static final int SEARCHES = 60;
+
+    /**
+     * The maximum width and height of the mazes. The reference search keeps
+     * a copy of every shortest path around, so it cannot handle large open
+     * areas.
+     */
+    private static final int MAX_SIZE = 12;
+
+    /**
+     * Map parser used to construct boards.
+     */
+    private MapParser parser;
+
+    /**
+     * The source of the random mazes, seeded to make failures reproducible.
+     */
+    private Random random;
+
+    /**
+     * The search under test, shared by all mazes to exercise its reuse.
+     */
+    private BreadthFirstSearch search;
+
+    /**
+     * Set up the map parser and the search.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = mock(PacManSprites.class);
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(
+            sprites)), new BoardFactory(sprites));
+        random = new Random(42L);
+        search = new BreadthFirstSearch(0);
+    }
+
+    /**
+     * Verifies the shortest paths, with and without a traveller, match the
+     * reference search.
+     */
+    @Test
+    void shortestPathMatchesReference() {
+        Unit traveller = mock(Unit.class);
+        for (int m = 0; m < MAZES; m++) {
+            Board board = randomMaze();
+            for (int i = 0; i < SEARCHES; i++) {
+                Square from = randomSquare(board);
+                Square to = randomSquare(board);
+                assertThat(search.shortestPath(from, to, traveller))
+                    .isEqualTo(referencePath(from, to, traveller));
+                assertThat(search.shortestPath(from, to, null))
+                    .isEqualTo(referencePath(from, to, null));
+            }
+        }
+    }
+
+    /**
+     * Verifies the nearest units found match the reference search.
+     */
+    @Test
+    void findNearestMatchesReference() {
+        for (int m = 0; m < MAZES; m++) {
+            Board board = randomMaze();
+            for (int i = 0; i < SEARCHES; i++) {
+                Square from = randomSquare(board);
+                assertThat(search.findNearest(Pellet.class, from))
+                    .isSameAs(referenceNearest(Pellet.class, from));
+                assertThat(search.findNearest(Ghost.class, from))
+                    .isSameAs(referenceNearest(Ghost.class, from));
+            }
+        }
+    }
+
+    /**
+     * Verifies square indices are dense and map back onto their squares.
+     */
+    @Test
+    void indicesAreDense() {
+        Board board = randomMaze();
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            assertThat(board.squareAtIndex(i).getIndex()).isEqualTo(i);
+        }
+    }
+
+    /**
+     * Creates a random maze of random size, with walls, pellets, empty
+     * squares and the occasional ghost.
+     *
+     * @return The board of the new maze.
+     */
+    private Board randomMaze() {
+        int width = 1 + random.nextInt(MAX_SIZE);
+        int height = 1 + random.nextInt(MAX_SIZE);
+        String tiles = "#### ....  G";
+        List<String> rows = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            StringBuilder row = new StringBuilder();
+            for (int x = 0; x < width; x++) {
+                row.append(tiles.charAt(random.nextInt(tiles.length() - 1)));
+            }
+            if (random.nextInt(4) == 0) {
+                row.setCharAt(random.nextInt(width), 'G');
+            }
+            rows.add(row.toString());
+        }
+        return parser.parseMap(rows).getBoard();
+    }
+
+    /**
+     * @param board
+     *            The board to pick a square from.
+     * @return A random square on the board.
+     */
+    private Square randomSquare(Board board) {
+        return board.squareAt(random.nextInt(board.getWidth()),
+            random.nextInt(board.getHeight()));
+    }
+
+    /**
+     * The shortest path search as originally implemented by
+     * {@link Navigation}, with a list as queue and a set of visited squares.
+     *
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     * @param traveller
+     *            The traveller, or <code>null</code> to ignore terrain.
+     * @return The shortest path or <code>null</code>.
+     */
+    private static List<Direction> referencePath(Square from, Square to, Unit traveller) {
+        if (from.equals(to)) {
+            return new ArrayList<>();
+        }
+        List<List<Direction>> paths = new ArrayList<>();
+        List<Square> targets = new ArrayList<>();
+        Set<Square> visited = new HashSet<>();
+        paths.add(new ArrayList<>());
+        targets.add(from);
+        while (!targets.isEmpty()) {
+            List<Direction> path = paths.remove(0);
+            Square square = targets.remove(0);
+            if (square.equals(to)) {
+                return path;
+            }
+            visited.add(square);
+            for (Direction direction : Direction.values()) {
+                Square target = square.getSquareAt(direction);
+                if (!visited.contains(target)
+                    && (traveller == null || target.isAccessibleTo(traveller))) {
+                    List<Direction> next = new ArrayList<>(path);
+                    next.add(direction);
+                    paths.add(next);
+                    targets.add(target);
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * The nearest unit search as originally implemented by
+     * {@link Navigation}.
+     *
+     * @param type
+     *            The type of unit to search for.
+     * @param currentLocation
+     *            The starting location for the search.
+     * @return The nearest unit of the given type, or <code>null</code>.
+     */
+    private static Unit referenceNearest(Class<? extends Unit> type,
+                                         Square currentLocation) {
+        List<Square> toDo = new ArrayList<>();
+        Set<Square> visited = new HashSet<>();
+        toDo.add(currentLocation);
+        while (!toDo.isEmpty()) {
+            Square square = toDo.remove(0);
+            Unit unit = Navigation.findUnit(type, square);
+            if (unit != null) {
+                return unit;
+            }
+            visited.add(square);
+            for (Direction direction : Direction.values()) {
+                Square newTarget = square.getSquareAt(direction);
+                if (!visited.contains(newTarget) && !toDo.contains(newTarget)) {
+                    toDo.add(newTarget);
+                }
+            }
+        }
+        return null;
+    }
+}
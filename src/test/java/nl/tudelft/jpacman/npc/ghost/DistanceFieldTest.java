@@ -0,0 +1,157 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.level.Player;
+import nl.tudelft.jpacman.level.PlayerFactory;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the {@link DistanceField} agrees with the shortest paths found by
+ * {@link Navigation}, and follows the player around.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class DistanceFieldTest {
+
+    /**
+     * The level with the player on it.
+     */
+    private Level level;
+
+    /**
+     * The player the distances are measured to.
+     */
+    private Player player;
+
+    /**
+     * The unit travelling the board.
+     */
+    private Unit traveller;
+
+    /**
+     * The field under test.
+     */
+    private DistanceField field;
+
+    /**
+     * Creates a small maze with a player in it.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = mock(PacManSprites.class);
+        when(sprites.getPacManDeathAnimation()).thenReturn(mock(AnimatedSprite.class));
+        MapParser parser = new MapParser(new LevelFactory(sprites, new GhostFactory(
+            sprites)), new BoardFactory(sprites));
+        level = parser.parseMap(Lists.newArrayList(
+            "#########",
+            "#   #   #",
+            "# # # #  ",
+            "#   P # #",
+            "### #####",
+            "#   #   #",
+            "#########"));
+        player = new PlayerFactory(sprites).createPacMan();
+        level.registerPlayer(player);
+        traveller = mock(Unit.class);
+        field = level.getPlayerDistances(traveller);
+    }
+
+    /**
+     * Verifies every square agrees with the shortest path to the player.
+     */
+    @Test
+    void matchesShortestPaths() {
+        assertMatchesShortestPaths();
+    }
+
+    /**
+     * Verifies the field is updated when the player moves.
+     */
+    @Test
+    void followsPlayer() {
+        Board board = level.getBoard();
+        Square corner = board.squareAt(1, 1);
+        int before = field.distance(corner);
+
+        level.start();
+        level.move(player, Direction.WEST);
+        level.stop();
+
+        assertThat(field.distance(corner)).isEqualTo(before - 1);
+        assertMatchesShortestPaths();
+    }
+
+    /**
+     * Verifies squares from which the player cannot be reached have no
+     * distance, next hop or nearest player.
+     */
+    @Test
+    void unreachable() {
+        Square closedOff = level.getBoard().squareAt(6, 5);
+        assertThat(field.distance(closedOff)).isEqualTo(DistanceField.UNREACHABLE);
+        assertThat(field.nextHop(closedOff)).isNull();
+        assertThat(field.nearestPlayer(closedOff)).isNull();
+    }
+
+    /**
+     * Verifies the field is shared by units of the same kind.
+     */
+    @Test
+    void shared() {
+        assertThat(level.getPlayerDistances(mock(Unit.class)))
+            .isSameAs(field);
+    }
+
+    /**
+     * Verifies all kinds of ghosts share a single field, as they can enter
+     * the same squares.
+     */
+    @Test
+    void sharedByGhosts() {
+        GhostFactory ghosts = new GhostFactory(mock(PacManSprites.class));
+        assertThat(level.getPlayerDistances(ghosts.createBlinky()))
+            .isSameAs(level.getPlayerDistances(ghosts.createClyde()))
+            .isNotSameAs(field);
+    }
+
+    /**
+     * Compares the field with the shortest path from every square.
+     */
+    private void assertMatchesShortestPaths() {
+        Board board = level.getBoard();
+        for (int i = 0; i < board.getSquareCount(); i++) {
+            Square square = board.squareAtIndex(i);
+            List<Direction> path = Navigation.shortestPath(square, player.getSquare(),
+                traveller);
+            if (path == null) {
+                assertThat(field.distance(square)).isEqualTo(DistanceField.UNREACHABLE);
+            } else if (path.isEmpty()) {
+                assertThat(field.distance(square)).isZero();
+                assertThat(field.nextHop(square)).isNull();
+            } else {
+                assertThat(field.distance(square)).isEqualTo(path.size());
+                assertThat(field.nextHop(square)).isEqualTo(path.get(0));
+                assertThat(field.nearestPlayer(square)).isSameAs(player);
+            }
+        }
+    }
+}
@@ -3,10 +3,14 @@ package nl.tudelft.jpacman.npc.ghost;
 import static org.mockito.Mockito.mock;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import nl.tudelft.jpacman.board.Board;
 import nl.tudelft.jpacman.board.BoardFactory;
@@ -157,4 +161,45 @@ class NavigationTest {
             assertThat(unit).isNotNull();
         }
     }
+
+    /**
+     * Verifies searches on thousands of virtual threads share a few pooled
+     * buffers instead of one per thread. Only runs on a Java runtime with
+     * virtual threads.
+     *
+     * @throws ReflectiveOperationException
+     *             when a virtual thread could not be started.
+     * @throws InterruptedException
+     *             when the test is interrupted.
+     */
+    @Test
+    void virtualThreadsShareSearches()
+            throws ReflectiveOperationException, InterruptedException {
+        Method startVirtual;
+        try {
+            startVirtual = Thread.class.getMethod("startVirtualThread", Runnable.class);
+        } catch (NoSuchMethodException e) {
+            startVirtual = null;
+        }
+        assumeTrue(startVirtual != null, "Virtual threads need Java 21 or later");
+        Board b = parser.parseMap(Lists.newArrayList("#     #")).getBoard();
+        Square from = b.squareAt(1, 0);
+        Square to = b.squareAt(4, 0);
+        List<Direction> expected = Navigation.shortestPath(from, to, null);
+        AtomicInteger found = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            threads.add((Thread) startVirtual.invoke(null, (Runnable) () -> {
+                if (expected.equals(Navigation.shortestPath(from, to, null))) {
+                    found.incrementAndGet();
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(found.get()).isEqualTo(2000);
+        assertThat(Navigation.getPooledSearchCount())
+            .isBetween(1, 2 * Runtime.getRuntime().availableProcessors());
+    }
 }
@@ -0,0 +1,196 @@
+package nl.tudelft.jpacman.npc.ghost;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.npc.Ghost;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the {@link PathTable} agrees with the {@link BreadthFirstSearch}
+ * on randomly generated mazes.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class PathTableTest {
+
+    /**
+     * Map parser used to construct boards.
+     */
+    private MapParser parser;
+
+    /**
+     * The source of the random mazes, seeded to make failures reproducible.
+     */
+    private Random random;
+
+    /**
+     * The unit travelling the boards.
+     */
+    private Unit traveller;
+
+    /**
+     * Set up the map parser.
+     */
+    @BeforeEach
+    void setUp() {
+        PacManSprites sprites = mock(PacManSprites.class);
+        parser = new MapParser(new LevelFactory(sprites, new GhostFactory(
+            sprites)), new BoardFactory(sprites));
+        random = new Random(7L);
+        traveller = mock(Unit.class);
+    }
+
+    /**
+     * Verifies the paths between all pairs of squares match those found by
+     * searching.
+     */
+    @Test
+    void matchesSearch() {
+        BreadthFirstSearch search = new BreadthFirstSearch(0);
+        for (int m = 0; m < 10; m++) {
+            Board board = randomMaze(1 + random.nextInt(25), 1 + random.nextInt(25));
+            PathTable table = PathTable.build(board, traveller, PathTable.MAX_ENTRIES);
+            for (int from = 0; from < board.getSquareCount(); from++) {
+                for (int to = 0; to < board.getSquareCount(); to++) {
+                    assertSamePath(table, search, board.squareAtIndex(from),
+                        board.squareAtIndex(to));
+                }
+            }
+        }
+    }
+
+    /**
+     * Verifies boards that are too large are not precomputed.
+     */
+    @Test
+    void tooLarge() {
+        Board board = randomMaze(10, 10);
+        assertThat(PathTable.build(board, traveller, 99 * 99)).isNull();
+        assertThat(PathTable.build(board, traveller, 100 * 100)).isNotNull();
+    }
+
+    /**
+     * Verifies a precomputed table is used for the board and kind of unit it
+     * was computed for only.
+     */
+    @Test
+    void registered() {
+        Board board = randomMaze(8, 8);
+        Board other = randomMaze(8, 8);
+        PathTable table = PathTable.precompute(board, traveller);
+
+        assertThat(PathTable.lookup(board, mock(Unit.class))).isSameAs(table);
+        assertThat(PathTable.lookup(other, traveller)).isNull();
+        assertThat(PathTable.lookup(board, mock(Ghost.class))).isNull();
+    }
+
+    /**
+     * Verifies boards with the same layout share a table, which is computed
+     * only once, while boards with another layout get their own.
+     */
+    @Test
+    void sharedByLayout() {
+        List<String> map = Lists.newArrayList("# # ", "    ", "## #");
+        Board board = parser.parseMap(map).getBoard();
+        Board same = parser.parseMap(map).getBoard();
+        Board other = parser.parseMap(Lists.newArrayList("# # ", "  # ", "## #")).getBoard();
+        PathTable table = PathTable.precompute(board, traveller);
+
+        assertThat(PathTable.precompute(same, traveller)).isSameAs(table);
+        assertThat(PathTable.lookup(same, traveller)).isSameAs(table);
+        assertThat(PathTable.precompute(other, traveller)).isNotSameAs(table);
+    }
+
+    /**
+     * Verifies a level factory precomputing paths builds a single table that
+     * is shared by all kinds of ghosts.
+     */
+    @Test
+    void sharedByGhosts() {
+        PacManSprites sprites = mock(PacManSprites.class);
+        LevelFactory factory = new LevelFactory(sprites, new GhostFactory(sprites));
+        factory.setPrecomputePaths(true);
+        Level level = new MapParser(factory, new BoardFactory(sprites))
+            .parseMap(Lists.newArrayList("#######", "#GG GG#", "#######"));
+        Board board = level.getBoard();
+        List<Unit> ghosts = new ArrayList<>();
+        for (int x = 1; x < 6; x++) {
+            ghosts.addAll(board.squareAt(x, 1).getOccupants());
+        }
+
+        PathTable table = PathTable.lookup(board, ghosts.get(0));
+        assertThat(table).isNotNull();
+        for (Unit ghost : ghosts) {
+            assertThat(PathTable.lookup(board, ghost)).isSameAs(table);
+        }
+        assertThat(ghosts).extracting(Object::getClass).doesNotHaveDuplicates();
+    }
+
+    /**
+     * Asserts the table and the search find the same path between two
+     * squares.
+     *
+     * @param table
+     *            The table to verify.
+     * @param search
+     *            The search to compare with.
+     * @param from
+     *            The starting square.
+     * @param to
+     *            The destination.
+     */
+    private void assertSamePath(PathTable table, BreadthFirstSearch search,
+                                Square from, Square to) {
+        List<Direction> path = search.shortestPath(from, to, traveller);
+        assertThat(table.shortestPath(from, to)).isEqualTo(path);
+        if (path == null) {
+            assertThat(table.distance(from, to)).isEqualTo(-1);
+            assertThat(table.nextHop(from, to)).isNull();
+        } else {
+            assertThat(table.distance(from, to)).isEqualTo(path.size());
+        }
+    }
+
+    /**
+     * Creates a random maze of walls and empty squares.
+     *
+     * @param width
+     *            The width of the maze.
+     * @param height
+     *            The height of the maze.
+     * @return The board of the new maze.
+     */
+    private Board randomMaze(int width, int height) {
+        List<String> rows = new ArrayList<>();
+        for (int y = 0; y < height; y++) {
+            StringBuilder row = new StringBuilder();
+            for (int x = 0; x < width; x++) {
+                if (random.nextInt(3) == 0) {
+                    row.append('#');
+                } else {
+                    row.append(' ');
+                }
+            }
+            rows.add(row.toString());
+        }
+        return parser.parseMap(rows).getBoard();
+    }
+}
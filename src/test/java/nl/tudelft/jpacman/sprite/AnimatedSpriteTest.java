@@ -0,0 +1,159 @@
+package nl.tudelft.jpacman.sprite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.awt.Graphics;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies {@link AnimatedSprite}s follow the {@link AnimationClock}.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class AnimatedSpriteTest {
+
+    /**
+     * The delay between frames.
+     */
+    private static final int DELAY = 100;
+
+    /**
+     * The time of the clock driving the animations.
+     */
+    private AtomicLong time;
+
+    /**
+     * The clock that was replaced for the test.
+     */
+    private AnimationClock original;
+
+    /**
+     * The frames of the animations.
+     */
+    private Sprite[] frames;
+
+    /**
+     * The frame drawn last.
+     */
+    private Sprite drawn;
+
+    /**
+     * Replaces the animation clock by one under control of the test.
+     */
+    @BeforeEach
+    void setUp() {
+        original = AnimationClock.global();
+        time = new AtomicLong(1000L);
+        AnimationClock.setGlobal(new AnimationClock(time::get));
+        frames = new Sprite[] {new Frame(), new Frame(), new Frame()};
+    }
+
+    /**
+     * Restores the original animation clock.
+     */
+    @AfterEach
+    void tearDown() {
+        AnimationClock.setGlobal(original);
+    }
+
+    /**
+     * Verifies a looping animation moves on one frame per delay, and
+     * catches up at once after a long pause.
+     */
+    @Test
+    void looping() {
+        AnimatedSprite animation = new AnimatedSprite(frames, DELAY, true, true);
+        assertThat(frameAt(animation, 1099L)).isSameAs(frames[0]);
+        assertThat(frameAt(animation, 1100L)).isSameAs(frames[1]);
+        assertThat(frameAt(animation, 1250L)).isSameAs(frames[2]);
+        assertThat(frameAt(animation, 1300L)).isSameAs(frames[0]);
+        assertThat(frameAt(animation, 1000L + 3_000_000_000_100L)).isSameAs(frames[1]);
+    }
+
+    /**
+     * Verifies a non-looping animation stops after its last frame.
+     */
+    @Test
+    void notLooping() {
+        AnimatedSprite animation = new AnimatedSprite(frames, DELAY, false);
+        animation.restart();
+        assertThat(frameAt(animation, 1200L)).isSameAs(frames[2]);
+        assertThat(animation.isAnimating()).isTrue();
+        assertThat(frameAt(animation, 1300L)).isNull();
+        assertThat(animation.isAnimating()).isFalse();
+    }
+
+    /**
+     * Verifies an animation does not move on while it is paused, and
+     * continues where it was when it is resumed.
+     */
+    @Test
+    void paused() {
+        AnimatedSprite animation = new AnimatedSprite(frames, DELAY, true, true);
+        assertThat(frameAt(animation, 1100L)).isSameAs(frames[1]);
+        animation.setAnimating(false);
+        assertThat(frameAt(animation, 5000L)).isSameAs(frames[1]);
+        animation.setAnimating(true);
+        assertThat(frameAt(animation, 5099L)).isSameAs(frames[1]);
+        assertThat(frameAt(animation, 5100L)).isSameAs(frames[2]);
+    }
+
+    /**
+     * Verifies the time only changes when the clock ticks.
+     */
+    @Test
+    void sampledOncePerTick() {
+        AnimatedSprite animation = new AnimatedSprite(frames, DELAY, true, true);
+        time.set(1500L);
+        animation.draw(mock(Graphics.class), 0, 0, 1, 1);
+        assertThat(AnimationClock.global().now()).isEqualTo(1000L);
+        assertThat(currentFrame(animation)).isSameAs(frames[0]);
+    }
+
+    /**
+     * Ticks the clock at the given time and returns the frame an animation
+     * would draw.
+     *
+     * @param animation
+     *            The animation to draw.
+     * @param now
+     *            The time of the tick.
+     * @return The frame drawn, or <code>null</code> if the animation ended.
+     */
+    private Sprite frameAt(AnimatedSprite animation, long now) {
+        time.set(now);
+        AnimationClock.global().tick();
+        return currentFrame(animation);
+    }
+
+    /**
+     * @param animation
+     *            The animation to draw.
+     * @return The frame the animation draws, or <code>null</code> if the
+     *         animation ended.
+     */
+    private Sprite currentFrame(AnimatedSprite animation) {
+        drawn = null;
+        animation.draw(mock(Graphics.class), 0, 0, 1, 1);
+        return drawn;
+    }
+
+    /**
+     * A frame that records it was drawn.
+     *
+     * @author Jeroen Roosen
+     */
+    private final class Frame extends EmptySprite {
+
+        @Override
+        public void draw(Graphics graphics, int x, int y, int width, int height) {
+            drawn = this;
+        }
+    }
+}
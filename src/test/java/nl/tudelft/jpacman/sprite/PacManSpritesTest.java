@@ -0,0 +1,69 @@
+package nl.tudelft.jpacman.sprite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+
+import nl.tudelft.jpacman.board.Direction;
+import nl.tudelft.jpacman.npc.ghost.GhostColor;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the animations of {@link PacManSprites} share their frames, but
+ * not their progress.
+ *
+ * @author Jeroen Roosen
+ */
+class PacManSpritesTest {
+
+    /**
+     * The sprites under test.
+     */
+    private PacManSprites sprites;
+
+    /**
+     * Creates the sprites.
+     */
+    @BeforeEach
+    void setUp() {
+        sprites = new PacManSprites();
+    }
+
+    /**
+     * Verifies ghosts of the same colour share the frames of their
+     * animations.
+     */
+    @Test
+    void ghostsShareFrames() {
+        Map<Direction, Sprite> first = sprites.getGhostSprite(GhostColor.RED);
+        Map<Direction, Sprite> second = sprites.getGhostSprite(GhostColor.RED);
+        Map<Direction, Sprite> other = sprites.getGhostSprite(GhostColor.CYAN);
+
+        for (Direction direction : Direction.values()) {
+            AnimatedSprite animation = (AnimatedSprite) first.get(direction);
+            assertThat(second.get(direction)).isNotSameAs(animation);
+            assertThat(((AnimatedSprite) second.get(direction)).getFrame(0))
+                .isSameAs(animation.getFrame(0));
+            assertThat(((AnimatedSprite) other.get(direction)).getFrame(0))
+                .isNotSameAs(animation.getFrame(0));
+        }
+    }
+
+    /**
+     * Verifies each Pac-Man has its own death animation, made of shared
+     * frames.
+     */
+    @Test
+    void deathAnimationsShareFrames() {
+        AnimatedSprite first = sprites.getPacManDeathAnimation();
+        AnimatedSprite second = sprites.getPacManDeathAnimation();
+
+        first.restart();
+
+        assertThat(first.isAnimating()).isTrue();
+        assertThat(second.isAnimating()).isFalse();
+        assertThat(second.getFrame(1)).isSameAs(first.getFrame(1));
+    }
+}
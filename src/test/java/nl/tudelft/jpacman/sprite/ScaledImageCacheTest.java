@@ -0,0 +1,78 @@
+package nl.tudelft.jpacman.sprite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Image;
+import java.awt.image.BufferedImage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the {@link ScaledImageCache} scales images once per size and
+ * forgets the sizes that are no longer used.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class ScaledImageCacheTest {
+
+    /**
+     * The image to scale, red on the left and blue on the right.
+     */
+    private BufferedImage source;
+
+    /**
+     * The cache under test.
+     */
+    private ScaledImageCache cache;
+
+    /**
+     * Creates a small image and a cache for it.
+     */
+    @BeforeEach
+    void setUp() {
+        source = new BufferedImage(2, 1, BufferedImage.TYPE_INT_ARGB);
+        source.setRGB(0, 0, Color.RED.getRGB());
+        source.setRGB(1, 0, Color.BLUE.getRGB());
+        cache = new ScaledImageCache(source, 2);
+    }
+
+    /**
+     * Verifies the image is scaled to the requested size.
+     */
+    @Test
+    void scales() {
+        BufferedImage copy = (BufferedImage) cache.get(4, 2, null);
+        assertThat(copy.getWidth()).isEqualTo(4);
+        assertThat(copy.getHeight()).isEqualTo(2);
+        assertThat(copy.getRGB(1, 1)).isEqualTo(Color.RED.getRGB());
+        assertThat(copy.getRGB(2, 0)).isEqualTo(Color.BLUE.getRGB());
+    }
+
+    /**
+     * Verifies the image is scaled only once for the same size.
+     */
+    @Test
+    void reused() {
+        Image copy = cache.get(4, 2, null);
+        assertThat(cache.get(4, 2, null)).isSameAs(copy);
+        assertThat(cache.get(2, 4, null)).isNotSameAs(copy);
+    }
+
+    /**
+     * Verifies the least recently used size is evicted.
+     */
+    @Test
+    void evictsLeastRecentlyUsed() {
+        Image small = cache.get(4, 4, null);
+        Image medium = cache.get(8, 8, null);
+        cache.get(4, 4, null);
+        cache.get(16, 16, null);
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(cache.get(4, 4, null)).isSameAs(small);
+        assertThat(cache.get(8, 8, null)).isNotSameAs(medium);
+    }
+}
@@ -63,6 +63,35 @@ public class SpriteTest {
             .isInstanceOf(IOException.class);
     }
 
+    /**
+     * Verifies that a sprite loaded in the background is the same sprite as
+     * the one loaded on demand.
+     *
+     * @throws java.io.IOException
+     *             when the sprite could not be loaded.
+     */
+    @Test
+    public void preloaded() throws IOException {
+        store.preload("/sprite/pellet.png", "/sprite/64x64white.png");
+        Sprite pellet = store.loadSprite("/sprite/pellet.png");
+        assertThat(pellet.getWidth()).isEqualTo(16);
+        assertThat(store.loadSprite("/sprite/pellet.png")).isSameAs(pellet);
+        assertThat(store.loadSprite("/sprite/64x64white.png")).isSameAs(sprite);
+    }
+
+    /**
+     * Verifies that a sprite that failed to load in the background reports
+     * the failure when it is used, every time.
+     */
+    @Test
+    public void preloadMissing() {
+        store.preload("/sprite/nonexistingresource.png");
+        assertThatThrownBy(() -> store.loadSprite("/sprite/nonexistingresource.png"))
+            .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> store.loadSprite("/sprite/nonexistingresource.png"))
+            .isInstanceOf(IOException.class);
+    }
+
     /**
      * Verifies that an animated sprite is correctly cut from its base image.
      */
@@ -0,0 +1,144 @@
+package nl.tudelft.jpacman.sprite;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies sprites packed into a {@link TextureAtlas} look exactly like the
+ * sprites loaded from separate images.
+ *
+ * @author Jeroen Roosen
+ */
+@SuppressWarnings("magicnumber")
+class TextureAtlasTest {
+
+    /**
+     * Verifies the packed images do not overlap and keep their size.
+     */
+    @Test
+    void packs() {
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        images.put("red", filled(16, 16, Color.RED));
+        images.put("green", filled(40, 16, Color.GREEN));
+        images.put("blue", filled(16, 48, Color.BLUE));
+        TextureAtlas atlas = TextureAtlas.pack(images);
+
+        for (Map.Entry<String, BufferedImage> entry : images.entrySet()) {
+            Sprite sprite = atlas.getSprite(entry.getKey());
+            assertThat(sprite.getWidth()).isEqualTo(entry.getValue().getWidth());
+            assertThat(sprite.getHeight()).isEqualTo(entry.getValue().getHeight());
+            assertSameImage(sprite, new ImageSprite(entry.getValue()), 16, 16);
+        }
+        assertThat(atlas.getSprite("yellow")).isNull();
+    }
+
+    /**
+     * Verifies the sprites split off a packed sprite are views of the same
+     * atlas.
+     */
+    @Test
+    void splits() {
+        BufferedImage image = filled(32, 16, Color.RED);
+        image.setRGB(20, 5, Color.BLUE.getRGB());
+        Map<String, BufferedImage> images = new LinkedHashMap<>();
+        images.put("image", image);
+        Sprite sprite = TextureAtlas.pack(images).getSprite("image");
+
+        Sprite frame = sprite.split(16, 0, 16, 16);
+        assertThat(frame).isInstanceOf(AtlasSprite.class);
+        assertSameImage(frame, new ImageSprite(image).split(16, 0, 16, 16), 16, 16);
+        assertThat(sprite.split(16, 0, 17, 16)).isInstanceOf(EmptySprite.class);
+    }
+
+    /**
+     * Verifies every frame of the Pac-Man sprites looks the same when packed,
+     * at its own size and scaled.
+     */
+    @Test
+    void pacManSprites() {
+        PacManSprites separate = new PacManSprites();
+        PacManSprites packed = new PacManSprites(true);
+        String[] resources = {"/sprite/pacman.png", "/sprite/dead.png",
+            "/sprite/ghost_red.png", "/sprite/wall.png", "/sprite/pellet.png"};
+
+        for (String resource : resources) {
+            Sprite expected = separate.loadSprite(resource);
+            Sprite actual = packed.loadSprite(resource);
+            assertThat(actual).isInstanceOf(AtlasSprite.class);
+            for (int x = 0; x < expected.getWidth(); x += 16) {
+                for (int y = 0; y < expected.getHeight(); y += 16) {
+                    assertSameImage(actual.split(x, y, 16, 16),
+                        expected.split(x, y, 16, 16), 16, 16);
+                    assertSameImage(actual.split(x, y, 16, 16),
+                        expected.split(x, y, 16, 16), 32, 32);
+                }
+            }
+        }
+    }
+
+    /**
+     * Asserts two sprites draw the same pixels.
+     *
+     * @param actual
+     *            The sprite to verify.
+     * @param expected
+     *            The sprite to compare with.
+     * @param width
+     *            The width to draw the sprites at.
+     * @param height
+     *            The height to draw the sprites at.
+     */
+    private static void assertSameImage(Sprite actual, Sprite expected, int width, int height) {
+        BufferedImage actualImage = render(actual, width, height);
+        BufferedImage expectedImage = render(expected, width, height);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                assertThat(actualImage.getRGB(x, y))
+                    .as("pixel %d,%d", x, y).isEqualTo(expectedImage.getRGB(x, y));
+            }
+        }
+    }
+
+    /**
+     * @param sprite
+     *            The sprite to draw.
+     * @param width
+     *            The width to draw the sprite at.
+     * @param height
+     *            The height to draw the sprite at.
+     * @return An image with the sprite drawn on it.
+     */
+    private static BufferedImage render(Sprite sprite, int width, int height) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics graphics = image.getGraphics();
+        sprite.draw(graphics, 0, 0, width, height);
+        graphics.dispose();
+        return image;
+    }
+
+    /**
+     * @param width
+     *            The width of the image.
+     * @param height
+     *            The height of the image.
+     * @param color
+     *            The colour of the image.
+     * @return A new image of a single colour.
+     */
+    private static BufferedImage filled(int width, int height, Color color) {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                image.setRGB(x, y, color.getRGB());
+            }
+        }
+        return image;
+    }
+}
@@ -0,0 +1,144 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import nl.tudelft.jpacman.board.Board;
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the {@link BoardChanges} report exactly the squares that look
+ * different.
+ *
+ * @author Jeroen Roosen
+ */
+class BoardChangesTest {
+
+    /**
+     * The board to change.
+     */
+    private Board board;
+
+    /**
+     * The left square of the board.
+     */
+    private Square left;
+
+    /**
+     * The right square of the board.
+     */
+    private Square right;
+
+    /**
+     * The unit moving around on the board.
+     */
+    private TestUnit unit;
+
+    /**
+     * The changes under test.
+     */
+    private BoardChanges changes;
+
+    /**
+     * Creates a board of two squares with a unit on the left one.
+     */
+    @BeforeEach
+    void setUp() {
+        BoardFactory factory = new BoardFactory(mock(PacManSprites.class));
+        left = factory.createGround();
+        right = factory.createGround();
+        board = factory.createBoard(new Square[][] {{left}, {right}});
+        unit = new TestUnit(mock(Sprite.class));
+        unit.occupy(left);
+        changes = new BoardChanges(board);
+        board.addObserver(changes);
+    }
+
+    /**
+     * Verifies nothing is reported when nothing happened.
+     */
+    @Test
+    void nothingChanged() {
+        assertThat(changes.collect()).isEmpty();
+    }
+
+    /**
+     * Verifies both squares are reported once when a unit moves.
+     */
+    @Test
+    void unitMoved() {
+        unit.occupy(right);
+        assertThat(changes.collect()).containsExactly(left, right);
+        assertThat(changes.collect()).isEmpty();
+    }
+
+    /**
+     * Verifies the square of a unit that moved before is reported once when
+     * its sprite changes.
+     */
+    @Test
+    void spriteChanged() {
+        unit.occupy(right);
+        changes.collect();
+
+        unit.sprite = mock(Sprite.class);
+        assertThat(changes.collect()).containsExactly(right);
+        assertThat(changes.collect()).isEmpty();
+    }
+
+    /**
+     * Verifies the square of an animated unit is reported as long as it is
+     * animating.
+     */
+    @Test
+    void animating() {
+        AnimatedSprite animation = mock(AnimatedSprite.class);
+        when(animation.isAnimating()).thenReturn(true);
+        TestUnit animated = new TestUnit(animation);
+        animated.occupy(right);
+        changes = new BoardChanges(board);
+
+        assertThat(changes.collect()).containsExactly(right);
+        assertThat(changes.collect()).containsExactly(right);
+
+        when(animation.isAnimating()).thenReturn(false);
+        assertThat(changes.collect()).isEmpty();
+    }
+
+    /**
+     * A unit whose sprite can be changed.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class TestUnit extends Unit {
+
+        /**
+         * The current sprite of the unit.
+         */
+        private Sprite sprite;
+
+        /**
+         * Creates a new unit.
+         *
+         * @param sprite
+         *            The initial sprite of the unit.
+         */
+        TestUnit(Sprite sprite) {
+            this.sprite = sprite;
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return sprite;
+        }
+    }
+}
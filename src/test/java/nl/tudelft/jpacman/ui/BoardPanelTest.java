@@ -0,0 +1,93 @@
+package nl.tudelft.jpacman.ui;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import nl.tudelft.jpacman.board.BoardFactory;
+import nl.tudelft.jpacman.board.Square;
+import nl.tudelft.jpacman.board.Unit;
+import nl.tudelft.jpacman.game.Game;
+import nl.tudelft.jpacman.level.FixedStepLoop;
+import nl.tudelft.jpacman.level.Level;
+import nl.tudelft.jpacman.level.LevelFactory;
+import nl.tudelft.jpacman.level.MapParser;
+import nl.tudelft.jpacman.npc.ghost.GhostFactory;
+import nl.tudelft.jpacman.sprite.AnimatedSprite;
+import nl.tudelft.jpacman.sprite.HeadlessSprites;
+import nl.tudelft.jpacman.sprite.PacManSprites;
+import nl.tudelft.jpacman.sprite.Sprite;
+
+import com.google.common.collect.Lists;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Verifies the {@link BoardPanel} repaints the squares that look different
+ * when the level is advanced in ticks.
+ *
+ * @author Jeroen Roosen
+ */
+class BoardPanelTest {
+
+    /**
+     * Verifies the square of an animating unit keeps being repainted while
+     * the snapshots do not change, also once the level has stopped.
+     */
+    @Test
+    void animatingInSnapshotMode() {
+        PacManSprites sprites = new HeadlessSprites();
+        LevelFactory factory = new LevelFactory(sprites, new GhostFactory(sprites));
+        FixedStepLoop loop = new FixedStepLoop(FixedStepLoop.DEFAULT_TICK_MILLIS);
+        factory.setFixedStepLoop(loop);
+        Level level = new MapParser(factory, new BoardFactory(sprites))
+            .parseMap(Lists.newArrayList("#####", "#   #", "#####"));
+        AnimatedSprite animation = mock(AnimatedSprite.class);
+        when(animation.isAnimating()).thenReturn(true);
+        Square square = level.getBoard().squareAt(2, 1);
+        new AnimatedUnit(animation).occupy(square);
+        Game game = mock(Game.class);
+        when(game.getLevel()).thenReturn(level);
+        level.start();
+        loop.step();
+
+        BoardPanel panel = new BoardPanel(game);
+        assertThat(panel.collectChanges()).isNull();
+        loop.step();
+        assertThat(panel.collectChanges()).containsExactly(square.getIndex());
+
+        level.stop();
+        loop.step();
+        loop.step();
+        assertThat(panel.collectChanges()).containsExactly(square.getIndex());
+        when(animation.isAnimating()).thenReturn(false);
+        assertThat(panel.collectChanges()).isEmpty();
+    }
+
+    /**
+     * A unit with an animated sprite.
+     *
+     * @author Jeroen Roosen
+     */
+    private static final class AnimatedUnit extends Unit {
+
+        /**
+         * The sprite of the unit.
+         */
+        private final Sprite sprite;
+
+        /**
+         * Creates a new unit.
+         *
+         * @param sprite
+         *            The sprite of the unit.
+         */
+        AnimatedUnit(Sprite sprite) {
+            this.sprite = sprite;
+        }
+
+        @Override
+        public Sprite getSprite() {
+            return sprite;
+        }
+    }
+}